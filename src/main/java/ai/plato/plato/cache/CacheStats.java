@@ -0,0 +1,25 @@
+package ai.plato.plato.cache;
+
+/**
+ * CacheStats is an immutable snapshot of the counters of a {@link ResultCache}.
+ *
+ * @param name The cache name.
+ * @param hits Number of lookups that returned a cached value.
+ * @param misses Number of lookups that found no usable value.
+ * @param evictions Number of entries evicted to stay within the weight limit.
+ * @param expirations Number of entries dropped because their time-to-live elapsed.
+ * @param invalidations Number of entries dropped because a recipe they contain was modified.
+ * @param size Current number of entries.
+ * @param weight Current total weight (approximate bytes) of all entries.
+ */
+public record CacheStats(String name, long hits, long misses, long evictions, long expirations,
+                         long invalidations, long size, long weight) {
+
+    /**
+     * @return The fraction of lookups that were hits, or 0 if there were no lookups.
+     */
+    public double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,81 @@
+package ai.plato.plato.cache;
+
+import ai.plato.plato.model.Recipe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+
+/**
+ * RecipeCache caches full recipes by id for detail pages and batch lookups.
+ * <p>
+ * Every entry depends on its own recipe only, so a {@link RecipeChangedEvent} with a newer last_modified timestamp
+ * drops exactly one entry. A fetch racing with a change may still cache the older version; the time-to-live bounds
+ * how long it is served.
+ * </p>
+ */
+@Component
+public class RecipeCache {
+
+    private static final Logger log = LoggerFactory.getLogger(RecipeCache.class);
+
+    private final ResultCache<String, Recipe> cache;
+
+    /**
+     * Constructs RecipeCache from application properties.
+     *
+     * @param enabled Whether recipes are cached.
+     * @param maxWeightBytes Maximum approximate heap used by cached recipes.
+     * @param ttl Time-to-live of a cached recipe.
+     */
+    public RecipeCache(
+            @Value("${plato.cache.recipes.enabled:true}") boolean enabled,
+            @Value("${plato.cache.recipes.max-weight-bytes:33554432}") long maxWeightBytes,
+            @Value("${plato.cache.recipes.ttl:10m}") Duration ttl) {
+        this.cache = new ResultCache<>("recipes", enabled, maxWeightBytes, ttl, RecipePageCache::weigh);
+    }
+
+    /**
+     * Returns the cached recipe with an id, or null if there is none.
+     *
+     * @param id The recipe id.
+     * @return The cached recipe, or null.
+     */
+    public Recipe get(String id) {
+        return cache.get(id);
+    }
+
+    /**
+     * Caches a recipe under its id.
+     *
+     * @param recipe The recipe, fetched with its last_modified field.
+     */
+    public void put(Recipe recipe) {
+        if (recipe.getId() != null) {
+            cache.put(recipe.getId(), recipe, Collections.singletonMap(recipe.getId(), recipe.getLastModified()));
+        }
+    }
+
+    /**
+     * Drops the cached recipe if the change made it stale.
+     *
+     * @param event The recipe change event.
+     */
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (cache.invalidate(event.recipeId(), event.lastModified()) > 0) {
+            log.debug("Invalidated cached recipe {}", event.recipeId());
+        }
+    }
+
+    /**
+     * @return A snapshot of the cache counters.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,120 @@
+package ai.plato.plato.cache;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.params.CursorMarkParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * RecipeChangePoller detects recipes that were modified outside of this service.
+ * <p>
+ * Recipes are written into the index out of band, so there is no in-process write path that could announce
+ * every change. The poller periodically asks Solr for documents whose last_modified is at or after the last
+ * change it has seen and publishes a {@link RecipeChangedEvent} for each of them.
+ * </p>
+ * <p>
+ * The lower bound is inclusive because a document committed later can carry the same last_modified millisecond
+ * as the last one seen; the ids already published at that millisecond are remembered and skipped. Each poll walks
+ * all changes with a cursor, in batches, so it never stops partway through a millisecond.
+ * </p>
+ */
+@Component
+public class RecipeChangePoller {
+
+    private static final Logger log = LoggerFactory.getLogger(RecipeChangePoller.class);
+
+    private final SolrClient solrClient;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int batchSize;
+    private Instant watermark = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    private final Set<String> seenAtWatermark = new HashSet<>();
+
+    /**
+     * Constructs RecipeChangePoller.
+     *
+     * @param solrClient The Solr client instance used for querying the index.
+     * @param eventPublisher Publisher used to announce changed recipes.
+     * @param enabled Whether polling is enabled.
+     * @param batchSize Maximum number of changed recipes fetched per request to Solr.
+     */
+    public RecipeChangePoller(
+            SolrClient solrClient,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${plato.cache.invalidation.poll-enabled:true}") boolean enabled,
+            @Value("${plato.cache.invalidation.batch-size:1000}") int batchSize) {
+        this.solrClient = solrClient;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Publishes change events for recipes modified since the previous poll.
+     */
+    @Scheduled(fixedDelayString = "${plato.cache.invalidation.poll-interval:10s}")
+    public synchronized void poll() {
+        if (!enabled) {
+            return;
+        }
+        SolrQuery query = new SolrQuery("last_modified:[" + watermark + " TO *]");
+        query.setFields("id", "last_modified");
+        query.addSort("last_modified", SolrQuery.ORDER.asc);
+        query.addSort("id", SolrQuery.ORDER.asc);
+        query.setRows(batchSize);
+
+        try {
+            String cursor = CursorMarkParams.CURSOR_MARK_START;
+            while (true) {
+                query.set(CursorMarkParams.CURSOR_MARK_PARAM, cursor);
+                QueryResponse response = solrClient.query(query);
+                for (SolrDocument doc : response.getResults()) {
+                    publish((String) doc.getFirstValue("id"), toInstant(doc.getFirstValue("last_modified")));
+                }
+                String next = response.getNextCursorMark();
+                if (next == null || next.equals(cursor)) {
+                    break;
+                }
+                cursor = next;
+            }
+        } catch (IOException | SolrServerException | RuntimeException e) {
+            log.warn("Failed to poll Solr for modified recipes", e);
+        }
+    }
+
+    private void publish(String id, Instant lastModified) {
+        if (lastModified != null) {
+            if (lastModified.isAfter(watermark)) {
+                watermark = lastModified;
+                seenAtWatermark.clear();
+            }
+            // Recipes at the watermark millisecond may have been published by an earlier poll already
+            if (lastModified.equals(watermark) && !seenAtWatermark.add(id)) {
+                return;
+            }
+        }
+        eventPublisher.publishEvent(new RecipeChangedEvent(id, lastModified));
+    }
+
+    private static Instant toInstant(Object value) {
+        if (value instanceof Date date) {
+            return date.toInstant();
+        }
+        return value == null ? null : Instant.parse(value.toString());
+    }
+}
@@ -0,0 +1,13 @@
+package ai.plato.plato.cache;
+
+import java.time.Instant;
+
+/**
+ * RecipeChangedEvent is published whenever a recipe in the index is added, updated or deleted.
+ * Caches listen for it to drop results that contain an older version of the recipe.
+ *
+ * @param recipeId The id of the changed recipe.
+ * @param lastModified The new last_modified timestamp of the recipe, or null if unknown.
+ */
+public record RecipeChangedEvent(String recipeId, Instant lastModified) {
+}
@@ -0,0 +1,183 @@
+package ai.plato.plato.cache;
+
+import ai.plato.plato.model.FacetBucket;
+import ai.plato.plato.model.Recipe;
+import ai.plato.plato.model.RecipePage;
+import ai.plato.plato.model.RecipeSummary;
+import ai.plato.plato.model.RecipeView;
+import org.apache.solr.common.params.SolrParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RecipePageCache caches RecipePage results keyed on the normalized Solr query that produced them.
+ * <p>
+ * Pages are invalidated when a {@link RecipeChangedEvent} reports a newer version of a recipe they contain.
+ * Newly added recipes that would now match a cached query are picked up once the entry's time-to-live elapses.
+ * </p>
+ */
+@Component
+public class RecipePageCache {
+
+    private static final Logger log = LoggerFactory.getLogger(RecipePageCache.class);
+
+    // Rough per-object overhead used when estimating the retained size of a page
+    private static final int OBJECT_OVERHEAD = 16;
+    private static final int RECIPE_OVERHEAD = 160;
+
+    private final ResultCache<String, RecipePage<?>> cache;
+
+    /**
+     * Constructs RecipePageCache from application properties.
+     *
+     * @param enabled Whether search results are cached.
+     * @param maxWeightBytes Maximum approximate heap used by cached pages.
+     * @param ttl Time-to-live of a cached page.
+     */
+    public RecipePageCache(
+            @Value("${plato.cache.search.enabled:true}") boolean enabled,
+            @Value("${plato.cache.search.max-weight-bytes:67108864}") long maxWeightBytes,
+            @Value("${plato.cache.search.ttl:5m}") Duration ttl) {
+        this.cache = new ResultCache<>("recipe-pages", enabled, maxWeightBytes, ttl, RecipePageCache::weigh);
+    }
+
+    /**
+     * Returns the cached page for a query, or null if there is none.
+     * Every call returns its own copy of the page, so callers may set attributes on it.
+     *
+     * @param params The Solr query parameters.
+     * @return The cached RecipePage, or null.
+     */
+    public RecipePage<?> get(SolrParams params) {
+        RecipePage<?> page = cache.get(SolrQueryKeys.of(params));
+        return page == null ? null : page.copy();
+    }
+
+    /**
+     * Caches a copy of the page produced by a query, with its recipe list and facets made unmodifiable.
+     *
+     * @param params The Solr query parameters.
+     * @param page The RecipePage produced by the query.
+     */
+    public void put(SolrParams params, RecipePage<?> page) {
+        Map<String, Instant> versions = new HashMap<>();
+        for (RecipeView recipe : page.getRecipes()) {
+            if (recipe.getId() != null) {
+                versions.put(recipe.getId(), recipe.getLastModified());
+            }
+        }
+        cache.put(SolrQueryKeys.of(params), frozenCopy(page), versions);
+    }
+
+    /**
+     * Drops cached pages containing an older version of a changed recipe.
+     *
+     * @param event The recipe change event.
+     */
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        int removed = cache.invalidate(event.recipeId(), event.lastModified());
+        if (removed > 0) {
+            log.debug("Invalidated {} cached pages for recipe {}", removed, event.recipeId());
+        }
+    }
+
+    /**
+     * Drops all cached pages.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * @return A snapshot of the cache counters.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static <T extends RecipeView> RecipePage<T> frozenCopy(RecipePage<T> page) {
+        RecipePage<T> copy = page.copy();
+        copy.setRecipes(List.copyOf(page.getRecipes()));
+        if (page.getFacets() != null) {
+            Map<String, List<FacetBucket>> facets = new LinkedHashMap<>();
+            page.getFacets().forEach((name, buckets) -> facets.put(name, List.copyOf(buckets)));
+            copy.setFacets(Collections.unmodifiableMap(facets));
+        }
+        return copy;
+    }
+
+    /**
+     * Estimates the retained heap size of a page in bytes.
+     *
+     * @param page The page to weigh.
+     * @return The approximate size in bytes.
+     */
+    static long weigh(RecipePage<?> page) {
+        long weight = OBJECT_OVERHEAD * 4L;
+        for (RecipeView view : page.getRecipes()) {
+            if (view instanceof RecipeSummary summary) {
+                weight += RECIPE_OVERHEAD / 2
+                        + weigh(summary.getId())
+                        + weigh(summary.getTitle())
+                        + weigh(summary.getPictureLink())
+                        + weigh(summary.getDifficulty());
+                continue;
+            }
+            weight += weigh((Recipe) view);
+        }
+        if (page.getFacets() != null) {
+            for (List<FacetBucket> buckets : page.getFacets().values()) {
+                for (FacetBucket bucket : buckets) {
+                    weight += OBJECT_OVERHEAD * 2L + weigh(bucket.getValue());
+                }
+            }
+        }
+        return weight;
+    }
+
+    /**
+     * Estimates the retained heap size of a full recipe in bytes.
+     *
+     * @param recipe The recipe to weigh.
+     * @return The approximate size in bytes.
+     */
+    static long weigh(Recipe recipe) {
+        return RECIPE_OVERHEAD
+                + weigh(recipe.getId())
+                + weigh(recipe.getTitle())
+                + weigh(recipe.getIngredients())
+                + weigh(recipe.getInstructions())
+                + weigh(recipe.getPictureLink())
+                + weigh(recipe.getCuisines())
+                + weigh(recipe.getDifficulty())
+                + weigh(recipe.getDifficultyUserRated())
+                + weigh(recipe.getUploadedBy());
+    }
+
+    private static long weigh(String value) {
+        return value == null ? 0 : OBJECT_OVERHEAD * 2L + value.length();
+    }
+
+    private static long weigh(List<String> values) {
+        if (values == null) {
+            return 0;
+        }
+        long weight = OBJECT_OVERHEAD * 2L;
+        for (String value : values) {
+            weight += weigh(value) + 8;
+        }
+        return weight;
+    }
+}
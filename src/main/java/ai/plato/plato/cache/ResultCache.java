@@ -0,0 +1,214 @@
+package ai.plato.plato.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+/**
+ * ResultCache is a bounded, size-aware in-process cache for query results.
+ * <p>
+ * Entries are weighed (approximate bytes) and evicted in least-recently-used order once the total weight
+ * exceeds the configured limit. Every entry also expires after a fixed time-to-live, so results that are not
+ * explicitly invalidated are still refreshed regularly.
+ * </p>
+ *
+ * <p>
+ * Each entry records the recipe ids it was built from, together with their last_modified timestamps.
+ * {@link #invalidate(String, Instant)} drops every entry that contains an older version of the given recipe,
+ * which keeps edited recipes from being served out of stale pages.
+ * </p>
+ *
+ * @param <K> The cache key type.
+ * @param <V> The cached value type.
+ */
+public class ResultCache<K, V> {
+
+    private final String name;
+    private final boolean enabled;
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final ToLongFunction<V> weigher;
+
+    // Access-ordered map gives LRU iteration order; guarded by "this"
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(256, 0.75f, true);
+    // Reverse index from recipe id to the keys whose values contain it; guarded by "this"
+    private final Map<String, Set<K>> keysByRecipeId = new HashMap<>();
+    private long totalWeight;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    /**
+     * Creates a new ResultCache.
+     *
+     * @param name Name of the cache, used for logging and metrics.
+     * @param enabled Whether the cache stores anything at all.
+     * @param maxWeight Maximum total weight (approximate bytes) of all entries.
+     * @param ttl Time-to-live of each entry.
+     * @param weigher Function estimating the weight of a value.
+     */
+    public ResultCache(String name, boolean enabled, long maxWeight, Duration ttl, ToLongFunction<V> weigher) {
+        this.name = name;
+        this.enabled = enabled && maxWeight > 0;
+        this.maxWeight = maxWeight;
+        this.ttlNanos = ttl.toNanos();
+        this.weigher = weigher;
+    }
+
+    /**
+     * Returns the cached value for a key, or null if it is absent or expired.
+     *
+     * @param key The cache key.
+     * @return The cached value, or null.
+     */
+    public synchronized V get(K key) {
+        if (!enabled) {
+            return null;
+        }
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.expiresAt - System.nanoTime() <= 0) {
+            remove(key);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * Stores a value, evicting least recently used entries until the cache fits its weight limit.
+     *
+     * @param key The cache key.
+     * @param value The value to store.
+     * @param versions The recipe ids the value was built from, mapped to their last_modified timestamps (may be null).
+     */
+    public synchronized void put(K key, V value, Map<String, Instant> versions) {
+        if (!enabled) {
+            return;
+        }
+        long weight = weigher.applyAsLong(value);
+        if (weight > maxWeight) {
+            return;
+        }
+        remove(key);
+
+        Map<String, Instant> dependencies = (versions == null) ? Map.of() : versions;
+        entries.put(key, new Entry<>(value, weight, System.nanoTime() + ttlNanos, dependencies));
+        totalWeight += weight;
+        for (String recipeId : dependencies.keySet()) {
+            keysByRecipeId.computeIfAbsent(recipeId, id -> new HashSet<>()).add(key);
+        }
+
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (totalWeight > maxWeight && eldest.hasNext()) {
+            Map.Entry<K, Entry<V>> victim = eldest.next();
+            eldest.remove();
+            unlink(victim.getKey(), victim.getValue());
+            evictions++;
+        }
+    }
+
+    /**
+     * Drops every entry that was built from a version of the recipe older than the given timestamp.
+     *
+     * @param recipeId The id of the modified recipe.
+     * @param lastModified The new last_modified timestamp of the recipe, or null to drop unconditionally.
+     * @return The number of entries removed.
+     */
+    public synchronized int invalidate(String recipeId, Instant lastModified) {
+        Set<K> keys = keysByRecipeId.get(recipeId);
+        if (keys == null) {
+            return 0;
+        }
+        int removed = 0;
+        for (K key : Set.copyOf(keys)) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                continue;
+            }
+            Instant cachedVersion = entry.versions.get(recipeId);
+            if (lastModified == null || cachedVersion == null || cachedVersion.isBefore(lastModified)) {
+                remove(key);
+                removed++;
+            }
+        }
+        invalidations += removed;
+        return removed;
+    }
+
+    /**
+     * Drops the entry for a key, if present.
+     *
+     * @param key The cache key.
+     * @return Whether an entry was removed.
+     */
+    public synchronized boolean evict(K key) {
+        if (!entries.containsKey(key)) {
+            return false;
+        }
+        remove(key);
+        invalidations++;
+        return true;
+    }
+
+    /**
+     * Drops every entry in the cache.
+     */
+    public synchronized void clear() {
+        invalidations += entries.size();
+        entries.clear();
+        keysByRecipeId.clear();
+        totalWeight = 0;
+    }
+
+    /**
+     * Returns a snapshot of the cache counters.
+     *
+     * @return The current cache statistics.
+     */
+    public synchronized CacheStats stats() {
+        return new CacheStats(name, hits, misses, evictions, expirations, invalidations, entries.size(), totalWeight);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry != null) {
+            unlink(key, entry);
+        }
+    }
+
+    private void unlink(K key, Entry<V> entry) {
+        totalWeight -= entry.weight;
+        for (String recipeId : entry.versions.keySet()) {
+            Collection<K> keys = keysByRecipeId.get(recipeId);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    keysByRecipeId.remove(recipeId);
+                }
+            }
+        }
+    }
+
+    private record Entry<V>(V value, long weight, long expiresAt, Map<String, Instant> versions) {
+    }
+}
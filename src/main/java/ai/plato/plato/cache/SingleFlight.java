@@ -0,0 +1,89 @@
+package ai.plato.plato.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * SingleFlight coalesces concurrent calls for the same key into a single execution.
+ * <p>
+ * The first caller for a key runs the loader; callers arriving while it is still running wait for and share
+ * its result (or its exception). Nothing is retained once the call completes, so later callers always trigger
+ * a fresh execution and never observe stale data.
+ * </p>
+ *
+ * @param <K> The key type.
+ * @param <V> The result type.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Runs the loader for a key, or joins an identical call that is already in flight.
+     *
+     * @param key The key identifying identical calls.
+     * @param loader The computation to run if no call is in flight for the key.
+     * @return The result of the (possibly shared) computation.
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        executions.increment();
+        try {
+            V result = loader.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * @return The number of calls that actually ran their loader.
+     */
+    public long executions() {
+        return executions.sum();
+    }
+
+    /**
+     * @return The number of calls that joined an in-flight execution instead of running their own.
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return The number of executions currently in flight.
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            // Rethrow the original exception so callers see the same type as the leader
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ai.plato.plato.cache;
+
+import org.apache.solr.common.params.CommonParams;
+import org.apache.solr.common.params.SolrParams;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * SolrQueryKeys builds normalized cache keys from Solr request parameters.
+ * <p>
+ * Parameter names are sorted, and so are the values of filter queries, because the order in which filters are
+ * applied does not change the result. The values of every other parameter keep their order (e.g. sort clauses).
+ * </p>
+ */
+public final class SolrQueryKeys {
+
+    private SolrQueryKeys() {
+    }
+
+    /**
+     * Builds a normalized key for the given parameters.
+     *
+     * @param params The Solr parameters, typically the SolrQuery produced by RecipeSolrQueryBuilder.build().
+     * @return A string that is equal for all parameter sets producing the same results.
+     */
+    public static String of(SolrParams params) {
+        List<String> names = new ArrayList<>();
+        Iterator<String> it = params.getParameterNamesIterator();
+        while (it.hasNext()) {
+            names.add(it.next());
+        }
+        names.sort(null);
+
+        StringBuilder key = new StringBuilder(128);
+        for (String name : names) {
+            String[] values = params.getParams(name);
+            if (values == null) {
+                continue;
+            }
+            if (CommonParams.FQ.equals(name)) {
+                values = values.clone();
+                Arrays.sort(values);
+            }
+            for (String value : values) {
+                key.append(name).append('=').append(value).append('&');
+            }
+        }
+        return key.toString();
+    }
+}
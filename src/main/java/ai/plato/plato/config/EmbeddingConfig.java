@@ -0,0 +1,30 @@
+package ai.plato.plato.config;
+
+import ai.plato.plato.embedding.Embedder;
+import ai.plato.plato.embedding.HashingEmbedder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * EmbeddingConfig selects the embedding model used for semantic search.
+ * <p>
+ * The default is the local {@link HashingEmbedder}. Another model (an ONNX sentence encoder, a remote embedding
+ * service) is plugged in by returning a different {@link Embedder} here; the recipes then have to be re-ingested,
+ * because vectors of different models are not comparable.
+ * </p>
+ */
+@Configuration
+public class EmbeddingConfig {
+
+    /**
+     * Creates the embedding model.
+     *
+     * @param dimension The vector dimension; must match the vectorDimension of the Solr field.
+     * @return The embedder.
+     */
+    @Bean
+    public Embedder embedder(@Value("${plato.embedding.dimension:256}") int dimension) {
+        return new HashingEmbedder(dimension);
+    }
+}
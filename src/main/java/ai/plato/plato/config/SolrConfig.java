@@ -1,13 +1,24 @@
 package ai.plato.plato.config;
 
+import ai.plato.plato.resilience.ResilientSolrClient;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.impl.BinaryResponseParser;
 import org.apache.solr.client.solrj.impl.CloudSolrClient;
+import org.apache.solr.client.solrj.impl.HttpClientUtil;
+import org.apache.solr.client.solrj.impl.HttpSolrClient;
 import org.apache.solr.client.solrj.impl.LBHttpSolrClient;
+import org.apache.solr.common.params.ModifiableSolrParams;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * SolrConfig provides the configuration for connecting to a Solr instance.
@@ -24,10 +35,56 @@ import java.util.Optional;
  * latest versions of Spring and SolrJ while ensuring stability. The tradeoff is that we lose HTTP/2 support,
  * but this configuration avoids dependency conflicts and ensures a reliable connection to Solr.
  * </p>
+ *
+ * <p>
+ * The client is configured from application properties (plato.solr.*): the base URLs of the Solr nodes,
+ * connect and socket timeouts, and the size of the shared HTTP connection pool. Connections are kept alive
+ * and reused across requests instead of being opened per query.
+ * </p>
+ *
+ * <p>
+ * By default the nodes are wrapped in a {@link ResilientSolrClient}, which adds health probing, circuit breakers,
+ * hedged reads and bounded retries (plato.solr.resilience.*). Setting plato.solr.resilience.enabled=false
+ * restores the plain LBHttpSolrClient.
+ * </p>
  */
 @Configuration
 public class SolrConfig {
 
+    /**
+     * Creates the pooled connection manager shared by all requests to Solr.
+     *
+     * @param maxConnections Maximum number of open connections across all Solr nodes.
+     * @param maxConnectionsPerRoute Maximum number of open connections to a single Solr node.
+     * @param validateAfterInactivity Idle time after which a pooled connection is validated before reuse.
+     * @return The connection manager.
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager solrConnectionManager(
+            @Value("${plato.solr.max-connections:256}") int maxConnections,
+            @Value("${plato.solr.max-connections-per-route:128}") int maxConnectionsPerRoute,
+            @Value("${plato.solr.validate-after-inactivity:2s}") Duration validateAfterInactivity) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        connectionManager.setValidateAfterInactivity((int) validateAfterInactivity.toMillis());
+        return connectionManager;
+    }
+
+    /**
+     * Creates the HTTP client used to talk to Solr on top of the pooled connection manager.
+     *
+     * @param connectionManager The pooled connection manager.
+     * @return The HTTP client.
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient solrHttpClient(PoolingHttpClientConnectionManager connectionManager) {
+        ModifiableSolrParams params = new ModifiableSolrParams();
+        params.set(HttpClientUtil.PROP_FOLLOW_REDIRECTS, false);
+        // The connection manager is a Spring bean and is closed by the container
+        return HttpClientUtil.createClient(params, connectionManager, true);
+    }
+
     /**
      * Creates and returns a SolrClient bean configured to connect to a Solr instance.
      *
@@ -40,22 +97,76 @@ public class SolrConfig {
      * <p>
      * Instead, LBHttpSolrClient is used as it supports HTTP/1.1 and does not introduce these conflicts.
      * This ensures stable integration with Solr while maintaining compatibility with the rest of our stack.
+     * Responses are requested in the binary javabin format, which is cheaper to parse than XML or JSON.
      * </p>
      *
+     * @param httpClient The pooled HTTP client.
+     * @param baseUrls The base URLs of the Solr nodes serving the recipes core.
+     * @param connectTimeout Timeout for establishing a connection to Solr.
+     * @param socketTimeout Timeout for waiting on data from Solr.
+     * @param resilience Settings of the resilience layer.
      * @return A configured SolrClient instance.
      */
     @Bean
-    public SolrClient solrClient() {
+    public SolrClient solrClient(
+            CloseableHttpClient httpClient,
+            @Value("${plato.solr.base-urls:http://localhost:8983/solr/recipes}") String[] baseUrls,
+            @Value("${plato.solr.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${plato.solr.socket-timeout:10s}") Duration socketTimeout,
+            ResilienceSettings resilience) {
 //        return new CloudSolrClient.Builder(
 //                Collections.singletonList("localhost:9983"),
 //                Optional.empty())
 //                .withDefaultCollection("recipes")
 //                .build();
+        if (resilience.enabled()) {
+            return new ResilientSolrClient.Builder(Arrays.asList(baseUrls))
+                    .withNodeClientFactory(baseUrl -> new HttpSolrClient.Builder(baseUrl)
+                            .withHttpClient(httpClient)
+                            .withResponseParser(new BinaryResponseParser())
+                            .withConnectionTimeout((int) connectTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                            .withSocketTimeout((int) socketTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                            .build())
+                    .withProbeInterval(resilience.probeInterval())
+                    .withHedging(resilience.hedging(), resilience.hedgeDelayMin(), resilience.hedgeDelayMax())
+                    .withMaxAttempts(resilience.maxAttempts())
+                    .withCircuitBreaker(resilience.failureThreshold(), resilience.openDuration())
+                    .build();
+        }
         return new LBHttpSolrClient.Builder()
-                .withBaseSolrUrls(
-                        "http://localhost:8983/solr/recipes"
-                )
+                .withBaseSolrUrls(baseUrls)
+                .withHttpClient(httpClient)
+                .withResponseParser(new BinaryResponseParser())
+                .withConnectionTimeout((int) connectTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .withSocketTimeout((int) socketTimeout.toMillis(), TimeUnit.MILLISECONDS)
                 .build();
 
     }
+
+    /**
+     * Collects the plato.solr.resilience.* settings.
+     *
+     * @return The resilience settings.
+     */
+    @Bean
+    public ResilienceSettings solrResilienceSettings(
+            @Value("${plato.solr.resilience.enabled:true}") boolean enabled,
+            @Value("${plato.solr.resilience.probe-interval:5s}") Duration probeInterval,
+            @Value("${plato.solr.resilience.hedging:true}") boolean hedging,
+            @Value("${plato.solr.resilience.hedge-delay-min:10ms}") Duration hedgeDelayMin,
+            @Value("${plato.solr.resilience.hedge-delay-max:500ms}") Duration hedgeDelayMax,
+            @Value("${plato.solr.resilience.max-attempts:3}") int maxAttempts,
+            @Value("${plato.solr.resilience.failure-threshold:5}") int failureThreshold,
+            @Value("${plato.solr.resilience.open-duration:30s}") Duration openDuration) {
+        return new ResilienceSettings(enabled, probeInterval, hedging, hedgeDelayMin, hedgeDelayMax,
+                maxAttempts, failureThreshold, openDuration);
+    }
+
+    /**
+     * Settings of the {@link ResilientSolrClient}.
+     */
+    public record ResilienceSettings(boolean enabled, Duration probeInterval, boolean hedging,
+                                     Duration hedgeDelayMin, Duration hedgeDelayMax, int maxAttempts,
+                                     int failureThreshold, Duration openDuration) {
+    }
 }
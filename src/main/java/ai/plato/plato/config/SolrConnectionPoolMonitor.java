@@ -0,0 +1,79 @@
+package ai.plato.plato.config;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SolrConnectionPoolMonitor keeps the Solr connection pool healthy and reports how saturated it is.
+ * <p>
+ * Connections that have been idle for longer than the configured timeout are closed before the server side
+ * drops them, so requests do not fail on stale keep-alive connections. Each run also checks the share of
+ * leased connections and logs a warning when requests start queueing for a connection.
+ * </p>
+ */
+@Component
+public class SolrConnectionPoolMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(SolrConnectionPoolMonitor.class);
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final long idleTimeoutMillis;
+    private final double saturationWarnThreshold;
+
+    /**
+     * Constructs SolrConnectionPoolMonitor.
+     *
+     * @param connectionManager The pooled connection manager used by the Solr client.
+     * @param idleTimeout Idle time after which pooled connections are closed.
+     * @param saturationWarnThreshold Fraction of leased connections above which a warning is logged.
+     */
+    public SolrConnectionPoolMonitor(
+            PoolingHttpClientConnectionManager connectionManager,
+            @Value("${plato.solr.idle-timeout:30s}") Duration idleTimeout,
+            @Value("${plato.solr.pool-saturation-warn-threshold:0.9}") double saturationWarnThreshold) {
+        this.connectionManager = connectionManager;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        this.saturationWarnThreshold = saturationWarnThreshold;
+    }
+
+    /**
+     * Closes expired and idle connections and warns when the pool is close to saturation.
+     */
+    @Scheduled(fixedDelayString = "${plato.solr.pool-check-interval:5s}")
+    public void maintain() {
+        connectionManager.closeExpiredConnections();
+        connectionManager.closeIdleConnections(idleTimeoutMillis, TimeUnit.MILLISECONDS);
+
+        PoolStats stats = stats();
+        if (saturation(stats) >= saturationWarnThreshold || stats.getPending() > 0) {
+            log.warn("Solr connection pool saturated: leased={}, pending={}, available={}, max={}",
+                    stats.getLeased(), stats.getPending(), stats.getAvailable(), stats.getMax());
+        }
+    }
+
+    /**
+     * @return The current totals of the connection pool.
+     */
+    public PoolStats stats() {
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * @return The fraction of the pool's maximum connections that are currently leased.
+     */
+    public double saturation() {
+        return saturation(stats());
+    }
+
+    private static double saturation(PoolStats stats) {
+        return stats.getMax() == 0 ? 0.0 : (double) stats.getLeased() / stats.getMax();
+    }
+}
@@ -0,0 +1,56 @@
+package ai.plato.plato.controller;
+
+import ai.plato.plato.counter.CounterType;
+import ai.plato.plato.counter.RecipeCounterService;
+import ai.plato.plato.event.UserEventService;
+import ai.plato.plato.event.UserEventType;
+import jakarta.validation.constraints.NotEmpty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * CounterController records views, likes and dislikes of recipes.
+ * <p>
+ * Increments are accepted immediately and written to Solr in batches, so they show up in recipes and search
+ * ranking after a short delay. Requests carrying an X-User-Id header are also captured as user events, which feed
+ * the user's view history and recommendations.
+ * </p>
+ */
+@RestController
+@RequestMapping("/plato/recipes")
+public class CounterController {
+    private static final Logger log = LoggerFactory.getLogger(CounterController.class);
+    private final RecipeCounterService recipeCounterService;
+    private final UserEventService userEventService;
+
+    /**
+     * Constructor for CounterController.
+     *
+     * @param recipeCounterService The service accumulating counter increments.
+     * @param userEventService The service capturing user activity.
+     */
+    public CounterController(RecipeCounterService recipeCounterService, UserEventService userEventService) {
+        this.recipeCounterService = recipeCounterService;
+        this.userEventService = userEventService;
+    }
+
+    /**
+     * Increments a counter of a recipe by one.
+     *
+     * @param id The recipe id.
+     * @param counter The counter to increment: "views", "likes" or "dislikes".
+     * @param userId The user interacting with the recipe, if known.
+     */
+    @PostMapping("/{id}/{counter:views|likes|dislikes}")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    void increment(@PathVariable("id") @NotEmpty String id,
+                   @PathVariable("counter") String counter,
+                   @RequestHeader(name = "X-User-Id", required = false) String userId) {
+        log.debug("Request to increment {} of recipe {}", counter, id);
+        CounterType type = CounterType.fromParam(counter);
+        recipeCounterService.increment(id, type);
+        userEventService.publish(UserEventType.fromCounter(type), userId, id);
+    }
+}
@@ -0,0 +1,49 @@
+package ai.plato.plato.controller;
+
+import ai.plato.plato.service.RecipeExportService;
+import jakarta.validation.constraints.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * ExportController serves the full recipe catalog as a single streamed response.
+ * <p>
+ * It replaces paging through the listing endpoint for bulk consumers: recipes are written as newline-delimited
+ * JSON while they are read from Solr, so the response can be consumed incrementally.
+ * </p>
+ */
+@RestController
+@RequestMapping("/plato/recipes/export")
+public class ExportController {
+    private static final Logger log = LoggerFactory.getLogger(ExportController.class);
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private final RecipeExportService recipeExportService;
+
+    /**
+     * Constructor for ExportController.
+     *
+     * @param recipeExportService The service streaming recipes out of Solr.
+     */
+    public ExportController(RecipeExportService recipeExportService) {
+        this.recipeExportService = recipeExportService;
+    }
+
+    /**
+     * Streams all recipes as newline-delimited JSON.
+     *
+     * @param fields Comma-separated Solr field names to export, e.g. "id,title,ingredients" (optional, default all).
+     * @return The streamed recipes, one JSON object per line.
+     */
+    @GetMapping("")
+    ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(name = "fields", required = false) @Pattern(regexp = "[a-z_]+(,[a-z_]+)*") String fields
+    ) {
+        log.info("Request to export recipes with fields {}", fields == null ? "all" : fields);
+        StreamingResponseBody body = out -> recipeExportService.export(fields, out);
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+}
@@ -0,0 +1,57 @@
+package ai.plato.plato.controller;
+
+import ai.plato.plato.ingest.IngestionReport;
+import ai.plato.plato.ingest.RecipeFileLoader;
+import jakarta.validation.constraints.NotEmpty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+/**
+ * IngestionController exposes bulk recipe indexing.
+ * <p>
+ * Recipes can be posted directly (as newline-delimited JSON or a JSON array, streamed from the request body)
+ * or loaded from a JSONL/CSV dump in the server's import directory.
+ * </p>
+ */
+@RestController
+@RequestMapping("/plato/ingest")
+public class IngestionController {
+    private static final Logger log = LoggerFactory.getLogger(IngestionController.class);
+    private final RecipeFileLoader recipeFileLoader;
+
+    /**
+     * Constructor for IngestionController.
+     *
+     * @param recipeFileLoader The loader streaming recipe input into the ingestion pipeline.
+     */
+    public IngestionController(RecipeFileLoader recipeFileLoader) {
+        this.recipeFileLoader = recipeFileLoader;
+    }
+
+    /**
+     * Indexes the recipes in the request body.
+     *
+     * @param body Newline-delimited JSON recipes, or a JSON array of recipes.
+     * @return A report of the outcome.
+     */
+    @PostMapping(value = "/recipes", consumes = {"application/json", "application/x-ndjson"})
+    IngestionReport ingestRecipes(InputStream body) {
+        log.info("Request to ingest recipes from request body");
+        return recipeFileLoader.ingestJson(body);
+    }
+
+    /**
+     * Indexes the recipes of a dump file in the import directory.
+     *
+     * @param path The file path relative to the import directory (.jsonl, .ndjson, .json or .csv).
+     * @return A report of the outcome.
+     */
+    @PostMapping("/files")
+    IngestionReport ingestFile(@RequestParam(name = "path") @NotEmpty String path) {
+        log.info("Request to ingest recipes from file {}", path);
+        return recipeFileLoader.load(path);
+    }
+}
@@ -0,0 +1,60 @@
+package ai.plato.plato.controller;
+
+import ai.plato.plato.mealplan.MealPlan;
+import ai.plato.plato.mealplan.MealPlanService;
+import jakarta.validation.constraints.Positive;
+import org.hibernate.validator.constraints.Range;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * MealPlanController generates meal plans for a number of days.
+ * <p>
+ * Plans prefer popular recipes of the requested cuisines that share ingredients with each other and with the
+ * pantry, while keeping the total cooking and preparation time of every day within the given limits.
+ * </p>
+ */
+@RestController
+@RequestMapping("/plato/meal-plans")
+public class MealPlanController {
+    private static final Logger log = LoggerFactory.getLogger(MealPlanController.class);
+    private final MealPlanService mealPlanService;
+
+    /**
+     * Constructor for MealPlanController.
+     *
+     * @param mealPlanService The service generating meal plans.
+     */
+    public MealPlanController(MealPlanService mealPlanService) {
+        this.mealPlanService = mealPlanService;
+    }
+
+    /**
+     * Generates a meal plan.
+     *
+     * @param days The number of days (must be between 1 and 14). Default is 7.
+     * @param mealsPerDay The number of meals per day (must be between 1 and 3). Default is 1.
+     * @param maxCookingTime The maximum total cooking time per day in minutes (optional).
+     * @param maxPreparationTime The maximum total preparation time per day in minutes (optional).
+     * @param cuisines The preferred cuisines (optional).
+     * @param pantry The ingredients available (optional).
+     * @return The plan, with the ingredients to buy.
+     */
+    @GetMapping("")
+    MealPlan plan(
+            @RequestParam(name = "days", required = false, defaultValue = "7") @Range(min = 1, max = 14) Integer days,
+            @RequestParam(name = "mealsPerDay", required = false, defaultValue = "1")
+            @Range(min = 1, max = 3) Integer mealsPerDay,
+            @RequestParam(name = "maxCookingTime", required = false) @Positive Integer maxCookingTime,
+            @RequestParam(name = "maxPreparationTime", required = false) @Positive Integer maxPreparationTime,
+            @RequestParam(name = "cuisines", required = false) List<String> cuisines,
+            @RequestParam(name = "pantry", required = false) List<String> pantry
+    ) {
+        log.info("Request to plan {} days of {} meals, cuisines {}, pantry of {} ingredients",
+                days, mealsPerDay, cuisines, pantry == null ? 0 : pantry.size());
+        return mealPlanService.plan(days, mealsPerDay, maxCookingTime, maxPreparationTime, cuisines, pantry);
+    }
+}
@@ -0,0 +1,53 @@
+package ai.plato.plato.controller;
+
+import ai.plato.plato.pantry.PantryMatch;
+import ai.plato.plato.pantry.PantryService;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.PositiveOrZero;
+import org.hibernate.validator.constraints.Range;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * PantryController answers "what can I cook with what I have" requests.
+ * <p>
+ * Recipes are ranked by the fraction of their ingredients found in the pantry, and recipes requiring more
+ * than the allowed number of additional ingredients are left out.
+ * </p>
+ */
+@RestController
+@RequestMapping("/plato/recipes/pantry")
+public class PantryController {
+    private static final Logger log = LoggerFactory.getLogger(PantryController.class);
+    private final PantryService pantryService;
+
+    /**
+     * Constructor for PantryController.
+     *
+     * @param pantryService The service matching pantries against recipe ingredients.
+     */
+    public PantryController(PantryService pantryService) {
+        this.pantryService = pantryService;
+    }
+
+    /**
+     * Finds the recipes that can be cooked from a pantry.
+     *
+     * @param ingredients The ingredients available (must not be empty).
+     * @param maxMissing The maximum number of ingredients a recipe may require beyond the pantry. Default is 2.
+     * @param size The maximum number of recipes to return (must be between 1 and 100). Default is 20.
+     * @return The matching recipes, best coverage first, with the ingredients each of them is missing.
+     */
+    @GetMapping("")
+    List<PantryMatch> findByPantry(
+            @RequestParam(name = "ingredients") @NotEmpty(message = "Ingredients required") List<String> ingredients,
+            @RequestParam(name = "maxMissing", required = false, defaultValue = "2") @PositiveOrZero Integer maxMissing,
+            @RequestParam(name = "size", required = false, defaultValue = "20") @Range(min = 1, max = 100) Integer size
+    ) {
+        log.info("Request to match a pantry of {} ingredients, at most {} missing", ingredients.size(), maxMissing);
+        return pantryService.findByPantry(ingredients, maxMissing, size);
+    }
+}
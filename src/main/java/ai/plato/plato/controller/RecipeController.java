@@ -1,23 +1,34 @@
 package ai.plato.plato.controller;
 
+import ai.plato.plato.event.UserEventService;
+import ai.plato.plato.event.UserEventType;
 import ai.plato.plato.model.*;
+import ai.plato.plato.service.RecipeFacetService;
 import ai.plato.plato.service.RecipeService;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import org.hibernate.validator.constraints.Range;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * RecipeController is responsible for handling HTTP requests related to recipes.
- * It provides endpoints to fetch all recipes, search for recipes, and retrieve random recipes.
+ * It provides endpoints to fetch all recipes, search for recipes (by keywords or by meaning, optionally with facet
+ * counts), retrieve random recipes, fetch the catalog-wide facet counts and fetch recipes by id, one at a time or
+ * in batches. Listing endpoints can return lightweight summaries instead of full recipes.
  * <p>
  * The controller communicates with the RecipeService to perform the required operations.
- * It also logs incoming requests to facilitate debugging and tracking of API usage.
+ * It also logs incoming requests to facilitate debugging and tracking of API usage. Searches of requests carrying
+ * an X-User-Id header are captured as user events, without waiting for them to be stored. Recipe views are
+ * captured by the views counter of CounterController, which clients post when a recipe is shown.
  * </p>
  */
 @RestController
@@ -25,14 +36,22 @@ import java.util.Set;
 public class RecipeController {
     private static final Logger log = LoggerFactory.getLogger(RecipeController.class);
     private final RecipeService recipeService;
+    private final RecipeFacetService recipeFacetService;
+    private final UserEventService userEventService;
 
     /**
      * Constructor for RecipeController.
      *
      * @param recipeService The service layer handling recipe-related business logic.
+     * @param recipeFacetService The service providing facet counts over the whole catalog.
+     * @param userEventService The service capturing user activity.
      */
-    public RecipeController(RecipeService recipeService) {
+    public RecipeController(RecipeService recipeService,
+                            RecipeFacetService recipeFacetService,
+                            UserEventService userEventService) {
         this.recipeService = recipeService;
+        this.recipeFacetService = recipeFacetService;
+        this.userEventService = userEventService;
     }
 
     /**
@@ -40,15 +59,19 @@ public class RecipeController {
      *
      * @param pageNumber The page number to retrieve (must be positive). Default is 1.
      * @param pageSize The number of recipes per page (must be between 20 and 100). Default is 20.
+     * @param cursor Cursor for deep paging: "*" for the first page, then the nextCursor of the previous page (optional).
+     * @param view The recipe representation: "full" (default) or "summary" for list views (optional).
      * @return A paginated list of recipes.
      */
     @GetMapping("")
-    RecipePage findAll(
+    RecipePage<?> findAll(
             @RequestParam(name = "page", required = false, defaultValue = "1") @Positive Integer pageNumber,
-            @RequestParam(name = "size", required = false, defaultValue = "20") @Range(min = 20, max = 100) Integer pageSize
+            @RequestParam(name = "size", required = false, defaultValue = "20") @Range(min = 20, max = 100) Integer pageSize,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "view", required = false, defaultValue = "full") @Pattern(regexp = "(?i)full|summary") String view
     ) {
-        log.info("Request to fetch " +pageSize + " recipes on page " + pageNumber);
-        return recipeService.findAll(pageNumber, pageSize);
+        log.info("Request to fetch {} recipes on page {}", pageSize, pageNumber);
+        return recipeService.findAll(pageNumber, pageSize, cursor, RecipeProjection.fromParam(view));
     }
 
     /**
@@ -57,31 +80,73 @@ public class RecipeController {
      * @param query The search query string (must not be empty).
      * @param pageNumber The page number to retrieve (must be positive). Default is 1.
      * @param pageSize The number of recipes per page (must be between 20 and 100). Default is 20.
+     * @param cursor Cursor for deep paging: "*" for the first page, then the nextCursor of the previous page (optional).
+     * @param view The recipe representation: "full" (default) or "summary" for list views (optional).
      * @param matchTypes A set of match types (optional filter).
      * @param uploadedBy The username of the uploader to filter results (optional).
      * @param minCookingTime The minimum cooking time in minutes (must be zero or positive, optional).
      * @param maxCookingTime The maximum cooking time in minutes (must be zero or positive, optional).
+     * @param facets Whether to include facet counts (cuisines, difficulty, time ranges, uploaders). Default is false.
+     * @param mode How the query is matched: "lexical" (default, keyword search), "semantic" (nearest embedding
+     *             vectors) or "hybrid" (semantic candidates reranked by keyword score). Semantic modes ignore the cursor.
+     * @param userId The user searching, if known (optional).
      * @return A paginated list of recipes that match the search criteria.
      */
     @GetMapping("/search")
-    RecipePage searchRecipes(
+    RecipePage<?> searchRecipes(
             @RequestParam(name = "query", required = true) @NotEmpty(message = "Query required") String query,
             @RequestParam(name = "page", required = false, defaultValue = "1") @Positive Integer pageNumber,
             @RequestParam(name = "size", required = false, defaultValue = "20") @Range(min = 20, max = 100) Integer pageSize,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "view", required = false, defaultValue = "full") @Pattern(regexp = "(?i)full|summary") String view,
             @RequestParam(name = "matchTypes", required = false) Set<String> matchTypes,
             @RequestParam(name = "uploadedBy", required = false) String uploadedBy,
             @RequestParam(name = "minCookingTime", required = false) @PositiveOrZero Integer minCookingTime,
-            @RequestParam(name = "maxCookingTime", required = false) @PositiveOrZero Integer maxCookingTime) {
-        log.info("Request to fetch " + pageSize + " recipes on page " + pageNumber
-                + "with matches on " + matchTypes + " for query: " + query);
+            @RequestParam(name = "maxCookingTime", required = false) @PositiveOrZero Integer maxCookingTime,
+            @RequestParam(name = "facets", required = false, defaultValue = "false") boolean facets,
+            @RequestParam(name = "mode", required = false, defaultValue = "lexical") @Pattern(regexp = "(?i)lexical|semantic|hybrid") String mode,
+            @RequestHeader(name = "X-User-Id", required = false) String userId) {
+        log.info("Request to fetch {} recipes on page {} with matches on {} for query: {}",
+                pageSize, pageNumber, matchTypes, query);
+        if (pageNumber == 1) {
+            userEventService.publish(UserEventType.SEARCH, userId, query);
+        }
+        SearchMode searchMode = SearchMode.fromParam(mode);
+        if (searchMode != SearchMode.LEXICAL) {
+            return recipeService.semanticSearch(
+                    query,
+                    pageNumber,
+                    pageSize,
+                    RecipeProjection.fromParam(view),
+                    matchTypes,
+                    uploadedBy,
+                    minCookingTime,
+                    maxCookingTime,
+                    facets,
+                    searchMode == SearchMode.HYBRID);
+        }
         return recipeService.searchRecipes(
                 query,
                 pageNumber,
                 pageSize,
+                cursor,
+                RecipeProjection.fromParam(view),
                 matchTypes,
                 uploadedBy,
                 minCookingTime,
-                maxCookingTime);
+                maxCookingTime,
+                facets);
+    }
+
+    /**
+     * Fetches the facet counts over all recipes, used as the initial filter options.
+     *
+     * @return The buckets of each facet (cuisines, difficulty, uploaded_by, cooking_time, preparation_time).
+     */
+    @GetMapping("/facets")
+    Map<String, List<FacetBucket>> findFacets() {
+        log.info("Request to fetch baseline facet counts");
+        return recipeFacetService.baselineFacets();
     }
 
     /**
@@ -89,14 +154,42 @@ public class RecipeController {
      *
      * @param pageNumber The page number to retrieve (must be positive). Default is 1.
      * @param pageSize The number of recipes per page (must be between 20 and 100). Default is 20.
+     * @param seed The seed of the random feed returned with its first page (optional, a new feed is started if absent).
+     * @param view The recipe representation: "full" (default) or "summary" for list views (optional).
      * @return A paginated list of randomly selected recipes.
      */
     @GetMapping("/random")
-    RecipePage findRandom(
+    RecipePage<?> findRandom(
             @RequestParam(name = "page", required = false, defaultValue = "1") @Positive Integer pageNumber,
-            @RequestParam(name = "size", required = false, defaultValue = "20") @Range(min = 20, max = 100) Integer pageSize
+            @RequestParam(name = "size", required = false, defaultValue = "20") @Range(min = 20, max = 100) Integer pageSize,
+            @RequestParam(name = "seed", required = false) @PositiveOrZero Long seed,
+            @RequestParam(name = "view", required = false, defaultValue = "full") @Pattern(regexp = "(?i)full|summary") String view
     ) {
-        log.info("Request to fetch " +pageSize + " random recipes on page " + pageNumber);
-        return recipeService.findRandom(pageNumber, pageSize);
+        log.info("Request to fetch {} random recipes on page {}", pageSize, pageNumber);
+        return recipeService.findRandom(pageNumber, pageSize, seed, RecipeProjection.fromParam(view));
+    }
+
+    /**
+     * Fetches the full details of a single recipe.
+     *
+     * @param id The recipe id.
+     * @return The recipe with all of its fields.
+     */
+    @GetMapping("/{id}")
+    Recipe findById(@PathVariable("id") @NotEmpty String id) {
+        log.info("Request to fetch recipe {}", id);
+        return recipeService.findById(id);
+    }
+
+    /**
+     * Fetches the full details of several recipes in one call, e.g. for favorites lists.
+     *
+     * @param ids The recipe ids (between 1 and 500).
+     * @return The recipes found, in request order, and the ids that match no recipe.
+     */
+    @PostMapping("/batch")
+    RecipeBatch findByIds(@RequestBody @NotEmpty(message = "Ids required") @Size(max = 500) List<String> ids) {
+        log.info("Request to fetch {} recipes by id", ids.size());
+        return recipeService.findByIds(ids);
     }
 }
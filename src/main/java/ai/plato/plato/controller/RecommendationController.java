@@ -0,0 +1,66 @@
+package ai.plato.plato.controller;
+
+import ai.plato.plato.recommend.Recommendation;
+import ai.plato.plato.recommend.RecommendationService;
+import jakarta.validation.constraints.NotEmpty;
+import org.hibernate.validator.constraints.Range;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * RecommendationController serves similar recipes and personalized recommendations.
+ * <p>
+ * Personalized recommendations are based on the views, likes and dislikes of requests carrying an X-User-Id
+ * header, see {@link RecipeController} and {@link CounterController}.
+ * </p>
+ */
+@RestController
+@RequestMapping("/plato")
+public class RecommendationController {
+    private static final Logger log = LoggerFactory.getLogger(RecommendationController.class);
+    private final RecommendationService recommendationService;
+
+    /**
+     * Constructor for RecommendationController.
+     *
+     * @param recommendationService The service computing recommendations.
+     */
+    public RecommendationController(RecommendationService recommendationService) {
+        this.recommendationService = recommendationService;
+    }
+
+    /**
+     * Finds the recipes most similar to a recipe by ingredients and cuisines.
+     *
+     * @param id The recipe id.
+     * @param size The maximum number of recipes to return (must be between 1 and 100). Default is 10.
+     * @return The similar recipes, most similar first.
+     */
+    @GetMapping("/recipes/{id}/similar")
+    List<Recommendation> findSimilar(
+            @PathVariable("id") @NotEmpty String id,
+            @RequestParam(name = "size", required = false, defaultValue = "10") @Range(min = 1, max = 100) Integer size
+    ) {
+        log.info("Request for {} recipes similar to {}", size, id);
+        return recommendationService.findSimilar(id, size);
+    }
+
+    /**
+     * Recommends recipes to a user based on their recent interactions.
+     *
+     * @param userId The user id.
+     * @param size The maximum number of recipes to return (must be between 1 and 100). Default is 20.
+     * @return The recommended recipes, best first.
+     */
+    @GetMapping("/users/{userId}/recommendations")
+    List<Recommendation> recommend(
+            @PathVariable("userId") @NotEmpty String userId,
+            @RequestParam(name = "size", required = false, defaultValue = "20") @Range(min = 1, max = 100) Integer size
+    ) {
+        log.info("Request for {} recommendations for user {}", size, userId);
+        return recommendationService.recommend(userId, size);
+    }
+}
@@ -0,0 +1,49 @@
+package ai.plato.plato.controller;
+
+import ai.plato.plato.suggest.SuggestService;
+import ai.plato.plato.suggest.Suggestions;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import org.hibernate.validator.constraints.Range;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * SuggestController serves typeahead completions while the user types a search.
+ * <p>
+ * Completions come from in-memory indexes and never reach Solr, so the frontend can call this endpoint on
+ * every keystroke and only run a full search once the user submits.
+ * </p>
+ */
+@RestController
+@RequestMapping("/plato/recipes/suggest")
+public class SuggestController {
+    private static final Logger log = LoggerFactory.getLogger(SuggestController.class);
+    private final SuggestService suggestService;
+
+    /**
+     * Constructor for SuggestController.
+     *
+     * @param suggestService The service completing prefixes.
+     */
+    public SuggestController(SuggestService suggestService) {
+        this.suggestService = suggestService;
+    }
+
+    /**
+     * Completes a prefix to recipe titles, ingredients and cuisines.
+     *
+     * @param prefix The typed text (must not be blank, at most 50 characters).
+     * @param size The maximum number of completions of each kind (must be between 1 and 20). Default is 5.
+     * @return The completions, grouped by kind.
+     */
+    @GetMapping("")
+    Suggestions suggest(
+            @RequestParam(name = "prefix") @NotBlank(message = "Prefix required") @Size(max = 50) String prefix,
+            @RequestParam(name = "size", required = false, defaultValue = "5") @Range(min = 1, max = SuggestService.MAX_LIMIT) Integer size
+    ) {
+        log.debug("Request to suggest {} completions for {}", size, prefix);
+        return suggestService.suggest(prefix, size);
+    }
+}
@@ -0,0 +1,46 @@
+package ai.plato.plato.controller;
+
+import ai.plato.plato.event.UserEventService;
+import ai.plato.plato.event.ViewedRecipe;
+import jakarta.validation.constraints.NotEmpty;
+import org.hibernate.validator.constraints.Range;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * UserActivityController exposes the activity captured for a user, such as the recently viewed recipes.
+ */
+@RestController
+@RequestMapping("/plato/users")
+public class UserActivityController {
+    private static final Logger log = LoggerFactory.getLogger(UserActivityController.class);
+    private final UserEventService userEventService;
+
+    /**
+     * Constructor for UserActivityController.
+     *
+     * @param userEventService The service capturing user activity.
+     */
+    public UserActivityController(UserEventService userEventService) {
+        this.userEventService = userEventService;
+    }
+
+    /**
+     * Fetches the recipes a user viewed most recently.
+     *
+     * @param userId The user id.
+     * @param size The maximum number of views to return (must be between 1 and 100). Default is 20.
+     * @return The views, most recent first.
+     */
+    @GetMapping("/{userId}/views")
+    List<ViewedRecipe> findRecentViews(
+            @PathVariable("userId") @NotEmpty String userId,
+            @RequestParam(name = "size", required = false, defaultValue = "20") @Range(min = 1, max = 100) Integer size
+    ) {
+        log.info("Request to fetch the {} most recent views of user {}", size, userId);
+        return userEventService.recentViews(userId, size);
+    }
+}
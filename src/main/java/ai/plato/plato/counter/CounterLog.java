@@ -0,0 +1,230 @@
+package ai.plato.plato.counter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CounterLog is the write-ahead log of counter increments that have not been flushed to Solr yet.
+ * <p>
+ * The log is a sequence of numbered segment files with one {@code type TAB delta TAB recipeId} line per record.
+ * Each flush to Solr rotates to a new segment; the previous segment is deleted once its increments are stored
+ * in Solr. Records are buffered and synced to disk periodically, so a crash loses at most one sync interval.
+ * </p>
+ *
+ * <p>
+ * The log is bounded: once the current segment reaches its size limit, further increments are only kept in
+ * memory until the next rotation. This happens only while Solr is unreachable for a long time, because
+ * unflushed counts are carried over into the next segment in aggregated form.
+ * </p>
+ */
+final class CounterLog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(CounterLog.class);
+    private static final String SEGMENT_PREFIX = "counters-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+
+    // All fields below are guarded by "this"
+    private long generation;
+    private Path segment;
+    private FileChannel channel;
+    private BufferedWriter writer;
+    private long segmentBytes;
+    private boolean overflowed;
+
+    /**
+     * Opens the log in a directory, creating the directory if necessary. Existing segments are left in place
+     * for {@link #recover}.
+     *
+     * @param directory The directory holding the segments.
+     * @param maxSegmentBytes Maximum size of one segment.
+     * @throws IOException If the directory cannot be created.
+     */
+    CounterLog(Path directory, long maxSegmentBytes) throws IOException {
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Replays all existing segments and opens a fresh segment for new records.
+     * The replayed segments are returned so they can be deleted once their increments are safe.
+     *
+     * @param consumer Receives every replayed record.
+     * @return The replayed segments.
+     * @throws IOException If the segments cannot be read or the new segment cannot be created.
+     */
+    synchronized List<Path> recover(RecordConsumer consumer) throws IOException {
+        List<Path> segments = segments();
+        for (Path existing : segments) {
+            generation = Math.max(generation, generationOf(existing));
+            try (BufferedReader reader = Files.newBufferedReader(existing, StandardCharsets.UTF_8)) {
+                StringBuilder line = new StringBuilder();
+                int c;
+                while ((c = reader.read()) != -1) {
+                    if (c == '\n') {
+                        replay(existing, line.toString(), consumer);
+                        line.setLength(0);
+                    } else {
+                        line.append((char) c);
+                    }
+                }
+                if (!line.isEmpty()) {
+                    // A torn last line from a crash during a write; even if it parses, its id may be cut short
+                    log.warn("Skipping unterminated record at the end of counter log {}", existing);
+                }
+            }
+        }
+        open();
+        return segments;
+    }
+
+    /**
+     * Appends a record to the current segment.
+     *
+     * @param type The counter.
+     * @param recipeId The recipe id.
+     * @param delta The increment.
+     */
+    synchronized void append(CounterType type, String recipeId, long delta) {
+        if (writer == null) {
+            return;
+        }
+        String line = type.name() + '\t' + delta + '\t' + recipeId + '\n';
+        if (segmentBytes + line.length() > maxSegmentBytes) {
+            if (!overflowed) {
+                overflowed = true;
+                log.warn("Counter log segment {} is full, increments are kept in memory only until the next flush",
+                        segment);
+            }
+            return;
+        }
+        try {
+            writer.write(line);
+            segmentBytes += line.length();
+        } catch (IOException e) {
+            log.warn("Failed to append to counter log {}", segment, e);
+        }
+    }
+
+    /**
+     * Closes the current segment and starts a new one.
+     *
+     * @return The closed segment, to be deleted once its increments are stored elsewhere.
+     * @throws IOException If the new segment cannot be created.
+     */
+    synchronized Path rotate() throws IOException {
+        Path closed = segment;
+        closeSegment();
+        open();
+        return closed;
+    }
+
+    /**
+     * Writes buffered records to disk.
+     */
+    synchronized void sync() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.flush();
+            channel.force(false);
+        } catch (IOException e) {
+            log.warn("Failed to sync counter log {}", segment, e);
+        }
+    }
+
+    /**
+     * Deletes segments whose increments have been stored in Solr.
+     *
+     * @param segments The segments to delete.
+     */
+    void delete(List<Path> segments) {
+        for (Path path : segments) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Failed to delete counter log segment {}", path, e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closeSegment();
+    }
+
+    private void open() throws IOException {
+        generation++;
+        segment = directory.resolve(SEGMENT_PREFIX + String.format("%019d", generation) + SEGMENT_SUFFIX);
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8));
+        segmentBytes = 0;
+        overflowed = false;
+    }
+
+    private void closeSegment() throws IOException {
+        if (writer != null) {
+            writer.flush();
+            channel.force(false);
+            writer.close();
+            writer = null;
+            channel = null;
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                segments.add(path);
+            }
+        }
+        // Generations are zero-padded, so name order is log order
+        segments.sort(null);
+        return segments;
+    }
+
+    private static long generationOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static void replay(Path segment, String line, RecordConsumer consumer) {
+        String[] parts = line.split("\t", 3);
+        if (parts.length != 3) {
+            log.warn("Skipping malformed record in counter log {}", segment);
+            return;
+        }
+        try {
+            consumer.accept(CounterType.valueOf(parts[0]), parts[2], Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            log.warn("Skipping malformed record in counter log {}", segment);
+        }
+    }
+
+    /**
+     * Receives the records of replayed segments.
+     */
+    @FunctionalInterface
+    interface RecordConsumer {
+        void accept(CounterType type, String recipeId, long delta);
+    }
+}
@@ -0,0 +1,35 @@
+package ai.plato.plato.counter;
+
+import java.util.Locale;
+
+/**
+ * CounterType lists the popularity counters of a recipe and the Solr fields they are stored in.
+ */
+public enum CounterType {
+    VIEWS("views"),
+    LIKES("likes"),
+    DISLIKES("dislikes");
+
+    private final String field;
+
+    CounterType(String field) {
+        this.field = field;
+    }
+
+    /**
+     * @return The Solr field holding the counter.
+     */
+    public String getField() {
+        return field;
+    }
+
+    /**
+     * Parses a counter type from a path segment, case-insensitively.
+     *
+     * @param value The name of the counter, e.g. "likes".
+     * @return The counter type.
+     */
+    public static CounterType fromParam(String value) {
+        return valueOf(value.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,70 @@
+package ai.plato.plato.counter;
+
+import ai.plato.plato.helper.MissingFieldBackfill;
+import ai.plato.plato.helper.PopularityScore;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.common.SolrDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PopularityScoreBackfill sets the precomputed popularity score on recipes that do not have one yet.
+ * <p>
+ * The score is written at ingestion and on every counter flush, so recipes indexed before the field existed and
+ * never counted since would rank with a score of zero wherever the field is used: the "field" and "rerank" search
+ * rankings and meal plan candidates. The backfill computes the missing scores from the counters with a
+ * {@link MissingFieldBackfill}; a counter flush in between wins over the backfilled score.
+ * </p>
+ */
+@Component
+public class PopularityScoreBackfill {
+
+    private final MissingFieldBackfill missingFieldBackfill;
+    private final boolean enabled;
+
+    /**
+     * Constructs PopularityScoreBackfill.
+     *
+     * @param solrClient The Solr client instance used for reading counters and sending updates.
+     * @param enabled Whether missing scores are backfilled.
+     * @param batchSize Number of recipes read and updated per request.
+     * @param commitWithin Maximum time until backfilled scores become searchable.
+     */
+    public PopularityScoreBackfill(
+            SolrClient solrClient,
+            @Value("${plato.search.popularity-backfill.enabled:true}") boolean enabled,
+            @Value("${plato.search.popularity-backfill.batch-size:1000}") int batchSize,
+            @Value("${plato.counters.commit-within:30s}") Duration commitWithin) {
+        this.missingFieldBackfill = new MissingFieldBackfill(solrClient, PopularityScore.FIELD, "popularity score",
+                List.of("views", "likes", "dislikes"), batchSize, (int) commitWithin.toMillis());
+        this.enabled = enabled;
+    }
+
+    /**
+     * Sets the popularity score of all recipes missing it.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${plato.search.popularity-backfill.interval:1h}")
+    public void backfill() {
+        if (enabled) {
+            missingFieldBackfill.run(PopularityScoreBackfill::scores);
+        }
+    }
+
+    private static List<Double> scores(List<SolrDocument> documents) {
+        List<Double> scores = new ArrayList<>(documents.size());
+        for (SolrDocument document : documents) {
+            scores.add(PopularityScore.compute(toLong(document.getFirstValue("views")),
+                    toLong(document.getFirstValue("likes")), toLong(document.getFirstValue("dislikes"))));
+        }
+        return scores;
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+}
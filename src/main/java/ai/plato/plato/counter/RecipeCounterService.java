@@ -0,0 +1,284 @@
+package ai.plato.plato.counter;
+
+import ai.plato.plato.helper.PopularityScore;
+import ai.plato.plato.service.SolrQueryExecutor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.params.CommonParams;
+import org.apache.solr.common.params.ModifiableSolrParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * RecipeCounterService records views, likes and dislikes and writes them to Solr behind the caller's back.
+ * <p>
+ * Updating a Solr document per event would turn every page view into an index write. Instead, increments are
+ * added to per-recipe {@link LongAdder}s, which scale under contention, and a scheduled flush sends the
+ * accumulated deltas as atomic {@code inc} updates, many recipes per request. Every increment is also appended to
+ * a {@link CounterLog}, which is replayed at startup, so accepted increments survive a crash.
+ * </p>
+ *
+ * <p>
+ * A flush swaps in an empty map under a write lock that increments take in shared mode, so no increment can be
+ * lost between reading and resetting a counter. Counts that fail to reach Solr are merged back and retried with
+ * the next flush. Delivery is at-least-once: a crash between a successful flush and the deletion of its log
+ * segment counts that segment twice.
+ * </p>
+ *
+ * <p>
+ * Each update also sets the recipe's precomputed popularity score from the new totals.
+ * Flushed counts do not touch last_modified, so cached pages show them once their time-to-live elapses instead
+ * of being invalidated on every flush.
+ * </p>
+ */
+@Service
+public class RecipeCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecipeCounterService.class);
+    private static final int EXISTENCE_CHECK_BATCH_SIZE = 500;
+
+    private final SolrClient solrClient;
+    private final SolrQueryExecutor solrQueryExecutor;
+    private final CounterLog counterLog;
+    private final int batchSize;
+    private final int commitWithinMillis;
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile ConcurrentHashMap<String, RecipeCounters> pending = new ConcurrentHashMap<>();
+
+    private final Map<CounterType, Counter> incrementCounters = new EnumMap<>(CounterType.class);
+    private final Counter flushedCounter;
+    private final Counter droppedCounter;
+
+    /**
+     * Constructs RecipeCounterService.
+     *
+     * @param solrClient The Solr client instance used for sending counter updates.
+     * @param solrQueryExecutor The executor used for checking that counted recipes exist.
+     * @param meterRegistry Registry for the counter metrics.
+     * @param logDirectory Directory of the write-ahead log.
+     * @param maxLogSegmentBytes Maximum size of one write-ahead log segment.
+     * @param batchSize Maximum number of recipes per update request.
+     * @param commitWithin Maximum time until flushed counts become searchable.
+     * @throws IOException If the write-ahead log directory cannot be created.
+     */
+    public RecipeCounterService(
+            SolrClient solrClient,
+            SolrQueryExecutor solrQueryExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${plato.counters.log-dir:./data/counters}") Path logDirectory,
+            @Value("${plato.counters.log-max-segment-bytes:67108864}") long maxLogSegmentBytes,
+            @Value("${plato.counters.batch-size:1000}") int batchSize,
+            @Value("${plato.counters.commit-within:30s}") Duration commitWithin) throws IOException {
+        this.solrClient = solrClient;
+        this.solrQueryExecutor = solrQueryExecutor;
+        this.counterLog = new CounterLog(logDirectory, maxLogSegmentBytes);
+        this.batchSize = batchSize;
+        this.commitWithinMillis = (int) commitWithin.toMillis();
+
+        for (CounterType type : CounterType.values()) {
+            incrementCounters.put(type, meterRegistry.counter("plato.counters.increments", "type", type.getField()));
+        }
+        this.flushedCounter = meterRegistry.counter("plato.counters.flushed.recipes", "outcome", "flushed");
+        this.droppedCounter = meterRegistry.counter("plato.counters.flushed.recipes", "outcome", "unknown");
+        Gauge.builder("plato.counters.pending", this, s -> s.pending.size())
+                .description("Recipes with increments waiting to be flushed").register(meterRegistry);
+    }
+
+    /**
+     * Replays the write-ahead log left behind by the previous run.
+     *
+     * @throws IOException If the log cannot be read.
+     */
+    @PostConstruct
+    public void recover() throws IOException {
+        List<Path> replayed = counterLog.recover((type, recipeId, delta) ->
+                pending.computeIfAbsent(recipeId, id -> new RecipeCounters()).add(type, delta));
+        if (replayed.isEmpty()) {
+            return;
+        }
+        // Carry the replayed counts over into the new segment in aggregated form, then drop the old segments
+        pending.forEach((recipeId, counters) -> {
+            for (CounterType type : CounterType.values()) {
+                long delta = counters.get(type);
+                if (delta != 0) {
+                    counterLog.append(type, recipeId, delta);
+                }
+            }
+        });
+        counterLog.sync();
+        counterLog.delete(replayed);
+        log.info("Recovered pending counter increments for {} recipes", pending.size());
+    }
+
+    /**
+     * Records an increment of a recipe counter. The increment reaches Solr with the next flush.
+     *
+     * @param recipeId The recipe id.
+     * @param type The counter to increment.
+     */
+    public void increment(String recipeId, CounterType type) {
+        swapLock.readLock().lock();
+        try {
+            counterLog.append(type, recipeId, 1);
+            pending.computeIfAbsent(recipeId, id -> new RecipeCounters()).add(type, 1);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+        incrementCounters.get(type).increment();
+    }
+
+    /**
+     * Writes buffered log records to disk.
+     */
+    @Scheduled(fixedDelayString = "${plato.counters.log-sync-interval:1s}")
+    public void syncLog() {
+        counterLog.sync();
+    }
+
+    /**
+     * Sends the accumulated increments to Solr as atomic updates.
+     */
+    @Scheduled(fixedDelayString = "${plato.counters.flush-interval:10s}")
+    public synchronized void flush() {
+        Map<String, RecipeCounters> batch;
+        Path segment;
+        swapLock.writeLock().lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new ConcurrentHashMap<>();
+            segment = counterLog.rotate();
+        } catch (IOException e) {
+            log.warn("Failed to rotate the counter log, retrying with the next flush", e);
+            return;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        List<String> unsent = new ArrayList<>(batch.keySet());
+        try {
+            // Atomic updates to a missing id would create a document holding only the counters
+            Map<String, SolrDocument> current = currentCounters(unsent);
+            droppedCounter.increment(unsent.size() - current.size());
+            unsent.retainAll(current.keySet());
+
+            while (!unsent.isEmpty()) {
+                List<String> ids = unsent.subList(0, Math.min(batchSize, unsent.size()));
+                List<SolrInputDocument> documents = new ArrayList<>(ids.size());
+                for (String id : ids) {
+                    documents.add(toUpdate(id, batch.get(id), current.get(id)));
+                }
+                solrClient.add(documents, commitWithinMillis);
+                flushedCounter.increment(ids.size());
+                ids.clear();
+            }
+        } catch (IOException | SolrServerException | RuntimeException e) {
+            log.warn("Failed to flush counters of {} recipes, retrying with the next flush", unsent.size(), e);
+            requeue(unsent, batch);
+        }
+        counterLog.delete(List.of(segment));
+    }
+
+    /**
+     * Flushes outstanding increments and closes the write-ahead log.
+     *
+     * @throws IOException If the log cannot be closed.
+     */
+    @PreDestroy
+    public void stop() throws IOException {
+        flush();
+        counterLog.close();
+    }
+
+    private Map<String, SolrDocument> currentCounters(List<String> ids) throws IOException, SolrServerException {
+        Map<String, SolrDocument> existing = new HashMap<>(ids.size() * 2);
+        ModifiableSolrParams params = new ModifiableSolrParams();
+        params.set(CommonParams.FL, "id,views,likes,dislikes");
+        for (int from = 0; from < ids.size(); from += EXISTENCE_CHECK_BATCH_SIZE) {
+            List<String> chunk = ids.subList(from, Math.min(ids.size(), from + EXISTENCE_CHECK_BATCH_SIZE));
+            for (SolrDocument document : solrQueryExecutor.getByIds("counters", chunk, params)) {
+                existing.put((String) document.getFirstValue("id"), document);
+            }
+        }
+        return existing;
+    }
+
+    private void requeue(List<String> ids, Map<String, RecipeCounters> batch) {
+        swapLock.readLock().lock();
+        try {
+            for (String id : ids) {
+                RecipeCounters counters = batch.get(id);
+                RecipeCounters target = pending.computeIfAbsent(id, k -> new RecipeCounters());
+                for (CounterType type : CounterType.values()) {
+                    long delta = counters.get(type);
+                    if (delta != 0) {
+                        // Re-logged here because the segment holding the original records is deleted
+                        counterLog.append(type, id, delta);
+                        target.add(type, delta);
+                    }
+                }
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private static SolrInputDocument toUpdate(String id, RecipeCounters counters, SolrDocument current) {
+        SolrInputDocument document = new SolrInputDocument();
+        document.setField("id", id);
+        long[] totals = new long[CounterType.values().length];
+        for (CounterType type : CounterType.values()) {
+            long delta = counters.get(type);
+            Object value = current.getFirstValue(type.getField());
+            totals[type.ordinal()] = (value instanceof Number number ? number.longValue() : 0) + delta;
+            if (delta != 0) {
+                document.setField(type.getField(), Map.of("inc", delta));
+            }
+        }
+        // The score depends on the totals, so it is set from the values read by real-time get plus the deltas
+        double score = PopularityScore.compute(totals[CounterType.VIEWS.ordinal()],
+                totals[CounterType.LIKES.ordinal()], totals[CounterType.DISLIKES.ordinal()]);
+        document.setField(PopularityScore.FIELD, Map.of("set", score));
+        return document;
+    }
+
+    /**
+     * RecipeCounters holds the pending increments of one recipe.
+     */
+    private static final class RecipeCounters {
+        private final LongAdder[] adders = {new LongAdder(), new LongAdder(), new LongAdder()};
+
+        void add(CounterType type, long delta) {
+            adders[type.ordinal()].add(delta);
+        }
+
+        long get(CounterType type) {
+            return adders[type.ordinal()].sum();
+        }
+    }
+}
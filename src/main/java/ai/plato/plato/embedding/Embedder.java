@@ -0,0 +1,42 @@
+package ai.plato.plato.embedding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Embedder turns text into a dense vector for semantic search.
+ * <p>
+ * Implementations must be thread-safe and deterministic: the vectors computed for recipes during ingestion and
+ * the vectors of queries have to come from the same model, with the same dimension as the Solr field.
+ * </p>
+ */
+public interface Embedder {
+
+    /**
+     * @return The number of components of every vector.
+     */
+    int dimension();
+
+    /**
+     * Embeds one text.
+     *
+     * @param text The text.
+     * @return The vector, all zeros if the text has nothing to embed.
+     */
+    float[] embed(String text);
+
+    /**
+     * Embeds a batch of texts. Models with a per-call overhead (a remote service, an inference session)
+     * should override this to process the batch at once.
+     *
+     * @param texts The texts.
+     * @return The vectors, in the order of the texts.
+     */
+    default List<float[]> embedAll(List<String> texts) {
+        List<float[]> vectors = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            vectors.add(embed(text));
+        }
+        return vectors;
+    }
+}
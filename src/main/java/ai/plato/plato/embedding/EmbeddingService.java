@@ -0,0 +1,131 @@
+package ai.plato.plato.embedding;
+
+import ai.plato.plato.cache.CacheStats;
+import ai.plato.plato.cache.ResultCache;
+import ai.plato.plato.helper.IngredientNormalizer;
+import ai.plato.plato.model.Recipe;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * EmbeddingService computes the vectors used by semantic search, for recipes at ingestion and for query strings.
+ * <p>
+ * Recipe vectors are stored in the {@value #FIELD} field, a Solr DenseVectorField whose dimension must match the
+ * configured {@link Embedder}, e.g.
+ * {@code <fieldType name="knn_vector_256" class="solr.DenseVectorField" vectorDimension="256"
+ * similarityFunction="cosine"/>}. The field has to be stored, because counter updates are atomic updates, which
+ * rebuild documents from their stored fields.
+ * </p>
+ * <p>
+ * Recipes are embedded a whole ingestion batch at a time. Query vectors are cached by query text, since the same
+ * searches are repeated by many users.
+ * </p>
+ */
+@Service
+public class EmbeddingService {
+
+    /**
+     * The Solr field holding the recipe vectors.
+     */
+    public static final String FIELD = "recipe_vector";
+
+    private final Embedder embedder;
+    private final ResultCache<String, float[]> queryCache;
+
+    /**
+     * Constructs EmbeddingService.
+     *
+     * @param embedder The embedding model.
+     * @param cacheMaxWeightBytes Maximum approximate heap used by cached query vectors.
+     * @param cacheTtl Time-to-live of cached query vectors.
+     */
+    public EmbeddingService(
+            Embedder embedder,
+            @Value("${plato.embedding.cache.max-weight-bytes:16777216}") long cacheMaxWeightBytes,
+            @Value("${plato.embedding.cache.ttl:1h}") Duration cacheTtl) {
+        this.embedder = embedder;
+        this.queryCache = new ResultCache<>("query-embeddings", true, cacheMaxWeightBytes, cacheTtl,
+                vector -> 16L + 4L * vector.length);
+    }
+
+    /**
+     * Returns the vector of a query string, from the cache when the same query was embedded recently.
+     *
+     * @param query The query string.
+     * @return The vector, or null if the query has nothing to embed.
+     */
+    public float[] embedQuery(String query) {
+        String key = query.strip();
+        float[] cached = queryCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        float[] vector = embedder.embed(key);
+        if (isZero(vector)) {
+            return null;
+        }
+        queryCache.put(key, vector, null);
+        return vector;
+    }
+
+    /**
+     * Embeds a batch of recipes in one call to the model.
+     *
+     * @param recipes The recipes.
+     * @return The vector of each recipe, in order; null for recipes with nothing to embed.
+     */
+    public List<float[]> embedRecipes(List<Recipe> recipes) {
+        List<String> texts = new ArrayList<>(recipes.size());
+        for (Recipe recipe : recipes) {
+            texts.add(recipeText(recipe));
+        }
+        List<float[]> vectors = new ArrayList<>(embedder.embedAll(texts));
+        vectors.replaceAll(vector -> isZero(vector) ? null : vector);
+        return vectors;
+    }
+
+    /**
+     * @return A snapshot of the query vector cache counters.
+     */
+    public CacheStats cacheStats() {
+        return queryCache.stats();
+    }
+
+    /**
+     * Builds the text a recipe is embedded from: its title, the canonical names of its ingredients (without
+     * quantities and units, which carry no meaning for search) and its cuisines.
+     */
+    static String recipeText(Recipe recipe) {
+        StringBuilder text = new StringBuilder();
+        if (recipe.getTitle() != null) {
+            text.append(String.join(" ", recipe.getTitle()));
+        }
+        if (recipe.getIngredients() != null) {
+            for (String ingredient : recipe.getIngredients()) {
+                String name = IngredientNormalizer.normalize(ingredient);
+                if (name != null) {
+                    text.append(", ").append(name);
+                }
+            }
+        }
+        if (recipe.getCuisines() != null) {
+            for (String cuisine : recipe.getCuisines()) {
+                text.append(", ").append(cuisine);
+            }
+        }
+        return text.toString();
+    }
+
+    private static boolean isZero(float[] vector) {
+        for (float component : vector) {
+            if (component != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,98 @@
+package ai.plato.plato.embedding;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * HashingEmbedder is a small local embedding model that needs no weights and runs in microseconds on the CPU.
+ * <p>
+ * Words, word bigrams and character trigrams of words are hashed into a fixed number of signed buckets, and the
+ * vector is normalized to unit length. Trigrams make morphological variants and compounds ("weeknight" and
+ * "week night", "tomato" and "tomatoes") land close to each other, and bigrams keep some word order. It does not
+ * know synonyms; a trained sentence embedding model can replace it behind the {@link Embedder} interface.
+ * </p>
+ */
+public final class HashingEmbedder implements Embedder {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final float WORD_WEIGHT = 1.0f;
+    private static final float BIGRAM_WEIGHT = 0.5f;
+    private static final float TRIGRAM_WEIGHT = 0.25f;
+
+    private final int dimension;
+
+    /**
+     * Constructs HashingEmbedder.
+     *
+     * @param dimension The number of components of every vector.
+     */
+    public HashingEmbedder(int dimension) {
+        if (dimension <= 0) {
+            throw new IllegalArgumentException("Embedding dimension must be positive");
+        }
+        this.dimension = dimension;
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        float[] vector = new float[dimension];
+        if (text == null) {
+            return vector;
+        }
+        String previous = null;
+        for (String word : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            add(vector, word, WORD_WEIGHT);
+            if (previous != null) {
+                add(vector, previous + ' ' + word, BIGRAM_WEIGHT);
+            }
+            String bounded = '^' + word + '$';
+            for (int i = 0; i + 3 <= bounded.length(); i++) {
+                add(vector, bounded.substring(i, i + 3), TRIGRAM_WEIGHT);
+            }
+            previous = word;
+        }
+        normalize(vector);
+        return vector;
+    }
+
+    private void add(float[] vector, String feature, float weight) {
+        int hash = mix(feature.hashCode());
+        // The low bits pick the bucket and an independent high bit the sign, so collisions tend to cancel out
+        int bucket = Math.floorMod(hash, dimension);
+        vector[bucket] += (hash & 0x4000_0000) == 0 ? weight : -weight;
+    }
+
+    private static void normalize(float[] vector) {
+        double sum = 0;
+        for (float component : vector) {
+            sum += component * component;
+        }
+        if (sum == 0) {
+            return;
+        }
+        float scale = (float) (1.0 / Math.sqrt(sum));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+    }
+
+    /**
+     * The MurmurHash3 finalizer: spreads the bits of String.hashCode, which is stable across JVMs.
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85eb_ca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2_ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
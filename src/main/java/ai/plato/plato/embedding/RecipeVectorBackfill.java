@@ -0,0 +1,79 @@
+package ai.plato.plato.embedding;
+
+import ai.plato.plato.helper.MissingFieldBackfill;
+import ai.plato.plato.helper.RecipeDocumentMapper;
+import ai.plato.plato.model.Recipe;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.common.SolrDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RecipeVectorBackfill embeds the recipes that were indexed without a vector.
+ * <p>
+ * Vectors are computed at ingestion, so recipes indexed before semantic search existed, or whose batch failed to
+ * embed, are invisible to semantic and hybrid searches. The backfill sets the missing
+ * {@value EmbeddingService#FIELD} field with a {@link MissingFieldBackfill}, embedding each page with one call to
+ * the model. A recipe re-ingested in between already has a vector of its new text and keeps it.
+ * </p>
+ */
+@Component
+public class RecipeVectorBackfill {
+
+    private final MissingFieldBackfill missingFieldBackfill;
+    private final EmbeddingService embeddingService;
+    private final boolean enabled;
+
+    /**
+     * Constructs RecipeVectorBackfill.
+     *
+     * @param solrClient The Solr client instance used for reading recipes and sending updates.
+     * @param embeddingService The service computing the embedding vectors of recipes.
+     * @param enabled Whether missing vectors are backfilled.
+     * @param batchSize Number of recipes read, embedded and updated per request.
+     * @param commitWithin Maximum time until backfilled vectors become searchable.
+     */
+    public RecipeVectorBackfill(
+            SolrClient solrClient,
+            EmbeddingService embeddingService,
+            @Value("${plato.embedding.backfill.enabled:true}") boolean enabled,
+            @Value("${plato.embedding.backfill.batch-size:500}") int batchSize,
+            @Value("${plato.ingest.commit-within:10s}") Duration commitWithin) {
+        this.missingFieldBackfill = new MissingFieldBackfill(solrClient, EmbeddingService.FIELD, "vectors",
+                List.of("title", "ingredients", "cuisines"), batchSize, (int) commitWithin.toMillis());
+        this.embeddingService = embeddingService;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Embeds all recipes missing a vector.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${plato.embedding.backfill.interval:1h}")
+    public void backfill() {
+        if (enabled) {
+            missingFieldBackfill.run(this::vectors);
+        }
+    }
+
+    /**
+     * @return The vector value of each recipe, or null for recipes without text to embed.
+     */
+    private List<Object> vectors(List<SolrDocument> documents) {
+        List<Recipe> recipes = new ArrayList<>(documents.size());
+        for (SolrDocument document : documents) {
+            recipes.add(RecipeDocumentMapper.toRecipe(document));
+        }
+        List<float[]> vectors = embeddingService.embedRecipes(recipes);
+
+        List<Object> values = new ArrayList<>(vectors.size());
+        for (float[] vector : vectors) {
+            values.add(vector == null ? null : RecipeDocumentMapper.toVectorValue(vector));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,107 @@
+package ai.plato.plato.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * EventRingBuffer is a bounded, lock-free queue for many producers and a single consumer.
+ * <p>
+ * Every slot carries a sequence number telling whose turn it is: a producer may fill slot {@code i} at position
+ * {@code p} when its sequence equals {@code p}, the consumer may take it when the sequence equals {@code p + 1}.
+ * Producers claim positions with a single compare-and-set on the tail and never wait; when the buffer is full,
+ * {@link #offer} fails immediately and the caller decides what to drop.
+ * </p>
+ *
+ * @param <E> The element type.
+ */
+final class EventRingBuffer<E> {
+
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Only written by the consumer thread; volatile so size() can read it from elsewhere
+    private volatile long head;
+
+    /**
+     * @param capacity The capacity, rounded up to a power of two.
+     */
+    EventRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.elements = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element without blocking.
+     *
+     * @param element The element.
+     * @return Whether the element was added; false if the buffer is full.
+     */
+    boolean offer(E element) {
+        long position;
+        int slot;
+        while (true) {
+            position = tail.get();
+            slot = (int) position & mask;
+            long difference = sequences.get(slot) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (difference < 0) {
+                // The consumer has not yet taken the element written one lap ago
+                return false;
+            }
+            // Otherwise another producer claimed the position first; retry with the new tail
+        }
+        elements[slot] = element;
+        // Publishes the element: the volatile write orders it after the plain write above
+        sequences.set(slot, position + 1);
+        return true;
+    }
+
+    /**
+     * Takes available elements in order. Must only be called from one thread at a time.
+     *
+     * @param consumer Receives the elements.
+     * @param maxElements The maximum number of elements to take.
+     * @return The number of elements taken.
+     */
+    @SuppressWarnings("unchecked")
+    int drain(Consumer<E> consumer, int maxElements) {
+        int taken = 0;
+        while (taken < maxElements) {
+            int slot = (int) head & mask;
+            if (sequences.get(slot) != head + 1) {
+                break;
+            }
+            E element = (E) elements[slot];
+            elements[slot] = null;
+            sequences.set(slot, head + elements.length);
+            head++;
+            taken++;
+            consumer.accept(element);
+        }
+        return taken;
+    }
+
+    /**
+     * @return An estimate of the number of elements waiting, for metrics.
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    /**
+     * @return The capacity of the buffer.
+     */
+    int capacity() {
+        return elements.length;
+    }
+}
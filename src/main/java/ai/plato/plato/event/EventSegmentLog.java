@@ -0,0 +1,222 @@
+package ai.plato.plato.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * EventSegmentLog is the append-only, memory-mapped log of captured user events.
+ * <p>
+ * The log is a sequence of numbered segment files of a fixed size, each mapped into memory while it is written.
+ * Appending copies the encoded event into the mapping, so it costs no system call; the operating system writes
+ * the pages back, which survives a crash of the process, and {@link #force} makes them durable against a crash of
+ * the machine. A record is {@code length, timestamp, type, userId, subject} with length-prefixed UTF-8 strings;
+ * a zero length marks the end of a segment's data.
+ * </p>
+ * <p>
+ * The log is written by a single thread. Compaction is driven by the owner: it seals the current segment, appends
+ * the state worth keeping as new records and deletes the sealed segments.
+ * </p>
+ */
+final class EventSegmentLog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(EventSegmentLog.class);
+    private static final String SEGMENT_PREFIX = "events-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int MAX_STRING_BYTES = 1024;
+    private static final UserEventType[] TYPES = UserEventType.values();
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final List<Path> sealed = new ArrayList<>();
+    private long generation;
+    private Path segment;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    /**
+     * Opens the log in a directory, creating the directory if necessary. Existing segments are left in place
+     * for {@link #recover}.
+     *
+     * @param directory The directory holding the segments.
+     * @param segmentBytes The size of one segment.
+     * @throws IOException If the directory cannot be created.
+     */
+    EventSegmentLog(Path directory, int segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Replays all existing segments in order and opens a fresh segment for new events. The replayed segments
+     * count as sealed.
+     *
+     * @param consumer Receives every replayed event.
+     * @throws IOException If the segments cannot be read or the new segment cannot be created.
+     */
+    void recover(Consumer<UserEvent> consumer) throws IOException {
+        for (Path existing : segments()) {
+            generation = Math.max(generation, generationOf(existing));
+            try (FileChannel readChannel = FileChannel.open(existing, StandardOpenOption.READ)) {
+                replay(existing, readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size()), consumer);
+            }
+            sealed.add(existing);
+        }
+        open();
+    }
+
+    /**
+     * Appends an event, starting a new segment when the current one is full.
+     *
+     * @param event The event.
+     * @throws IOException If a new segment cannot be created.
+     */
+    void append(UserEvent event) throws IOException {
+        byte[] userId = truncate(event.userId().getBytes(StandardCharsets.UTF_8));
+        byte[] subject = truncate(event.subject().getBytes(StandardCharsets.UTF_8));
+        int length = Long.BYTES + 1 + Short.BYTES + userId.length + Short.BYTES + subject.length;
+        // Keep room for the zero length that terminates the segment
+        if (buffer.remaining() < Integer.BYTES + length + Integer.BYTES) {
+            roll();
+        }
+        buffer.putInt(length);
+        buffer.putLong(event.timestamp());
+        buffer.put((byte) event.type().ordinal());
+        buffer.putShort((short) userId.length);
+        buffer.put(userId);
+        buffer.putShort((short) subject.length);
+        buffer.put(subject);
+    }
+
+    /**
+     * Forces the written part of the current segment to disk.
+     */
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Seals the current segment and starts a new one.
+     *
+     * @throws IOException If the new segment cannot be created.
+     */
+    void roll() throws IOException {
+        closeSegment();
+        sealed.add(segment);
+        open();
+    }
+
+    /**
+     * @return The sealed segments, oldest first.
+     */
+    List<Path> sealedSegments() {
+        return List.copyOf(sealed);
+    }
+
+    /**
+     * Deletes sealed segments whose events have been compacted into newer segments.
+     *
+     * @param segments The segments to delete.
+     */
+    void delete(List<Path> segments) {
+        for (Path path : segments) {
+            try {
+                Files.deleteIfExists(path);
+                sealed.remove(path);
+            } catch (IOException e) {
+                log.warn("Failed to delete event log segment {}", path, e);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeSegment();
+    }
+
+    private void open() throws IOException {
+        generation++;
+        segment = directory.resolve(SEGMENT_PREFIX + String.format("%019d", generation) + SEGMENT_SUFFIX);
+        channel = FileChannel.open(segment,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // Mapping beyond the end of the file grows it; the new bytes read as zero, i.e. as the end marker
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+    }
+
+    private void closeSegment() throws IOException {
+        if (channel != null) {
+            buffer.force();
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                segments.add(path);
+            }
+        }
+        // Generations are zero-padded, so name order is log order
+        segments.sort(null);
+        return segments;
+    }
+
+    private static long generationOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static void replay(Path segment, ByteBuffer data, Consumer<UserEvent> consumer) {
+        try {
+            while (data.remaining() >= Integer.BYTES) {
+                int length = data.getInt();
+                if (length <= 0 || length > data.remaining()) {
+                    // End of data, or a record torn by a crash of the machine
+                    return;
+                }
+                long timestamp = data.getLong();
+                int type = data.get();
+                String userId = readString(data);
+                String subject = readString(data);
+                if (type < 0 || type >= TYPES.length) {
+                    log.warn("Skipping malformed record in event log {}", segment);
+                    continue;
+                }
+                consumer.accept(new UserEvent(TYPES[type], userId, subject, timestamp));
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+            log.warn("Stopping replay of event log {} at a malformed record", segment);
+        }
+    }
+
+    private static String readString(ByteBuffer data) {
+        byte[] bytes = new byte[data.getShort()];
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] truncate(byte[] bytes) {
+        if (bytes.length <= MAX_STRING_BYTES) {
+            return bytes;
+        }
+        byte[] truncated = new byte[MAX_STRING_BYTES];
+        System.arraycopy(bytes, 0, truncated, 0, MAX_STRING_BYTES);
+        return truncated;
+    }
+}
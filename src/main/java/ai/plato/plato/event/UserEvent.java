@@ -0,0 +1,12 @@
+package ai.plato.plato.event;
+
+/**
+ * UserEvent is one captured user action.
+ *
+ * @param type The kind of action.
+ * @param userId The id of the user.
+ * @param subject The recipe id for views, likes and dislikes; the query text for searches.
+ * @param timestamp The time of the action in epoch milliseconds.
+ */
+public record UserEvent(UserEventType type, String userId, String subject, long timestamp) {
+}
@@ -0,0 +1,256 @@
+package ai.plato.plato.event;
+
+import ai.plato.plato.exception.NotFoundException;
+import ai.plato.plato.recommend.RecommendationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * UserEventService captures user activity (views, likes, dislikes and searches) off the request path.
+ * <p>
+ * Request handlers {@link #publish} events into a lock-free {@link EventRingBuffer}; publishing never blocks and
+ * drops the event when the buffer is full. A scheduled consumer drains the buffer in batches, appends the events
+ * to the memory-mapped {@link EventSegmentLog}, updates the in-memory history of each user and feeds
+ * the recommendation profiles. On startup the log is replayed, so histories and profiles survive restarts.
+ * </p>
+ * <p>
+ * Only the most recent events of each user are ever read, so the log is compacted after a number of new segments:
+ * the retained history of every user is written to fresh segments and the older segments are deleted. Users
+ * without activity within the retention period are dropped.
+ * </p>
+ * <p>
+ * User ids come from an unauthenticated header, so the number of histories is bounded as well: beyond the
+ * configured maximum, the history of the user with the oldest event is dropped when a new user appears.
+ * </p>
+ */
+@Service
+public class UserEventService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserEventService.class);
+
+    private final RecommendationService recommendationService;
+    private final EventRingBuffer<UserEvent> buffer;
+    private final EventSegmentLog eventLog;
+    private final int historySize;
+    private final long retentionMillis;
+    private final int compactAfterSegments;
+    private final int drainBatchSize;
+    // Ordered by the latest event, so the eldest entry is the least recently active user; guarded by itself
+    private final LinkedHashMap<String, UserHistory> histories;
+    private final Counter publishedCounter;
+    private final Counter droppedCounter;
+    // Guarded by "this", like every access to the event log
+    private int segmentsAfterCompaction;
+
+    /**
+     * Constructs UserEventService.
+     *
+     * @param recommendationService The service keeping the recommendation profiles fed by the events.
+     * @param meterRegistry Registry for the pipeline metrics.
+     * @param bufferCapacity The number of events the ring buffer holds before new events are dropped.
+     * @param logDirectory Directory of the event log.
+     * @param segmentBytes Size of one event log segment.
+     * @param historySize The number of recent events kept per user.
+     * @param retention The inactivity after which a user's history is dropped.
+     * @param compactAfterSegments The number of new segments that triggers a compaction.
+     * @param drainBatchSize The maximum number of events taken from the buffer at once.
+     * @param maxUsers The maximum number of user histories kept.
+     * @throws IOException If the event log directory cannot be created.
+     */
+    public UserEventService(
+            RecommendationService recommendationService,
+            MeterRegistry meterRegistry,
+            @Value("${plato.events.buffer-capacity:65536}") int bufferCapacity,
+            @Value("${plato.events.log-dir:./data/events}") Path logDirectory,
+            @Value("${plato.events.segment-bytes:16777216}") int segmentBytes,
+            @Value("${plato.events.history-size:100}") int historySize,
+            @Value("${plato.events.retention:30d}") Duration retention,
+            @Value("${plato.events.compact-after-segments:8}") int compactAfterSegments,
+            @Value("${plato.events.drain-batch-size:4096}") int drainBatchSize,
+            @Value("${plato.events.max-users:100000}") int maxUsers) throws IOException {
+        this.recommendationService = recommendationService;
+        this.buffer = new EventRingBuffer<>(bufferCapacity);
+        this.eventLog = new EventSegmentLog(logDirectory, segmentBytes);
+        this.historySize = historySize;
+        this.retentionMillis = retention.toMillis();
+        this.compactAfterSegments = compactAfterSegments;
+        this.drainBatchSize = drainBatchSize;
+        this.histories = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UserHistory> eldest) {
+                return size() > maxUsers;
+            }
+        };
+
+        this.publishedCounter = meterRegistry.counter("plato.events.captured", "outcome", "accepted");
+        this.droppedCounter = meterRegistry.counter("plato.events.captured", "outcome", "dropped");
+        Gauge.builder("plato.events.pending", buffer, EventRingBuffer::size)
+                .description("Events waiting in the ring buffer").register(meterRegistry);
+        Gauge.builder("plato.events.users", this, UserEventService::userCount)
+                .description("Users with a recorded history").register(meterRegistry);
+    }
+
+    /**
+     * Replays the event log left behind by the previous run.
+     *
+     * @throws IOException If the log cannot be read.
+     */
+    @PostConstruct
+    public synchronized void recover() throws IOException {
+        eventLog.recover(this::apply);
+        segmentsAfterCompaction = eventLog.sealedSegments().size();
+        log.info("Recovered the event history of {} users", userCount());
+    }
+
+    /**
+     * Captures a user event without blocking. Events without a user are ignored.
+     *
+     * @param type The kind of action.
+     * @param userId The user id, may be null.
+     * @param subject The recipe id or the query text.
+     */
+    public void publish(UserEventType type, String userId, String subject) {
+        if (userId == null || userId.isBlank() || subject == null) {
+            return;
+        }
+        if (buffer.offer(new UserEvent(type, userId, subject, System.currentTimeMillis()))) {
+            publishedCounter.increment();
+        } else {
+            droppedCounter.increment();
+        }
+    }
+
+    /**
+     * Returns the recipes a user viewed most recently. Views are visible once the consumer has taken them
+     * from the buffer, normally within one drain interval.
+     *
+     * @param userId The user id.
+     * @param limit The maximum number of views to return.
+     * @return The views, most recent first.
+     */
+    public List<ViewedRecipe> recentViews(String userId, int limit) {
+        UserHistory history;
+        synchronized (histories) {
+            history = histories.get(userId);
+        }
+        List<UserEvent> views = history == null ? List.of() : history.recent(UserEventType.VIEW, limit);
+        if (views.isEmpty()) {
+            throw new NotFoundException("No views recorded for user " + userId);
+        }
+        List<ViewedRecipe> result = new ArrayList<>(views.size());
+        for (UserEvent view : views) {
+            result.add(new ViewedRecipe(view.subject(), Instant.ofEpochMilli(view.timestamp())));
+        }
+        return result;
+    }
+
+    /**
+     * Moves buffered events into the log and the histories, and compacts the log when due.
+     */
+    @Scheduled(fixedDelayString = "${plato.events.drain-interval:100ms}")
+    public synchronized void drain() {
+        while (buffer.drain(this::persist, drainBatchSize) == drainBatchSize) {
+            // Keep draining while full batches come out
+        }
+        if (eventLog.sealedSegments().size() - segmentsAfterCompaction >= compactAfterSegments) {
+            try {
+                compact();
+            } catch (IOException e) {
+                log.warn("Failed to compact the event log", e);
+            }
+        }
+    }
+
+    /**
+     * Forces the event log to disk.
+     */
+    @Scheduled(fixedDelayString = "${plato.events.sync-interval:5s}")
+    public synchronized void sync() {
+        eventLog.force();
+    }
+
+    /**
+     * Drains outstanding events and closes the event log.
+     *
+     * @throws IOException If the log cannot be closed.
+     */
+    @PreDestroy
+    public synchronized void stop() throws IOException {
+        drain();
+        eventLog.close();
+    }
+
+    private void persist(UserEvent event) {
+        try {
+            eventLog.append(event);
+        } catch (IOException e) {
+            log.warn("Failed to append to the event log", e);
+        }
+        apply(event);
+    }
+
+    private void apply(UserEvent event) {
+        UserHistory history;
+        synchronized (histories) {
+            // Re-inserting moves the history to the end, so the map stays ordered by latest event
+            history = histories.remove(event.userId());
+            if (history == null) {
+                history = new UserHistory(historySize);
+            }
+            histories.put(event.userId(), history);
+        }
+        history.add(event);
+        if (event.type() != UserEventType.SEARCH) {
+            recommendationService.recordInteraction(event.userId(), event.subject(), event.type(), event.timestamp());
+        }
+    }
+
+    private void compact() throws IOException {
+        eventLog.roll();
+        List<Path> obsolete = eventLog.sealedSegments();
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        List<UserHistory> active;
+        synchronized (histories) {
+            histories.values().removeIf(history -> history.lastActivity() < cutoff);
+            active = new ArrayList<>(histories.values());
+        }
+
+        List<UserEvent> retained = new ArrayList<>(historySize);
+        for (UserHistory history : active) {
+            retained.clear();
+            history.forEachSince(cutoff, retained::add);
+            for (UserEvent event : retained) {
+                eventLog.append(event);
+            }
+        }
+        eventLog.roll();
+        // A crash before this point replays the old segments and the compacted ones; histories are bounded rings,
+        // so that only repeats some entries
+        eventLog.delete(obsolete);
+        segmentsAfterCompaction = eventLog.sealedSegments().size();
+        log.info("Compacted {} event log segments into {}", obsolete.size(), segmentsAfterCompaction);
+    }
+
+    private int userCount() {
+        synchronized (histories) {
+            return histories.size();
+        }
+    }
+}
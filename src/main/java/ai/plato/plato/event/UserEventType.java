@@ -0,0 +1,25 @@
+package ai.plato.plato.event;
+
+import ai.plato.plato.counter.CounterType;
+
+/**
+ * UserEventType lists the user activity captured by the event pipeline.
+ */
+public enum UserEventType {
+    VIEW,
+    LIKE,
+    DISLIKE,
+    SEARCH;
+
+    /**
+     * @param counter A popularity counter.
+     * @return The event recorded when a user increments the counter.
+     */
+    public static UserEventType fromCounter(CounterType counter) {
+        return switch (counter) {
+            case VIEWS -> VIEW;
+            case LIKES -> LIKE;
+            case DISLIKES -> DISLIKE;
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package ai.plato.plato.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * UserHistory is the most recent activity of one user, in a fixed-size ring. It is written by the event consumer
+ * and read by queries.
+ */
+final class UserHistory {
+
+    private final UserEvent[] events;
+    private int next;
+    private int size;
+
+    UserHistory(int capacity) {
+        this.events = new UserEvent[capacity];
+    }
+
+    /**
+     * Records an event, replacing the oldest one if the ring is full.
+     *
+     * @param event The event.
+     */
+    synchronized void add(UserEvent event) {
+        events[next] = event;
+        next = (next + 1) % events.length;
+        size = Math.min(size + 1, events.length);
+    }
+
+    /**
+     * Returns the most recent events of a type.
+     *
+     * @param type The event type.
+     * @param limit The maximum number of events to return.
+     * @return The events, most recent first.
+     */
+    synchronized List<UserEvent> recent(UserEventType type, int limit) {
+        List<UserEvent> result = new ArrayList<>(Math.min(limit, size));
+        for (int i = 0; i < size && result.size() < limit; i++) {
+            UserEvent event = events[Math.floorMod(next - 1 - i, events.length)];
+            if (event.type() == type) {
+                result.add(event);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Passes the events newer than a cutoff to a consumer, oldest first.
+     *
+     * @param cutoff The cutoff in epoch milliseconds.
+     * @param consumer Receives the events.
+     */
+    synchronized void forEachSince(long cutoff, Consumer<UserEvent> consumer) {
+        for (int i = size - 1; i >= 0; i--) {
+            UserEvent event = events[Math.floorMod(next - 1 - i, events.length)];
+            if (event.timestamp() >= cutoff) {
+                consumer.accept(event);
+            }
+        }
+    }
+
+    /**
+     * @return The time of the latest event in epoch milliseconds, or 0 if there is none.
+     */
+    synchronized long lastActivity() {
+        return size == 0 ? 0 : events[Math.floorMod(next - 1, events.length)].timestamp();
+    }
+}
@@ -0,0 +1,12 @@
+package ai.plato.plato.event;
+
+import java.time.Instant;
+
+/**
+ * ViewedRecipe is one entry of a user's view history.
+ *
+ * @param recipeId The id of the viewed recipe.
+ * @param viewedAt The time of the view.
+ */
+public record ViewedRecipe(String recipeId, Instant viewedAt) {
+}
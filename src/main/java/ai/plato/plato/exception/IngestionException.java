@@ -0,0 +1,20 @@
+package ai.plato.plato.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception used to indicate that recipes submitted for ingestion could not be read,
+ * e.g. because the input is malformed or the requested import file is not accessible.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class IngestionException extends RuntimeException {
+
+    public IngestionException(String message) {
+        super(message);
+    }
+
+    public IngestionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
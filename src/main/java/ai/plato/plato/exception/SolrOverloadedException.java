@@ -0,0 +1,16 @@
+package ai.plato.plato.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception used to indicate that the limit of concurrent requests towards Solr has been reached
+ * and a request could not be admitted in time.
+ */
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Too many concurrent recipe searches")
+public class SolrOverloadedException extends RuntimeException {
+
+    public SolrOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,179 @@
+package ai.plato.plato.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * IngredientNormalizer reduces free-text ingredient lines and cuisine names to canonical terms.
+ * <p>
+ * Ingredient lines carry quantities, units and preparation notes ("2 cups finely chopped onions, peeled"), so the
+ * same ingredient is written in many different ways. Normalization lowercases the line, drops quantities, units,
+ * parenthesized and comma-separated notes and common descriptors, singularizes the last word and finally maps
+ * known synonyms to one name ("onion"). The result is what pantry entries are matched against.
+ * </p>
+ */
+public final class IngredientNormalizer {
+
+    private static final Pattern PARENTHESES = Pattern.compile("\\([^)]*\\)|\\[[^]]*]");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}/.\\- ]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern QUANTITY = Pattern.compile("[\\d/.\\-]+|[\\d.]+[a-z]{1,2}|[¼½¾⅓⅔⅛]+");
+
+    private static final Set<String> QUANTITY_WORDS = Set.of(
+            "a", "an", "one", "two", "three", "four", "five", "six", "seven", "eight", "nine", "ten", "twelve",
+            "half", "quarter", "dozen", "few", "several", "some", "couple", "to", "or", "about");
+
+    private static final Set<String> UNITS = Set.of(
+            "cup", "cups", "c", "tablespoon", "tablespoons", "tbsp", "tbs", "tbl", "teaspoon", "teaspoons", "tsp",
+            "g", "gr", "gram", "grams", "kg", "kilogram", "kilograms", "mg", "ml", "milliliter", "milliliters",
+            "millilitre", "millilitres", "l", "liter", "liters", "litre", "litres", "dl", "cl", "oz", "ounce",
+            "ounces", "fl", "lb", "lbs", "pound", "pounds", "pint", "pints", "quart", "quarts", "gallon", "gallons",
+            "pinch", "pinches", "dash", "dashes", "drop", "drops", "handful", "handfuls", "bunch", "bunches",
+            "sprig", "sprigs", "clove", "cloves", "slice", "slices", "piece", "pieces", "can", "cans", "jar", "jars",
+            "package", "packages", "pkg", "packet", "packets", "bag", "bags", "box", "boxes", "stick", "sticks",
+            "head", "heads", "stalk", "stalks", "leaf", "leaves", "sheet", "sheets", "cube", "cubes", "of");
+
+    private static final Set<String> DESCRIPTORS = Set.of(
+            "fresh", "freshly", "dried", "large", "medium", "small", "big", "whole", "chopped", "finely", "roughly",
+            "coarsely", "thinly", "minced", "diced", "sliced", "grated", "shredded", "crushed", "ground", "peeled",
+            "seeded", "pitted", "trimmed", "halved", "quartered", "melted", "softened", "beaten", "sifted", "packed",
+            "cooked", "uncooked", "raw", "frozen", "thawed", "canned", "rinsed", "drained", "optional", "extra",
+            "heaping", "level", "good", "quality", "organic", "ripe", "cold", "warm", "hot", "room", "temperature",
+            "and", "for", "taste", "serving", "garnish");
+
+    private static final Set<String> PLURAL_EXCEPTIONS = Set.of(
+            "molasses", "hummus", "couscous", "asparagus", "swiss", "grits", "lentils", "oats", "citrus", "bass",
+            "watercress", "hibiscus", "schnapps");
+
+    private static final Map<String, String> SYNONYMS = Map.ofEntries(
+            Map.entry("scallion", "green onion"),
+            Map.entry("spring onion", "green onion"),
+            Map.entry("courgette", "zucchini"),
+            Map.entry("aubergine", "eggplant"),
+            Map.entry("garbanzo bean", "chickpea"),
+            Map.entry("garbanzo", "chickpea"),
+            Map.entry("coriander leaf", "cilantro"),
+            Map.entry("capsicum", "bell pepper"),
+            Map.entry("icing sugar", "powdered sugar"),
+            Map.entry("confectioners sugar", "powdered sugar"),
+            Map.entry("caster sugar", "superfine sugar"),
+            Map.entry("plain flour", "all-purpose flour"),
+            Map.entry("all purpose flour", "all-purpose flour"),
+            Map.entry("flour", "all-purpose flour"),
+            Map.entry("bicarbonate of soda", "baking soda"),
+            Map.entry("bicarbonate soda", "baking soda"),
+            Map.entry("double cream", "heavy cream"),
+            Map.entry("heavy whipping cream", "heavy cream"),
+            Map.entry("single cream", "light cream"),
+            Map.entry("rocket", "arugula"),
+            Map.entry("prawn", "shrimp"),
+            Map.entry("minced meat", "ground beef"),
+            Map.entry("beef mince", "ground beef"),
+            Map.entry("mince", "ground beef"),
+            Map.entry("egg yolk", "egg"),
+            Map.entry("egg white", "egg"),
+            Map.entry("kosher salt", "salt"),
+            Map.entry("sea salt", "salt"),
+            Map.entry("table salt", "salt"),
+            Map.entry("black pepper", "pepper"),
+            Map.entry("extra virgin olive oil", "olive oil"),
+            Map.entry("virgin olive oil", "olive oil"),
+            Map.entry("unsalted butter", "butter"),
+            Map.entry("salted butter", "butter"),
+            Map.entry("garlic clove", "garlic"),
+            Map.entry("bay leave", "bay leaf"));
+
+    private IngredientNormalizer() {
+    }
+
+    /**
+     * Normalizes an ingredient line or pantry entry to the canonical ingredient name.
+     *
+     * @param ingredient The raw ingredient text, e.g. "2 cups finely chopped onions".
+     * @return The canonical name, e.g. "onion", or null if the text names no ingredient.
+     */
+    public static String normalize(String ingredient) {
+        if (ingredient == null || ingredient.isBlank()) {
+            return null;
+        }
+        String text = ingredient.toLowerCase(Locale.ROOT);
+        text = PARENTHESES.matcher(text).replaceAll(" ");
+        int comma = text.indexOf(',');
+        if (comma >= 0) {
+            // Everything after the first comma is a preparation note ("onion, finely chopped")
+            text = text.substring(0, comma);
+        }
+        text = NON_WORD.matcher(text).replaceAll(" ").trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+
+        List<String> words = new ArrayList<>();
+        String lastUnit = null;
+        for (String token : WHITESPACE.split(text)) {
+            if (QUANTITY.matcher(token).matches() || QUANTITY_WORDS.contains(token) || DESCRIPTORS.contains(token)) {
+                continue;
+            }
+            // Unit words only count as units before the ingredient name starts ("1 can tomatoes", not "candied")
+            if (words.isEmpty() && UNITS.contains(token)) {
+                lastUnit = token;
+                continue;
+            }
+            words.add(token);
+        }
+        if (words.isEmpty()) {
+            if (lastUnit == null || "of".equals(lastUnit)) {
+                return null;
+            }
+            // The unit word was the ingredient itself ("1 tsp ground cloves")
+            words.add(lastUnit);
+        }
+        int last = words.size() - 1;
+        words.set(last, singularize(words.get(last)));
+
+        String name = String.join(" ", words);
+        return SYNONYMS.getOrDefault(name, name);
+    }
+
+    /**
+     * Normalizes a cuisine name to a canonical display form: trimmed, single-spaced and capitalized ("Italian").
+     *
+     * @param cuisine The raw cuisine name.
+     * @return The canonical cuisine name, or null if the name is blank.
+     */
+    public static String normalizeCuisine(String cuisine) {
+        if (cuisine == null || cuisine.isBlank()) {
+            return null;
+        }
+        String[] words = WHITESPACE.split(cuisine.trim().toLowerCase(Locale.ROOT));
+        StringBuilder name = new StringBuilder(cuisine.length());
+        for (String word : words) {
+            if (!name.isEmpty()) {
+                name.append(' ');
+            }
+            name.appendCodePoint(Character.toTitleCase(word.codePointAt(0)))
+                    .append(word, Character.charCount(word.codePointAt(0)), word.length());
+        }
+        return name.toString();
+    }
+
+    private static String singularize(String word) {
+        if (word.length() < 4 || PLURAL_EXCEPTIONS.contains(word)) {
+            return word;
+        }
+        if (word.endsWith("ies")) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.endsWith("oes") || word.endsWith("ches") || word.endsWith("shes") || word.endsWith("xes")) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+}
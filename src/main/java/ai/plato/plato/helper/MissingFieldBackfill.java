@@ -0,0 +1,149 @@
+package ai.plato.plato.helper;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.request.UpdateRequest;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.params.CursorMarkParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MissingFieldBackfill sets a field on the recipes that were indexed without it.
+ * <p>
+ * Fields computed at ingestion are missing on recipes indexed before the field existed or whose computation failed.
+ * The backfill walks the recipes missing the field with a cursor, computes the values of each page and sets them
+ * with atomic updates, a batch per request. Once every recipe has the field, a run costs one empty query.
+ * </p>
+ *
+ * <p>
+ * Each update carries the {@code _version_} its value was computed from. If the recipe was written in between
+ * (re-ingested, or its counters flushed), that write already set a newer value, so Solr skips the update instead of
+ * overwriting it.
+ * </p>
+ */
+public final class MissingFieldBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(MissingFieldBackfill.class);
+
+    private final SolrClient solrClient;
+    private final String field;
+    private final String description;
+    private final String[] returnedFields;
+    private final int batchSize;
+    private final int commitWithinMillis;
+
+    /**
+     * Computes the values of one page of recipes.
+     */
+    @FunctionalInterface
+    public interface ValueFunction {
+
+        /**
+         * @param documents The recipes missing the field, with their id, version and source fields.
+         * @return The value to set for each document, in document order; null leaves a document without the field.
+         */
+        List<?> compute(List<SolrDocument> documents) throws IOException, SolrServerException;
+    }
+
+    /**
+     * Constructs MissingFieldBackfill.
+     *
+     * @param solrClient The Solr client instance used for reading recipes and sending updates.
+     * @param field The field to backfill.
+     * @param description What the field holds, for log messages, e.g. "popularity score".
+     * @param sourceFields The fields the values are computed from.
+     * @param batchSize Number of recipes read and updated per request.
+     * @param commitWithinMillis Maximum time until backfilled values become searchable.
+     */
+    public MissingFieldBackfill(SolrClient solrClient, String field, String description, List<String> sourceFields,
+                                int batchSize, int commitWithinMillis) {
+        this.solrClient = solrClient;
+        this.field = field;
+        this.description = description;
+        List<String> fields = new ArrayList<>(List.of("id", "_version_"));
+        fields.addAll(sourceFields);
+        this.returnedFields = fields.toArray(String[]::new);
+        this.batchSize = batchSize;
+        this.commitWithinMillis = commitWithinMillis;
+    }
+
+    /**
+     * Sets the field on all recipes missing it. Failures are logged; the next run resumes where this one stopped,
+     * since updated recipes no longer match.
+     *
+     * @param values Computes the values of each page of recipes.
+     */
+    public void run(ValueFunction values) {
+        long updated = 0;
+        long skipped = 0;
+        try {
+            SolrQuery query = new SolrQuery("*:*");
+            query.addFilterQuery("-" + field + ":[* TO *]");
+            query.setFields(returnedFields);
+            query.setRows(batchSize);
+            query.addSort("id", SolrQuery.ORDER.asc);
+            String cursor = CursorMarkParams.CURSOR_MARK_START;
+            while (true) {
+                query.set(CursorMarkParams.CURSOR_MARK_PARAM, cursor);
+                QueryResponse response = solrClient.query(query);
+                SolrDocumentList documents = response.getResults();
+                if (cursor.equals(CursorMarkParams.CURSOR_MARK_START) && documents.getNumFound() > 0) {
+                    log.info("Backfilling the {} of {} recipes", description, documents.getNumFound());
+                }
+                if (!documents.isEmpty()) {
+                    int sent = send(documents, values.compute(documents));
+                    updated += sent;
+                    skipped += documents.size() - sent;
+                }
+                String next = response.getNextCursorMark();
+                if (next == null || next.equals(cursor)) {
+                    break;
+                }
+                cursor = next;
+            }
+        } catch (IOException | SolrServerException | RuntimeException e) {
+            log.warn("Failed to backfill the {} after {} recipes, resuming with the next run", description, updated, e);
+            return;
+        }
+        if (skipped > 0) {
+            log.info("Backfilled the {} of {} recipes, {} recipes have no value", description, updated, skipped);
+        } else if (updated > 0) {
+            log.info("Backfilled the {} of {} recipes", description, updated);
+        }
+    }
+
+    private int send(List<SolrDocument> documents, List<?> values) throws IOException, SolrServerException {
+        List<SolrInputDocument> updates = new ArrayList<>(documents.size());
+        for (int i = 0; i < documents.size(); i++) {
+            if (values.get(i) == null) {
+                continue;
+            }
+            SolrInputDocument update = new SolrInputDocument();
+            update.setField("id", documents.get(i).getFirstValue("id"));
+            // Optimistic concurrency: the update only applies to the version the value was computed from
+            update.setField("_version_", documents.get(i).getFirstValue("_version_"));
+            update.setField(field, Map.of("set", values.get(i)));
+            updates.add(update);
+        }
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        UpdateRequest request = new UpdateRequest();
+        request.add(updates);
+        request.setCommitWithin(commitWithinMillis);
+        // Conflicting documents are skipped instead of failing the batch; their newer write already set the field
+        request.setParam("failOnVersionConflicts", "false");
+        request.process(solrClient);
+        return updates.size();
+    }
+}
@@ -0,0 +1,48 @@
+package ai.plato.plato.helper;
+
+/**
+ * PopularityScore computes the popularity component of search ranking from a recipe's counters.
+ * <p>
+ * The formula is the same as the boost functions search used to send with every request:
+ * {@code pow(log(sum(views,1)),0.5) + pow(log(sum(likes,1)),1.0) + pow(div(likes,sum(likes,dislikes,1)),1.5)},
+ * where Solr's {@code log} is base 10. Computing it once per counter change and storing it in the
+ * {@code popularity_score} field spares Solr from evaluating it for every matching document of every search.
+ * </p>
+ */
+public final class PopularityScore {
+
+    /**
+     * The Solr field holding the precomputed score.
+     */
+    public static final String FIELD = "popularity_score";
+
+    /**
+     * The equivalent Solr boost functions, evaluated per document at query time.
+     */
+    public static final String BOOST_FUNCTIONS =
+            "pow(log(sum(views,1)),0.5) pow(log(sum(likes,1)),1.0) pow(div(likes,sum(likes,dislikes,1)),1.5)";
+
+    private PopularityScore() {
+    }
+
+    /**
+     * Computes the popularity score. Missing or negative counters count as zero.
+     *
+     * @param views The number of views.
+     * @param likes The number of likes.
+     * @param dislikes The number of dislikes.
+     * @return The score.
+     */
+    public static double compute(Long views, Long likes, Long dislikes) {
+        double v = nonNegative(views);
+        double l = nonNegative(likes);
+        double d = nonNegative(dislikes);
+        return Math.pow(Math.log10(v + 1), 0.5)
+                + Math.log10(l + 1)
+                + Math.pow(l / (l + d + 1), 1.5);
+    }
+
+    private static double nonNegative(Long value) {
+        return value == null ? 0 : Math.max(0, value);
+    }
+}
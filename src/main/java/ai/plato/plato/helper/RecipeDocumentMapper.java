@@ -0,0 +1,286 @@
+package ai.plato.plato.helper;
+
+import ai.plato.plato.embedding.EmbeddingService;
+import ai.plato.plato.model.Recipe;
+import ai.plato.plato.model.RecipeProjection;
+import ai.plato.plato.model.RecipeSummary;
+import ai.plato.plato.model.RecipeView;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrInputDocument;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * RecipeDocumentMapper converts Solr documents into Recipe objects without reflection.
+ * <p>
+ * SolrJ's {@code QueryResponse.getBeans} goes through DocumentObjectBinder, which looks up and invokes the
+ * {@code @Field} annotated members of Recipe reflectively for every document. This mapper reads each field
+ * by name and calls the setters directly, which is considerably cheaper on pages of 100 recipes.
+ * </p>
+ *
+ * <p>
+ * Low-cardinality values that repeat across recipes (cuisines, difficulties) are interned through the shared
+ * {@link TermDictionary}, so cached pages hold one instance of each value rather than one per recipe. Free-text
+ * values such as ingredient lines and uploader names are not, since they would fill the dictionary.
+ * </p>
+ *
+ * <p>
+ * The reverse direction, Recipe to SolrInputDocument, is used when indexing.
+ * </p>
+ *
+ * <p>
+ * The field names must be kept in sync with the {@code @Field} annotations on {@link Recipe}.
+ * </p>
+ */
+public final class RecipeDocumentMapper {
+
+    private RecipeDocumentMapper() {
+    }
+
+    /**
+     * Maps a list of Solr documents to recipes, preserving their order.
+     *
+     * @param documents The documents returned by Solr.
+     * @return The mapped recipes.
+     */
+    public static List<Recipe> toRecipes(Collection<SolrDocument> documents) {
+        if (documents == null || documents.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Recipe> recipes = new ArrayList<>(documents.size());
+        for (SolrDocument document : documents) {
+            recipes.add(toRecipe(document));
+        }
+        return recipes;
+    }
+
+    /**
+     * Maps a single Solr document to a recipe. Fields missing from the document are left null.
+     *
+     * @param document The document returned by Solr.
+     * @return The mapped recipe.
+     */
+    public static Recipe toRecipe(SolrDocument document) {
+        Recipe recipe = new Recipe();
+        recipe.setId(toStr(document.getFieldValue("id")));
+        recipe.setTitle(toStringList(document.getFieldValue("title")));
+        recipe.setIngredients(toStringList(document.getFieldValue("ingredients")));
+        recipe.setInstructions(toStringList(document.getFieldValue("instructions")));
+        recipe.setPictureLink(toStr(document.getFieldValue("picture_link")));
+        recipe.setCookingTime(toInteger(document.getFieldValue("cooking_time")));
+        recipe.setCuisines(toInternedList(document.getFieldValue("cuisines")));
+        recipe.setDifficulty(toInterned(document.getFieldValue("difficulty")));
+        recipe.setDifficultyEasy(toLong(document.getFieldValue("difficulty_easy")));
+        recipe.setDifficultyMedium(toLong(document.getFieldValue("difficulty_medium")));
+        recipe.setDifficultyHard(toLong(document.getFieldValue("difficulty_hard")));
+        recipe.setDifficultyUserRated(toInterned(document.getFieldValue("difficulty_user_rated")));
+        recipe.setDislikes(toLong(document.getFieldValue("dislikes")));
+        recipe.setLikes(toLong(document.getFieldValue("likes")));
+        recipe.setPreparationTime(toInteger(document.getFieldValue("preparation_time")));
+        recipe.setUploadedBy(toStr(document.getFieldValue("uploaded_by")));
+        recipe.setViews(toLong(document.getFieldValue("views")));
+        recipe.setPopularityScore(toDouble(document.getFieldValue("popularity_score")));
+        recipe.updateUploadTimestamp(toInstant(document.getFieldValue("upload_timestamp")));
+        recipe.setLastModified(toInstant(document.getFieldValue("last_modified")));
+        return recipe;
+    }
+
+    /**
+     * Maps a list of Solr documents to the representation selected by a projection, preserving their order.
+     *
+     * @param documents The documents returned by Solr.
+     * @param projection The requested projection.
+     * @return The mapped recipes or recipe summaries.
+     */
+    public static List<? extends RecipeView> toViews(Collection<SolrDocument> documents, RecipeProjection projection) {
+        return projection == RecipeProjection.SUMMARY ? toSummaries(documents) : toRecipes(documents);
+    }
+
+    /**
+     * Maps a list of Solr documents to recipe summaries, preserving their order.
+     *
+     * @param documents The documents returned by Solr.
+     * @return The mapped recipe summaries.
+     */
+    public static List<RecipeSummary> toSummaries(Collection<SolrDocument> documents) {
+        if (documents == null || documents.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<RecipeSummary> summaries = new ArrayList<>(documents.size());
+        for (SolrDocument document : documents) {
+            summaries.add(toSummary(document));
+        }
+        return summaries;
+    }
+
+    /**
+     * Maps a single Solr document to a recipe summary. Fields missing from the document are left null.
+     *
+     * @param document The document returned by Solr.
+     * @return The mapped recipe summary.
+     */
+    public static RecipeSummary toSummary(SolrDocument document) {
+        RecipeSummary summary = new RecipeSummary();
+        summary.setId(toStr(document.getFieldValue("id")));
+        summary.setTitle(toStringList(document.getFieldValue("title")));
+        summary.setPictureLink(toStr(document.getFieldValue("picture_link")));
+        summary.setCookingTime(toInteger(document.getFieldValue("cooking_time")));
+        summary.setPreparationTime(toInteger(document.getFieldValue("preparation_time")));
+        summary.setDifficulty(toInterned(document.getFieldValue("difficulty")));
+        summary.setLikes(toLong(document.getFieldValue("likes")));
+        summary.setDislikes(toLong(document.getFieldValue("dislikes")));
+        summary.setViews(toLong(document.getFieldValue("views")));
+        summary.setLastModified(toInstant(document.getFieldValue("last_modified")));
+        return summary;
+    }
+
+    /**
+     * Maps a recipe to a Solr input document for indexing. Null fields are left out of the document.
+     *
+     * @param recipe The recipe to index.
+     * @return The Solr input document.
+     */
+    public static SolrInputDocument toSolrInputDocument(Recipe recipe) {
+        SolrInputDocument document = new SolrInputDocument();
+        addField(document, "id", recipe.getId());
+        addField(document, "title", recipe.getTitle());
+        addField(document, "ingredients", recipe.getIngredients());
+        addField(document, "instructions", recipe.getInstructions());
+        addField(document, "picture_link", recipe.getPictureLink());
+        addField(document, "cooking_time", recipe.getCookingTime());
+        addField(document, "cuisines", recipe.getCuisines());
+        addField(document, "difficulty", recipe.getDifficulty());
+        addField(document, "difficulty_easy", recipe.getDifficultyEasy());
+        addField(document, "difficulty_medium", recipe.getDifficultyMedium());
+        addField(document, "difficulty_hard", recipe.getDifficultyHard());
+        addField(document, "difficulty_user_rated", recipe.getDifficultyUserRated());
+        addField(document, "dislikes", recipe.getDislikes());
+        addField(document, "likes", recipe.getLikes());
+        addField(document, "preparation_time", recipe.getPreparationTime());
+        addField(document, "uploaded_by", recipe.getUploadedBy());
+        addField(document, "views", recipe.getViews());
+        addField(document, "popularity_score", recipe.getPopularityScore());
+        addField(document, "upload_timestamp", toDate(recipe.getUploadTimestamp()));
+        addField(document, "last_modified", toDate(recipe.getLastModified()));
+        return document;
+    }
+
+    /**
+     * Maps a recipe and its embedding vector to a Solr input document for indexing.
+     *
+     * @param recipe The recipe to index.
+     * @param embedding The embedding vector of the recipe, or null to index it without one.
+     * @return The Solr input document.
+     */
+    public static SolrInputDocument toSolrInputDocument(Recipe recipe, float[] embedding) {
+        SolrInputDocument document = toSolrInputDocument(recipe);
+        if (embedding != null) {
+            document.setField(EmbeddingService.FIELD, toVectorValue(embedding));
+        }
+        return document;
+    }
+
+    /**
+     * Converts an embedding vector to the value SolrJ sends for a dense vector field.
+     *
+     * @param embedding The embedding vector.
+     * @return The vector components.
+     */
+    public static List<Float> toVectorValue(float[] embedding) {
+        List<Float> components = new ArrayList<>(embedding.length);
+        for (float component : embedding) {
+            components.add(component);
+        }
+        return components;
+    }
+
+    private static void addField(SolrInputDocument document, String name, Object value) {
+        if (value != null) {
+            document.setField(name, value);
+        }
+    }
+
+    private static Date toDate(Instant instant) {
+        return instant == null ? null : Date.from(instant);
+    }
+
+    private static Object first(Object value) {
+        if (value instanceof Collection<?> values) {
+            return values.isEmpty() ? null : values.iterator().next();
+        }
+        return value;
+    }
+
+    private static String toStr(Object value) {
+        Object single = first(value);
+        return single == null ? null : single.toString();
+    }
+
+    private static List<String> toStringList(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Collection<?> values) {
+            List<String> strings = new ArrayList<>(values.size());
+            for (Object element : values) {
+                strings.add(element == null ? null : element.toString());
+            }
+            return strings;
+        }
+        List<String> strings = new ArrayList<>(1);
+        strings.add(value.toString());
+        return strings;
+    }
+
+    private static String toInterned(Object value) {
+        return TermDictionary.SHARED.intern(toStr(value));
+    }
+
+    private static List<String> toInternedList(Object value) {
+        List<String> strings = toStringList(value);
+        if (strings != null) {
+            strings.replaceAll(TermDictionary.SHARED::intern);
+        }
+        return strings;
+    }
+
+    private static Integer toInteger(Object value) {
+        Object single = first(value);
+        if (single instanceof Number number) {
+            return number.intValue();
+        }
+        return single == null ? null : Integer.valueOf(single.toString());
+    }
+
+    private static Long toLong(Object value) {
+        Object single = first(value);
+        if (single instanceof Number number) {
+            return number.longValue();
+        }
+        return single == null ? null : Long.valueOf(single.toString());
+    }
+
+    private static Double toDouble(Object value) {
+        Object single = first(value);
+        if (single instanceof Number number) {
+            return number.doubleValue();
+        }
+        return single == null ? null : Double.valueOf(single.toString());
+    }
+
+    private static Instant toInstant(Object value) {
+        Object single = first(value);
+        if (single instanceof Date date) {
+            return date.toInstant();
+        }
+        if (single instanceof Instant instant) {
+            return instant;
+        }
+        return single == null ? null : Instant.parse(single.toString());
+    }
+}
@@ -0,0 +1,92 @@
+package ai.plato.plato.helper;
+
+import ai.plato.plato.model.FacetBucket;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.client.solrj.response.json.BucketBasedJsonFacet;
+import org.apache.solr.client.solrj.response.json.BucketJsonFacet;
+import org.apache.solr.client.solrj.response.json.NestableJsonFacet;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RecipeFacets defines the facets offered as search filters and reads them back from Solr responses.
+ * <p>
+ * Facets are requested through the JSON Facet API. Filters that have a facet of their own are tagged with the
+ * facet name and excluded from that facet's domain, so each facet counts the options a user could switch to,
+ * not only the option already selected.
+ * </p>
+ */
+public final class RecipeFacets {
+
+    public static final String CUISINES = "cuisines";
+    public static final String DIFFICULTY = "difficulty";
+    public static final String COOKING_TIME = "cooking_time";
+    public static final String PREPARATION_TIME = "preparation_time";
+    public static final String UPLOADED_BY = "uploaded_by";
+
+    /**
+     * The number of most active uploaders counted by the uploaded_by facet.
+     */
+    public static final int UPLOADER_LIMIT = 10;
+
+    private static final String TIME_RANGES =
+            "[{range:\"[0,15)\"},{range:\"[15,30)\"},{range:\"[30,60)\"},{range:\"[60,120)\"},{range:\"[120,*]\"}]";
+
+    private RecipeFacets() {
+    }
+
+    /**
+     * Adds all recipe facets to a query.
+     *
+     * @param builder The query builder.
+     * @return The updated builder.
+     */
+    public static RecipeSolrQueryBuilder apply(RecipeSolrQueryBuilder builder) {
+        return builder
+                .addJsonFacet(CUISINES, terms(CUISINES, 50))
+                .addJsonFacet(DIFFICULTY, terms(DIFFICULTY, 10))
+                .addJsonFacet(UPLOADED_BY, terms(UPLOADED_BY, UPLOADER_LIMIT))
+                .addJsonFacet(COOKING_TIME, ranges(COOKING_TIME))
+                .addJsonFacet(PREPARATION_TIME, ranges(PREPARATION_TIME));
+    }
+
+    /**
+     * Reads the recipe facets from a response.
+     *
+     * @param response The Solr response of a query built with {@link #apply}.
+     * @return The buckets of each facet by facet name, in the order of the definitions; empty if there are none.
+     */
+    public static Map<String, List<FacetBucket>> parse(QueryResponse response) {
+        Map<String, List<FacetBucket>> facets = new LinkedHashMap<>();
+        NestableJsonFacet root = response.getJsonFacetingResponse();
+        if (root == null) {
+            return facets;
+        }
+        for (String name : List.of(CUISINES, DIFFICULTY, UPLOADED_BY, COOKING_TIME, PREPARATION_TIME)) {
+            BucketBasedJsonFacet facet = root.getBucketBasedFacets(name);
+            if (facet == null) {
+                continue;
+            }
+            List<FacetBucket> buckets = new ArrayList<>(facet.getBuckets().size());
+            for (BucketJsonFacet bucket : facet.getBuckets()) {
+                // Uploader names and numeric ranges are not interned, they would only fill the dictionary
+                String value = String.valueOf(bucket.getVal());
+                boolean intern = CUISINES.equals(name) || DIFFICULTY.equals(name);
+                buckets.add(new FacetBucket(intern ? TermDictionary.SHARED.intern(value) : value, bucket.getCount()));
+            }
+            facets.put(name, buckets);
+        }
+        return facets;
+    }
+
+    private static String terms(String field, int limit) {
+        return "{type:terms,field:" + field + ",limit:" + limit + ",mincount:1,domain:{excludeTags:" + field + "}}";
+    }
+
+    private static String ranges(String field) {
+        return "{type:range,field:" + field + ",ranges:" + TIME_RANGES + ",domain:{excludeTags:" + field + "}}";
+    }
+}
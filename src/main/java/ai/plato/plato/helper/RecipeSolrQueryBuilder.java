@@ -1,9 +1,13 @@
 package ai.plato.plato.helper;
 
 import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.util.ClientUtils;
+import org.apache.solr.common.params.CursorMarkParams;
 
-import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 /**
  * RecipeSolrQueryBuilder is responsible for constructing Solr queries for recipe search.
@@ -11,11 +15,28 @@ import java.util.Set;
  * <p>
  * The builder pattern is used to create and refine the SolrQuery object step by step.
  * </p>
+ *
+ * <p>
+ * Every filter is sent as its own {@code fq} parameter, in sorted order. Solr caches each fq independently in its
+ * filterCache, so a filter shared by many requests is computed once, no matter which other filters it is combined
+ * with or in which order they were added.
+ * </p>
  */
 public class RecipeSolrQueryBuilder {
 
+    /**
+     * Cursor value that starts a new cursor-based traversal of the result set.
+     */
+    public static final String CURSOR_START = CursorMarkParams.CURSOR_MARK_START;
+
+    /**
+     * Unique key field used as the tiebreaker sort required by cursor-based paging.
+     */
+    public static final String UNIQUE_KEY_FIELD = "id";
+
     private final SolrQuery solrQuery;
-    private final Set<String> additionalFilters = new HashSet<>();
+    private final Set<String> additionalFilters = new TreeSet<>();
+    private final Map<String, String> jsonFacets = new TreeMap<>();
 
     /**
      * Initializes the query builder with a base query string.
@@ -73,6 +94,77 @@ public class RecipeSolrQueryBuilder {
         return this;
     }
 
+    /**
+     * Adds a filter clause with local parameters controlling how Solr executes and caches it.
+     *
+     * @param filterClause The Solr filter clause.
+     * @param hints The tag, caching and cost hints for the filter.
+     * @return The updated RecipeSolrQueryBuilder instance.
+     */
+    public RecipeSolrQueryBuilder addFilter(String filterClause, FilterHints hints) {
+        if (filterClause != null && !filterClause.trim().isEmpty()) {
+            additionalFilters.add(hints.apply(filterClause));
+        }
+        return this;
+    }
+
+    /**
+     * Adds a filter matching a single value of a field. The value is escaped, so it can contain any characters.
+     * Example: uploaded_by:chef\ anna
+     *
+     * @param field The field name.
+     * @param value The value to match, ignored if null.
+     * @return The updated RecipeSolrQueryBuilder instance.
+     */
+    public RecipeSolrQueryBuilder addTermFilter(String field, String value) {
+        return addTermFilter(field, value, FilterHints.NONE);
+    }
+
+    /**
+     * Adds a filter matching a single value of a field, with local parameters such as a tag for facet exclusion.
+     *
+     * @param field The field name.
+     * @param value The value to match, ignored if null.
+     * @param hints The tag, caching and cost hints for the filter.
+     * @return The updated RecipeSolrQueryBuilder instance.
+     */
+    public RecipeSolrQueryBuilder addTermFilter(String field, String value, FilterHints hints) {
+        if (value != null) {
+            addFilter(field + ":" + ClientUtils.escapeQueryChars(value), hints);
+        }
+        return this;
+    }
+
+    /**
+     * Adds an inclusive range filter on a numeric field. A null bound leaves that side of the range open.
+     * Example: cooking_time:[10 TO 30]
+     *
+     * @param field The field name.
+     * @param min The lower bound, or null.
+     * @param max The upper bound, or null.
+     * @param hints The tag, caching and cost hints for the filter.
+     * @return The updated RecipeSolrQueryBuilder instance.
+     */
+    public RecipeSolrQueryBuilder addRangeFilter(String field, Integer min, Integer max, FilterHints hints) {
+        if (min != null || max != null) {
+            addFilter(field + ":[" + (min == null ? "*" : min) + " TO " + (max == null ? "*" : max) + "]", hints);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a facet to the JSON Facet API request ({@code json.facet}) sent with the query.
+     * Example: addJsonFacet("cuisines", "{type:terms,field:cuisines,limit:20}")
+     *
+     * @param name The name of the facet in the request and the response.
+     * @param definition The facet definition in JSON (Solr's relaxed syntax is allowed).
+     * @return The updated RecipeSolrQueryBuilder instance.
+     */
+    public RecipeSolrQueryBuilder addJsonFacet(String name, String definition) {
+        jsonFacets.put(name, definition);
+        return this;
+    }
+
     /**
      * Sets a boost function to influence search ranking.
      *
@@ -84,6 +176,61 @@ public class RecipeSolrQueryBuilder {
         return this;
     }
 
+    /**
+     * Adds a boost query: documents matching it get its score added to their relevance score.
+     * Example: addBoostQuery("cuisines:(italian OR greek)^2")
+     *
+     * @param bq The boost query.
+     * @return The updated RecipeSolrQueryBuilder instance.
+     */
+    public RecipeSolrQueryBuilder addBoostQuery(String bq) {
+        solrQuery.add("bq", bq);
+        return this;
+    }
+
+    /**
+     * Reranks the top documents of the main query with a second query (Solr's {@code rq} parameter).
+     * The rerank query's score, multiplied by the weight, is added to the original score of those documents only.
+     * Example: setRerank("{!func}popularity_score", 200, 1.0)
+     *
+     * @param reRankQuery The query scoring the top documents.
+     * @param reRankDocs The number of top documents to rerank.
+     * @param reRankWeight The weight of the rerank query's score.
+     * @return The updated RecipeSolrQueryBuilder instance.
+     */
+    public RecipeSolrQueryBuilder setRerank(String reRankQuery, int reRankDocs, double reRankWeight) {
+        solrQuery.set("rq", "{!rerank reRankQuery=$rqq reRankDocs=" + reRankDocs + " reRankWeight=" + reRankWeight + "}");
+        solrQuery.set("rqq", reRankQuery);
+        return this;
+    }
+
+    /**
+     * Replaces the main query with a k-nearest-neighbour query on a dense vector field ({@code {!knn}}).
+     * The original query text moves to the {@code userq} parameter, so a rerank query can still refer to it as
+     * {@code $userq}. Filters added to the builder restrict the candidates before the neighbours are chosen.
+     * Example: setKnnQuery("recipe_vector", vector, 100) produces q={!knn f=recipe_vector topK=100}[0.12,...]
+     *
+     * @param field The dense vector field.
+     * @param vector The query vector.
+     * @param topK The number of nearest neighbours to retrieve.
+     * @return The updated RecipeSolrQueryBuilder instance.
+     */
+    public RecipeSolrQueryBuilder setKnnQuery(String field, float[] vector, int topK) {
+        StringBuilder knn = new StringBuilder(vector.length * 12 + 48)
+                .append("{!knn f=").append(field).append(" topK=").append(topK).append("}[");
+        for (int i = 0; i < vector.length; i++) {
+            if (i > 0) {
+                knn.append(',');
+            }
+            knn.append(vector[i]);
+        }
+        solrQuery.set("userq", solrQuery.getQuery());
+        solrQuery.setQuery(knn.append(']').toString());
+        // Solr only honours a query parser switch in q when defType is the default lucene parser
+        solrQuery.remove("defType");
+        return this;
+    }
+
     /**
      * Sets the pagination parameters for the query.
      *
@@ -98,17 +245,138 @@ public class RecipeSolrQueryBuilder {
     }
 
     /**
-     * Combines additional filters with the main query and builds the final SolrQuery object.
+     * Restricts the stored fields returned for each document (the {@code fl} parameter).
+     *
+     * @param fields Comma-separated field list, or null to return all stored fields.
+     * @return The updated RecipeSolrQueryBuilder instance.
+     */
+    public RecipeSolrQueryBuilder setFields(String fields) {
+        if (fields != null) {
+            solrQuery.setFields(fields);
+        }
+        return this;
+    }
+
+    /**
+     * Switches the query to cursor-based paging.
+     * Unlike start/rows paging, Solr does not need to collect and sort all preceding documents,
+     * so the cost of a page stays constant no matter how deep the client has scrolled.
+     *
+     * @param cursorMark The cursor returned with the previous page, or {@link #CURSOR_START} for the first page.
+     * @param rows The number of results per page.
+     * @return The updated RecipeSolrQueryBuilder instance.
+     */
+    public RecipeSolrQueryBuilder setCursor(String cursorMark, int rows) {
+        solrQuery.setStart(0);
+        solrQuery.setRows(rows);
+        solrQuery.set(CursorMarkParams.CURSOR_MARK_PARAM, cursorMark);
+        return this;
+    }
+
+    /**
+     * Adds the sort required by cursor-based paging to a query: relevance first (if requested)
+     * followed by the unique key, so the ordering is total and stable between pages.
+     *
+     * @param query The SolrQuery to update.
+     * @param byScore Whether results should be ordered by relevance score before the tiebreaker.
+     */
+    public static void applyCursorSort(SolrQuery query, boolean byScore) {
+        query.clearSorts();
+        if (byScore) {
+            query.addSort("score", SolrQuery.ORDER.desc);
+        }
+        query.addSort(UNIQUE_KEY_FIELD, SolrQuery.ORDER.asc);
+    }
+
+    /**
+     * Adds the filters and facets to the main query and builds the final SolrQuery object.
      *
      * @return The constructed SolrQuery object ready for execution.
      */
     public SolrQuery build() {
         if (!additionalFilters.isEmpty()) {
-            // Join filters with AND and add to the main query
-            String filtersCombined = String.join(" AND ", additionalFilters);
-            // Append filters to the main query
-            solrQuery.setFilterQueries(filtersCombined);
+            // One fq per filter, in sorted order, so each one is cached and reused separately
+            solrQuery.setFilterQueries(additionalFilters.toArray(new String[0]));
+        }
+        if (!jsonFacets.isEmpty()) {
+            // Facets are sorted by name, so equal requests produce equal parameters (and cache keys)
+            StringBuilder facets = new StringBuilder("{");
+            jsonFacets.forEach((name, definition) -> {
+                if (facets.length() > 1) {
+                    facets.append(',');
+                }
+                facets.append(name).append(':').append(definition);
+            });
+            solrQuery.set("json.facet", facets.append('}').toString());
+        }
+        if (solrQuery.get(CursorMarkParams.CURSOR_MARK_PARAM) != null) {
+            applyCursorSort(solrQuery, true);
         }
         return solrQuery;
     }
+
+    /**
+     * FilterHints holds the local parameters of a filter query: a tag (for facet exclusion), whether the filter
+     * is stored in Solr's filterCache, and its cost (which orders uncached filters, cheapest first).
+     *
+     * @param tag The tag of the filter, or null.
+     * @param cache Whether Solr should cache the filter.
+     * @param cost The cost of the filter, or null for the default.
+     */
+    public record FilterHints(String tag, boolean cache, Integer cost) {
+
+        /**
+         * Hints for a regular, cached filter.
+         */
+        public static final FilterHints NONE = new FilterHints(null, true, null);
+
+        /**
+         * Creates hints for a cached filter that can be excluded from facets by tag.
+         *
+         * @param tag The tag of the filter.
+         * @return The filter hints.
+         */
+        public static FilterHints tagged(String tag) {
+            return new FilterHints(tag, true, null);
+        }
+
+        /**
+         * Creates hints for a filter that should not pollute the filterCache, e.g. an arbitrary range chosen
+         * by the user. Uncached filters are evaluated in increasing order of cost.
+         *
+         * @param cost The cost of the filter.
+         * @return The filter hints.
+         */
+        public static FilterHints uncached(int cost) {
+            return new FilterHints(null, false, cost);
+        }
+
+        /**
+         * Returns a copy of these hints with the given tag.
+         *
+         * @param tag The tag of the filter.
+         * @return The filter hints.
+         */
+        public FilterHints withTag(String tag) {
+            return new FilterHints(tag, cache, cost);
+        }
+
+        String apply(String filterClause) {
+            if (tag == null && cache && cost == null) {
+                return filterClause;
+            }
+            StringBuilder localParams = new StringBuilder("{!");
+            if (tag != null) {
+                localParams.append("tag=").append(tag).append(' ');
+            }
+            if (!cache) {
+                localParams.append("cache=false ");
+            }
+            if (cost != null) {
+                localParams.append("cost=").append(cost).append(' ');
+            }
+            localParams.setLength(localParams.length() - 1);
+            return localParams.append('}').append(filterClause).toString();
+        }
+    }
 }
@@ -0,0 +1,126 @@
+package ai.plato.plato.helper;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TermDictionary maps frequently repeated strings (canonical ingredient names, cuisines, difficulties) to dense int
+ * ids and a single canonical String instance.
+ * <p>
+ * The same few thousand values occur in millions of recipes. Mapping every Solr document creates fresh copies of
+ * them, which then sit in cached pages and in-flight responses. Interning through the dictionary lets all recipes
+ * share one instance per value, and the int ids let in-memory indexes refer to terms without holding strings.
+ * </p>
+ *
+ * <p>
+ * The dictionary only grows, so it is bounded: once full, new values are neither assigned an id nor interned.
+ * Only normalized, low-cardinality values may be interned through {@link #SHARED}; free text such as raw
+ * ingredient lines or uploader names would fill it. In-memory indexes use a dictionary of their own, built
+ * with the index, so their term space is bounded by the catalog rather than by traffic.
+ * Lookups are lock-free; only the assignment of new ids is synchronized.
+ * </p>
+ */
+public final class TermDictionary {
+
+    /**
+     * The dictionary interning cuisines and difficulties for the mapper, facets and ingestion.
+     */
+    public static final TermDictionary SHARED = new TermDictionary(1 << 16);
+
+    /**
+     * The id returned for terms that are not in the dictionary.
+     */
+    public static final int UNKNOWN = -1;
+
+    private final int maxSize;
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] terms = new String[1024];
+    private volatile int size;
+
+    /**
+     * Constructs TermDictionary.
+     *
+     * @param maxSize The maximum number of terms kept in the dictionary.
+     */
+    public TermDictionary(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the id of a term, assigning a new id if the term has not been seen before.
+     *
+     * @param term The term.
+     * @return The id of the term, or {@link #UNKNOWN} if the term is null or the dictionary is full.
+     */
+    public int id(String term) {
+        if (term == null) {
+            return UNKNOWN;
+        }
+        Integer id = ids.get(term);
+        return id != null ? id : assign(term);
+    }
+
+    /**
+     * Returns the id of a term without assigning one, e.g. for terms coming from user input.
+     *
+     * @param term The term.
+     * @return The id of the term, or {@link #UNKNOWN} if the term is not in the dictionary.
+     */
+    public int lookup(String term) {
+        if (term == null) {
+            return UNKNOWN;
+        }
+        Integer id = ids.get(term);
+        return id != null ? id : UNKNOWN;
+    }
+
+    /**
+     * Returns the term with a given id.
+     *
+     * @param id The id of the term.
+     * @return The term, or null if no term has this id.
+     */
+    public String term(int id) {
+        String[] current = terms;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    /**
+     * Returns the canonical instance of a term, adding the term to the dictionary if there is room.
+     *
+     * @param term The term.
+     * @return The canonical instance, or the term itself if it cannot be added.
+     */
+    public String intern(String term) {
+        int id = id(term);
+        return id == UNKNOWN ? term : terms[id];
+    }
+
+    /**
+     * @return The number of terms in the dictionary. Ids range from 0 to size - 1.
+     */
+    public int size() {
+        return size;
+    }
+
+    private synchronized int assign(String term) {
+        Integer existing = ids.get(term);
+        if (existing != null) {
+            return existing;
+        }
+        if (size >= maxSize) {
+            return UNKNOWN;
+        }
+        int id = size;
+        String[] current = terms;
+        if (id == current.length) {
+            current = Arrays.copyOf(current, Math.min(maxSize, current.length * 2));
+        }
+        current[id] = term;
+        // Publish the array and size before the id becomes visible through the map
+        terms = current;
+        size = id + 1;
+        ids.put(term, id);
+        return id;
+    }
+}
@@ -0,0 +1,172 @@
+package ai.plato.plato.ingest;
+
+import ai.plato.plato.exception.IngestionException;
+import ai.plato.plato.model.Recipe;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * CsvRecipeReader streams recipes from a CSV dump, one record at a time.
+ * <p>
+ * The first line is a header naming the Solr fields of each column (id, title, ingredients, cooking_time, ...).
+ * Values follow RFC 4180 quoting, so quoted values may contain commas, quotes ("") and line breaks.
+ * Multi-valued fields (title, ingredients, instructions, cuisines) separate their values with '|'.
+ * Unknown columns are ignored. A row with an unparseable value is reported as a {@link MalformedRecordException}
+ * naming its line, and reading continues with the next row.
+ * </p>
+ */
+class CsvRecipeReader implements Iterator<Recipe>, Closeable {
+
+    private static final String MULTI_VALUE_SEPARATOR = "\\|";
+
+    private final BufferedReader reader;
+    private final String[] header;
+    private long lineNumber;
+    private List<String> next;
+    private long nextLine;
+    private boolean exhausted;
+
+    CsvRecipeReader(BufferedReader reader) {
+        this.reader = reader;
+        List<String> headerRow = readRow();
+        if (headerRow == null) {
+            throw new IngestionException("CSV input is empty");
+        }
+        this.header = headerRow.stream().map(String::trim).toArray(String[]::new);
+    }
+
+    @Override
+    public boolean hasNext() {
+        // Rows are read lazily, so an unreadable row fails here without losing the record before it
+        if (next == null && !exhausted) {
+            next = readRow();
+            exhausted = next == null;
+        }
+        return next != null;
+    }
+
+    @Override
+    public Recipe next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<String> row = next;
+        next = null;
+        return toRecipe(row, nextLine);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Recipe toRecipe(List<String> row, long rowLine) {
+        Recipe recipe = new Recipe();
+        for (int i = 0; i < header.length && i < row.size(); i++) {
+            String value = row.get(i);
+            if (value.isEmpty()) {
+                continue;
+            }
+            try {
+                switch (header[i]) {
+                    case "id" -> recipe.setId(value);
+                    case "title" -> recipe.setTitle(split(value));
+                    case "ingredients" -> recipe.setIngredients(split(value));
+                    case "instructions" -> recipe.setInstructions(split(value));
+                    case "picture_link" -> recipe.setPictureLink(value);
+                    case "cooking_time" -> recipe.setCookingTime(Integer.valueOf(value.trim()));
+                    case "cuisines" -> recipe.setCuisines(split(value));
+                    case "difficulty" -> recipe.setDifficulty(value);
+                    case "difficulty_easy" -> recipe.setDifficultyEasy(Long.valueOf(value.trim()));
+                    case "difficulty_medium" -> recipe.setDifficultyMedium(Long.valueOf(value.trim()));
+                    case "difficulty_hard" -> recipe.setDifficultyHard(Long.valueOf(value.trim()));
+                    case "difficulty_user_rated" -> recipe.setDifficultyUserRated(value);
+                    case "dislikes" -> recipe.setDislikes(Long.valueOf(value.trim()));
+                    case "likes" -> recipe.setLikes(Long.valueOf(value.trim()));
+                    case "preparation_time" -> recipe.setPreparationTime(Integer.valueOf(value.trim()));
+                    case "uploaded_by" -> recipe.setUploadedBy(value);
+                    case "views" -> recipe.setViews(Long.valueOf(value.trim()));
+                    case "upload_timestamp" -> recipe.updateUploadTimestamp(Instant.parse(value.trim()));
+                    default -> {
+                        // Columns that are not part of the recipe model are ignored
+                    }
+                }
+            } catch (RuntimeException e) {
+                throw new MalformedRecordException("Invalid value for " + header[i] + " on line " + rowLine, e);
+            }
+        }
+        return recipe;
+    }
+
+    private static List<String> split(String value) {
+        return new ArrayList<>(Arrays.asList(value.split(MULTI_VALUE_SEPARATOR)));
+    }
+
+    /**
+     * Reads the next CSV row, following quoted values across line breaks.
+     *
+     * @return The values of the row, or null at the end of the input.
+     */
+    private List<String> readRow() {
+        try {
+            String line = reader.readLine();
+            while (line != null && line.isEmpty()) {
+                lineNumber++;
+                line = reader.readLine();
+            }
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+            nextLine = lineNumber;
+
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                for (int i = 0; i < line.length(); i++) {
+                    char c = line.charAt(i);
+                    if (quoted) {
+                        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                            value.append('"');
+                            i++;
+                        } else if (c == '"') {
+                            quoted = false;
+                        } else {
+                            value.append(c);
+                        }
+                    } else if (c == '"') {
+                        quoted = true;
+                    } else if (c == ',') {
+                        values.add(value.toString());
+                        value.setLength(0);
+                    } else {
+                        value.append(c);
+                    }
+                }
+                if (!quoted) {
+                    break;
+                }
+                line = reader.readLine();
+                if (line == null) {
+                    throw new IngestionException("Unterminated quoted value starting before line " + lineNumber);
+                }
+                lineNumber++;
+                value.append('\n');
+            }
+            values.add(value.toString());
+            return values;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package ai.plato.plato.ingest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * IngestionJob tracks the records of one ingestion request while they move through the shared writer queue.
+ */
+class IngestionJob {
+
+    private static final int MAX_ERRORS = 20;
+
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong indexed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<String> errors = new ArrayList<>();
+
+    // Lock rather than synchronized, so waiting virtual threads do not pin their carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition drained = lock.newCondition();
+    private long pending;
+
+    void submitted() {
+        submitted.incrementAndGet();
+    }
+
+    void rejected(String recipeId, List<String> violations) {
+        rejected.incrementAndGet();
+        addError("Recipe " + recipeId + " rejected: " + String.join(", ", violations));
+    }
+
+    void rejected(String error) {
+        rejected.incrementAndGet();
+        addError(error);
+    }
+
+    void enqueued() {
+        lock.lock();
+        try {
+            pending++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void indexed(int count) {
+        indexed.addAndGet(count);
+        completed(count);
+    }
+
+    void failed(int count, String message) {
+        failed.addAndGet(count);
+        addError(message);
+        completed(count);
+    }
+
+    /**
+     * Waits until every enqueued record of the job has been written or has failed.
+     *
+     * @param timeoutMillis Maximum time to wait.
+     * @return True if the job drained, false if the timeout elapsed first.
+     */
+    boolean awaitCompletion(long timeoutMillis) throws InterruptedException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        lock.lock();
+        try {
+            while (pending > 0) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = drained.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    IngestionReport report(boolean timedOut) {
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        double recordsPerSecond = elapsedMillis == 0 ? 0.0 : indexed.get() * 1000.0 / elapsedMillis;
+        List<String> errorsCopy;
+        synchronized (errors) {
+            errorsCopy = List.copyOf(errors);
+        }
+        return new IngestionReport(submitted.get(), rejected.get(), indexed.get(), failed.get(),
+                elapsedMillis, recordsPerSecond, errorsCopy, timedOut);
+    }
+
+    private void completed(int count) {
+        lock.lock();
+        try {
+            pending -= count;
+            if (pending <= 0) {
+                drained.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void addError(String message) {
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(message);
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ai.plato.plato.ingest;
+
+import java.util.List;
+
+/**
+ * IngestionReport summarizes the outcome of an ingestion request.
+ *
+ * @param submitted Number of records read from the input.
+ * @param rejected Number of records that could not be read or failed validation, and were not indexed.
+ * @param indexed Number of records sent to Solr successfully.
+ * @param failed Number of valid records whose batch could not be written to Solr.
+ * @param elapsedMillis Time taken to read and index the input.
+ * @param recordsPerSecond Indexing throughput of the request.
+ * @param errors The first errors encountered, for troubleshooting.
+ * @param timedOut Whether the job timeout elapsed before all queued records were written; the counts are then
+ *                 incomplete, and the remaining records are still being indexed.
+ */
+public record IngestionReport(long submitted, long rejected, long indexed, long failed,
+                              long elapsedMillis, double recordsPerSecond, List<String> errors, boolean timedOut) {
+}
@@ -0,0 +1,14 @@
+package ai.plato.plato.ingest;
+
+import ai.plato.plato.exception.IngestionException;
+
+/**
+ * MalformedRecordException signals that one record of the input could not be read. Unlike other ingestion errors,
+ * it leaves the input readable, so ingestion rejects the record and continues with the next one.
+ */
+class MalformedRecordException extends IngestionException {
+
+    MalformedRecordException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,127 @@
+package ai.plato.plato.ingest;
+
+import ai.plato.plato.exception.IngestionException;
+import ai.plato.plato.model.Recipe;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * RecipeFileLoader streams recipe dumps into the ingestion pipeline.
+ * <p>
+ * JSON input (.jsonl, .ndjson or .json) contains Recipe objects in the same shape the API returns them, either
+ * one per line or as a single array. CSV input (.csv) is read by {@link CsvRecipeReader}. Files are read
+ * incrementally, so memory use does not depend on the size of the dump. Only files inside the configured import
+ * directory can be loaded.
+ * </p>
+ */
+@Component
+public class RecipeFileLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(RecipeFileLoader.class);
+
+    private final RecipeIngestionService ingestionService;
+    private final ObjectMapper objectMapper;
+    private final Path importDir;
+
+    /**
+     * Constructs RecipeFileLoader.
+     *
+     * @param ingestionService The service indexing the recipes.
+     * @param objectMapper The JSON mapper used to read JSON dumps.
+     * @param importDir The directory import files are resolved against.
+     */
+    public RecipeFileLoader(
+            RecipeIngestionService ingestionService,
+            ObjectMapper objectMapper,
+            @Value("${plato.ingest.import-dir:./imports}") String importDir) {
+        this.ingestionService = ingestionService;
+        this.objectMapper = objectMapper;
+        this.importDir = Path.of(importDir).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Indexes all recipes of a dump file.
+     *
+     * @param fileName The path of the file, relative to the import directory.
+     * @return A report of the outcome.
+     */
+    public IngestionReport load(String fileName) {
+        Path file = importDir.resolve(fileName).normalize();
+        if (!file.startsWith(importDir) || !Files.isRegularFile(file)) {
+            throw new IngestionException("Import file not found: " + fileName);
+        }
+
+        log.info("Loading recipes from {}", file);
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        try {
+            if (name.endsWith(".csv")) {
+                try (CsvRecipeReader reader = new CsvRecipeReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+                    return ingestionService.ingest(reader);
+                }
+            }
+            if (name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json")) {
+                try (InputStream in = Files.newInputStream(file)) {
+                    return ingestJson(in);
+                }
+            }
+        } catch (IOException e) {
+            throw new IngestionException("Failed to read import file " + fileName, e);
+        }
+        throw new IngestionException("Unsupported import file type: " + fileName);
+    }
+
+    /**
+     * Indexes all recipes of a JSON stream containing either one recipe per line or a single array of recipes.
+     *
+     * @param in The JSON input.
+     * @return A report of the outcome.
+     */
+    public IngestionReport ingestJson(InputStream in) {
+        try (MappingIterator<Recipe> recipes = objectMapper.readerFor(Recipe.class).readValues(in)) {
+            return ingestionService.ingest(rejectingMalformed(recipes));
+        } catch (IOException | RuntimeException e) {
+            if (e instanceof IngestionException ingestionException) {
+                throw ingestionException;
+            }
+            throw new IngestionException("Failed to read recipes: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reports records that do not bind to a Recipe as malformed. The mapping iterator skips to the end of such a
+     * record before reading the next one; syntax errors still end the input.
+     */
+    private static Iterator<Recipe> rejectingMalformed(MappingIterator<Recipe> recipes) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return recipes.hasNext();
+            }
+
+            @Override
+            public Recipe next() {
+                try {
+                    return recipes.next();
+                } catch (RuntimeJsonMappingException e) {
+                    JsonLocation location = recipes.getCurrentLocation();
+                    throw new MalformedRecordException("Invalid recipe ending on line "
+                            + (location == null ? "?" : location.getLineNr()) + ": " + e.getMessage(), e);
+                }
+            }
+        };
+    }
+}
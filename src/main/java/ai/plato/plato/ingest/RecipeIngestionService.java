@@ -0,0 +1,269 @@
+package ai.plato.plato.ingest;
+
+import ai.plato.plato.cache.RecipeChangedEvent;
+import ai.plato.plato.embedding.EmbeddingService;
+import ai.plato.plato.exception.IngestionException;
+import ai.plato.plato.helper.PopularityScore;
+import ai.plato.plato.helper.RecipeDocumentMapper;
+import ai.plato.plato.model.Recipe;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrInputDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RecipeIngestionService indexes large streams of recipes into Solr.
+ * <p>
+ * Callers validate and enqueue records into a bounded queue shared by all ingestion requests; when the queue is
+ * full, callers block, which pushes back on the HTTP client or file reader instead of buffering without limit.
+ * A fixed number of writer threads drain the queue in batches and send each batch with a single
+ * {@code solrClient.add} call. Documents become visible through Solr's commitWithin instead of explicit
+ * commits, so many batches share one commit.
+ * </p>
+ * <p>
+ * The embedding vectors for semantic search are computed per batch as well, with one call to the embedding model.
+ * A recipe whose vector cannot be computed is still indexed, it is only missing from semantic search.
+ * </p>
+ */
+@Service
+public class RecipeIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecipeIngestionService.class);
+
+    private final SolrClient solrClient;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EmbeddingService embeddingService;
+    private final BlockingQueue<PendingRecipe> queue;
+    private final int batchSize;
+    private final int writerThreads;
+    private final int commitWithinMillis;
+    private final long flushIntervalMillis;
+    private final long jobTimeoutMillis;
+    private final ExecutorService writers;
+    private volatile boolean running = true;
+
+    private final Counter indexedCounter;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    /**
+     * Constructs RecipeIngestionService.
+     *
+     * @param solrClient The Solr client instance used for indexing.
+     * @param eventPublisher Publisher used to announce indexed recipes to caches.
+     * @param embeddingService The service computing the embedding vectors of recipes.
+     * @param meterRegistry Registry for the ingestion throughput metrics.
+     * @param queueCapacity Maximum number of records waiting to be written.
+     * @param batchSize Maximum number of documents per add request.
+     * @param writerThreads Number of parallel writer threads.
+     * @param commitWithin Maximum time until indexed documents become searchable.
+     * @param flushInterval Maximum time a partial batch waits for more records.
+     * @param jobTimeout Maximum time a request waits for its records to be written.
+     */
+    public RecipeIngestionService(
+            SolrClient solrClient,
+            ApplicationEventPublisher eventPublisher,
+            EmbeddingService embeddingService,
+            MeterRegistry meterRegistry,
+            @Value("${plato.ingest.queue-capacity:10000}") int queueCapacity,
+            @Value("${plato.ingest.batch-size:1000}") int batchSize,
+            @Value("${plato.ingest.writer-threads:4}") int writerThreads,
+            @Value("${plato.ingest.commit-within:10s}") Duration commitWithin,
+            @Value("${plato.ingest.flush-interval:1s}") Duration flushInterval,
+            @Value("${plato.ingest.job-timeout:30m}") Duration jobTimeout) {
+        this.solrClient = solrClient;
+        this.eventPublisher = eventPublisher;
+        this.embeddingService = embeddingService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.writerThreads = writerThreads;
+        this.commitWithinMillis = (int) commitWithin.toMillis();
+        this.flushIntervalMillis = flushInterval.toMillis();
+        this.jobTimeoutMillis = jobTimeout.toMillis();
+        this.writers = Executors.newFixedThreadPool(writerThreads, Thread.ofPlatform().name("recipe-writer-", 0).factory());
+
+        this.indexedCounter = meterRegistry.counter("plato.ingest.records", "outcome", "indexed");
+        this.rejectedCounter = meterRegistry.counter("plato.ingest.records", "outcome", "rejected");
+        this.failedCounter = meterRegistry.counter("plato.ingest.records", "outcome", "failed");
+        this.batchTimer = Timer.builder("plato.ingest.batch")
+                .description("Time taken to send one batch of documents to Solr")
+                .register(meterRegistry);
+        Gauge.builder("plato.ingest.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    /**
+     * Starts the writer threads.
+     */
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < writerThreads; i++) {
+            writers.submit(this::runWriter);
+        }
+    }
+
+    /**
+     * Stops accepting records and lets the writers drain the queue.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writers.shutdown();
+        if (!writers.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Recipe writers did not finish within 30s, {} records were not indexed", queue.size());
+            writers.shutdownNow();
+        }
+    }
+
+    /**
+     * Validates and indexes every recipe of a stream, blocking while the writer queue is full.
+     * Returns once all valid recipes have been written or the job timeout elapsed. Records the stream reports as
+     * malformed are rejected and skipped; any other read error stops the job once the queued recipes are written.
+     *
+     * @param recipes The recipes to index.
+     * @return A report of the outcome.
+     */
+    public IngestionReport ingest(Iterator<Recipe> recipes) {
+        IngestionJob job = new IngestionJob();
+        boolean timedOut;
+        try {
+            RuntimeException readError = null;
+            while (readError == null) {
+                try {
+                    if (!recipes.hasNext()) {
+                        break;
+                    }
+                    submit(job, recipes.next());
+                } catch (MalformedRecordException e) {
+                    rejectedCounter.increment();
+                    job.submitted();
+                    job.rejected(e.getMessage());
+                } catch (RuntimeException e) {
+                    readError = e;
+                }
+            }
+            timedOut = !job.awaitCompletion(jobTimeoutMillis);
+            if (readError != null) {
+                IngestionReport report = job.report(timedOut);
+                log.warn("Ingestion stopped after {} records ({} indexed)",
+                        report.submitted(), report.indexed(), readError);
+                throw readError instanceof IngestionException ingestionException ? ingestionException
+                        : new IngestionException("Failed to read recipes after " + report.submitted()
+                                + " records: " + readError.getMessage(), readError);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IngestionException("Interrupted while indexing recipes", e);
+        }
+        if (timedOut) {
+            log.warn("Ingestion job did not finish within {} ms", jobTimeoutMillis);
+        }
+        IngestionReport report = job.report(timedOut);
+        log.info("Ingested {} recipes ({} rejected, {} failed) in {} ms",
+                report.indexed(), report.rejected(), report.failed(), report.elapsedMillis());
+        return report;
+    }
+
+    private void submit(IngestionJob job, Recipe recipe) throws InterruptedException {
+        if (!running) {
+            throw new IngestionException("Recipe ingestion is shutting down");
+        }
+        job.submitted();
+        List<String> violations = RecipeValidator.validate(recipe);
+        if (!violations.isEmpty()) {
+            rejectedCounter.increment();
+            job.rejected(recipe == null ? null : recipe.getId(), violations);
+            return;
+        }
+        RecipeNormalizer.normalize(recipe);
+        recipe.setPopularityScore(PopularityScore.compute(recipe.getViews(), recipe.getLikes(), recipe.getDislikes()));
+        recipe.setLastModified(Instant.now());
+        job.enqueued();
+        queue.put(new PendingRecipe(recipe, job));
+    }
+
+    private void runWriter() {
+        List<PendingRecipe> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingRecipe first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingRecipe> batch) {
+        List<float[]> embeddings = embed(batch);
+        List<SolrInputDocument> documents = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            documents.add(RecipeDocumentMapper.toSolrInputDocument(batch.get(i).recipe(), embeddings.get(i)));
+        }
+
+        Timer.Sample sample = Timer.start();
+        try {
+            solrClient.add(documents, commitWithinMillis);
+            sample.stop(batchTimer);
+            indexedCounter.increment(batch.size());
+            for (PendingRecipe pending : batch) {
+                pending.job().indexed(1);
+                Recipe recipe = pending.recipe();
+                eventPublisher.publishEvent(new RecipeChangedEvent(recipe.getId(), recipe.getLastModified()));
+            }
+        } catch (IOException | SolrServerException | RuntimeException e) {
+            log.warn("Failed to index a batch of {} recipes", batch.size(), e);
+            failedCounter.increment(batch.size());
+            for (PendingRecipe pending : batch) {
+                pending.job().failed(1, "Recipe " + pending.recipe().getId() + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private List<float[]> embed(List<PendingRecipe> batch) {
+        List<Recipe> recipes = new ArrayList<>(batch.size());
+        for (PendingRecipe pending : batch) {
+            recipes.add(pending.recipe());
+        }
+        try {
+            return embeddingService.embedRecipes(recipes);
+        } catch (RuntimeException e) {
+            log.warn("Failed to embed a batch of {} recipes, indexing them without vectors", batch.size(), e);
+            return Collections.nCopies(batch.size(), null);
+        }
+    }
+
+    private record PendingRecipe(Recipe recipe, IngestionJob job) {
+    }
+}
@@ -0,0 +1,56 @@
+package ai.plato.plato.ingest;
+
+import ai.plato.plato.helper.IngredientNormalizer;
+import ai.plato.plato.helper.TermDictionary;
+import ai.plato.plato.model.Recipe;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * RecipeNormalizer brings the free-text fields of a recipe into canonical form before it is indexed.
+ * <p>
+ * Cuisines are capitalized consistently and deduplicated, so facet and filter values do not split into
+ * "italian", "Italian" and " Italian". Ingredient lines keep their original wording, which is shown to users,
+ * but are trimmed and stripped of blank entries; difficulties are lowercased. Cuisines and difficulties are interned
+ * through the shared {@link TermDictionary} while the recipe waits in the ingestion queue.
+ * </p>
+ */
+public final class RecipeNormalizer {
+
+    private RecipeNormalizer() {
+    }
+
+    /**
+     * Normalizes a recipe in place.
+     *
+     * @param recipe The recipe to normalize.
+     */
+    public static void normalize(Recipe recipe) {
+        if (recipe.getCuisines() != null) {
+            Set<String> cuisines = new LinkedHashSet<>();
+            for (String cuisine : recipe.getCuisines()) {
+                String normalized = IngredientNormalizer.normalizeCuisine(cuisine);
+                if (normalized != null) {
+                    cuisines.add(TermDictionary.SHARED.intern(normalized));
+                }
+            }
+            recipe.setCuisines(new ArrayList<>(cuisines));
+        }
+        if (recipe.getIngredients() != null) {
+            List<String> ingredients = new ArrayList<>(recipe.getIngredients().size());
+            for (String ingredient : recipe.getIngredients()) {
+                if (ingredient != null && !ingredient.isBlank()) {
+                    ingredients.add(ingredient.trim().replaceAll("\\s+", " "));
+                }
+            }
+            recipe.setIngredients(ingredients);
+        }
+        if (recipe.getDifficulty() != null) {
+            recipe.setDifficulty(TermDictionary.SHARED.intern(recipe.getDifficulty().trim().toLowerCase(Locale.ROOT)));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package ai.plato.plato.ingest;
+
+import ai.plato.plato.model.Recipe;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RecipeValidator checks that a recipe can be indexed before it is queued for writing.
+ */
+public final class RecipeValidator {
+
+    private RecipeValidator() {
+    }
+
+    /**
+     * Validates a recipe.
+     *
+     * @param recipe The recipe to validate.
+     * @return The list of violations, empty if the recipe is valid.
+     */
+    public static List<String> validate(Recipe recipe) {
+        List<String> violations = new ArrayList<>();
+        if (recipe == null) {
+            violations.add("recipe is null");
+            return violations;
+        }
+        if (recipe.getId() == null || recipe.getId().isBlank()) {
+            violations.add("id is required");
+        }
+        if (recipe.getTitle() == null || recipe.getTitle().stream().allMatch(t -> t == null || t.isBlank())) {
+            violations.add("title is required");
+        }
+        if (recipe.getIngredients() == null || recipe.getIngredients().isEmpty()) {
+            violations.add("ingredients are required");
+        }
+        requireNonNegative(violations, "cooking_time", recipe.getCookingTime());
+        requireNonNegative(violations, "preparation_time", recipe.getPreparationTime());
+        requireNonNegative(violations, "views", recipe.getViews());
+        requireNonNegative(violations, "likes", recipe.getLikes());
+        requireNonNegative(violations, "dislikes", recipe.getDislikes());
+        return violations;
+    }
+
+    private static void requireNonNegative(List<String> violations, String field, Number value) {
+        if (value != null && value.longValue() < 0) {
+            violations.add(field + " must not be negative");
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ai.plato.plato.mealplan;
+
+import ai.plato.plato.model.RecipeSummary;
+
+/**
+ * MealCandidate is a recipe the meal-plan solver may place into a slot.
+ *
+ * @param recipe The summary of the recipe.
+ * @param terms The canonical ingredients of the recipe, as sorted ids local to one planning request.
+ * @param score The value of the recipe on its own (popularity and cuisine preference).
+ * @param cookingTime The cooking time in minutes.
+ * @param preparationTime The preparation time in minutes.
+ */
+record MealCandidate(RecipeSummary recipe, int[] terms, double score, int cookingTime, int preparationTime) {
+}
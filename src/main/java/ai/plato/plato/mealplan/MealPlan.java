@@ -0,0 +1,14 @@
+package ai.plato.plato.mealplan;
+
+import java.util.List;
+
+/**
+ * MealPlan is a generated plan of recipes over several days.
+ *
+ * @param days The planned days.
+ * @param shoppingList The ingredients used by the plan but missing from the pantry, most used first.
+ * @param reusedIngredients The number of ingredient uses shared with another recipe of the plan.
+ * @param candidates The number of recipes the plan was chosen from.
+ */
+public record MealPlan(List<PlannedDay> days, List<String> shoppingList, int reusedIngredients, int candidates) {
+}
@@ -0,0 +1,297 @@
+package ai.plato.plato.mealplan;
+
+import ai.plato.plato.exception.NotFoundException;
+import ai.plato.plato.exception.RecipeSearchException;
+import ai.plato.plato.helper.IngredientNormalizer;
+import ai.plato.plato.helper.PopularityScore;
+import ai.plato.plato.helper.RecipeDocumentMapper;
+import ai.plato.plato.helper.RecipeSolrQueryBuilder;
+import ai.plato.plato.model.RecipeProjection;
+import ai.plato.plato.model.RecipeSummary;
+import ai.plato.plato.service.SolrQueryExecutor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.util.ClientUtils;
+import org.apache.solr.common.SolrDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MealPlanService generates meal plans: a number of days with a number of meals each, within a maximum total
+ * cooking and preparation time per day, preferring popular recipes of the requested cuisines, and choosing recipes
+ * that share ingredients with each other and with the pantry, so the shopping list stays short.
+ * <p>
+ * The candidate recipes are fetched from Solr in one query, ranked by popularity and boosted by cuisine, with
+ * recipes that could never fit into a day filtered out. The plan is then searched for in memory by
+ * {@link MealPlanSolver} on a dedicated fork-join pool, within a fixed time budget.
+ * </p>
+ * <p>
+ * The pool has one thread per search and is shared by all requests, so a request only runs as many searches as
+ * there are idle threads, tracked by a semaphore; every search it starts then gets the full budget. A request that
+ * finds no idle thread within the budget returns the greedy plan, and is counted in the
+ * {@code plato.mealplan.searches} metric under outcome "skipped".
+ * </p>
+ */
+@Service
+public class MealPlanService {
+
+    private static final Logger log = LoggerFactory.getLogger(MealPlanService.class);
+    private static final String FIELDS = RecipeProjection.SUMMARY.getFields() + ",ingredients,cuisines,"
+            + PopularityScore.FIELD;
+    private static final double CUISINE_BONUS = 0.5;
+
+    private final SolrQueryExecutor solrQueryExecutor;
+    private final int candidateCount;
+    private final Duration timeBudget;
+    private final int searches;
+    private final ForkJoinPool pool;
+    private final Semaphore idleSearches;
+    private final Counter searchesRun;
+    private final Counter searchesSkipped;
+
+    /**
+     * Constructs MealPlanService.
+     *
+     * @param solrQueryExecutor The executor used for fetching the candidate recipes.
+     * @param meterRegistry Registry for the solver metrics.
+     * @param candidateCount The number of candidate recipes fetched per plan.
+     * @param timeBudget The time every search runs, and the longest a plan waits for an idle search.
+     * @param parallelism The number of solver threads, shared by all plans, 0 for the number of processors.
+     */
+    public MealPlanService(
+            SolrQueryExecutor solrQueryExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${plato.mealplan.candidates:300}") int candidateCount,
+            @Value("${plato.mealplan.time-budget:300ms}") Duration timeBudget,
+            @Value("${plato.mealplan.parallelism:0}") int parallelism) {
+        this.solrQueryExecutor = solrQueryExecutor;
+        this.candidateCount = candidateCount;
+        this.timeBudget = timeBudget;
+        this.searches = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(searches);
+        this.idleSearches = new Semaphore(searches);
+        this.searchesRun = meterRegistry.counter("plato.mealplan.searches", "outcome", "run");
+        this.searchesSkipped = meterRegistry.counter("plato.mealplan.searches", "outcome", "skipped");
+    }
+
+    /**
+     * Stops the solver pool.
+     */
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Generates a meal plan.
+     *
+     * @param days The number of days.
+     * @param mealsPerDay The number of meals per day.
+     * @param maxCookingTime The maximum total cooking time per day in minutes, or null for no limit.
+     * @param maxPreparationTime The maximum total preparation time per day in minutes, or null for no limit.
+     * @param cuisines The preferred cuisines, may be empty.
+     * @param pantry The ingredients available, may be empty.
+     * @return The plan. Days may have fewer meals if not enough recipes fit the limits.
+     */
+    public MealPlan plan(int days, int mealsPerDay, Integer maxCookingTime, Integer maxPreparationTime,
+                         Collection<String> cuisines, Collection<String> pantry) {
+        Set<String> preferredCuisines = new TreeSet<>();
+        if (cuisines != null) {
+            for (String cuisine : cuisines) {
+                String name = IngredientNormalizer.normalizeCuisine(cuisine);
+                if (name != null) {
+                    preferredCuisines.add(name);
+                }
+            }
+        }
+        Set<String> pantryTerms = new HashSet<>();
+        if (pantry != null) {
+            for (String ingredient : pantry) {
+                String term = IngredientNormalizer.normalize(ingredient);
+                if (term != null) {
+                    pantryTerms.add(term);
+                }
+            }
+        }
+
+        RecipeSolrQueryBuilder builder = new RecipeSolrQueryBuilder("*:*")
+                .addBoostFunctions(PopularityScore.FIELD)
+                .addRangeFilter("cooking_time", null, maxCookingTime, RecipeSolrQueryBuilder.FilterHints.NONE)
+                .addRangeFilter("preparation_time", null, maxPreparationTime, RecipeSolrQueryBuilder.FilterHints.NONE)
+                .setStartAndRows(0, candidateCount)
+                .setFields(FIELDS);
+        if (!preferredCuisines.isEmpty()) {
+            StringJoiner bq = new StringJoiner(" OR ", "cuisines:(", ")^2");
+            preferredCuisines.forEach(cuisine -> bq.add(ClientUtils.escapeQueryChars(cuisine)));
+            builder.addBoostQuery(bq.toString());
+        }
+        List<SolrDocument> documents;
+        try {
+            documents = solrQueryExecutor.query("mealPlan", builder.build()).getResults();
+        } catch (IOException | SolrServerException e) {
+            throw new RecipeSearchException("Failed to query Solr", e);
+        }
+        if (documents.isEmpty()) {
+            throw new NotFoundException("No recipes found");
+        }
+
+        // Ingredients get dense ids local to this request, so the solver counts them in plain arrays
+        Map<String, Integer> termIds = new HashMap<>();
+        List<String> termNames = new ArrayList<>();
+        double maxPopularity = 0;
+        for (SolrDocument doc : documents) {
+            maxPopularity = Math.max(maxPopularity, popularity(doc));
+        }
+        List<MealCandidate> candidates = new ArrayList<>(documents.size());
+        for (SolrDocument doc : documents) {
+            TreeSet<Integer> terms = new TreeSet<>();
+            Collection<Object> ingredients = doc.getFieldValues("ingredients");
+            if (ingredients != null) {
+                for (Object ingredient : ingredients) {
+                    String term = IngredientNormalizer.normalize(String.valueOf(ingredient));
+                    if (term != null) {
+                        terms.add(termIds.computeIfAbsent(term, t -> {
+                            termNames.add(t);
+                            return termNames.size() - 1;
+                        }));
+                    }
+                }
+            }
+            double score = maxPopularity > 0 ? popularity(doc) / maxPopularity : 0;
+            if (matchesCuisine(doc, preferredCuisines)) {
+                score += CUISINE_BONUS;
+            }
+            RecipeSummary summary = RecipeDocumentMapper.toSummary(doc);
+            candidates.add(new MealCandidate(summary, terms.stream().mapToInt(Integer::intValue).toArray(), score,
+                    minutes(summary.getCookingTime()), minutes(summary.getPreparationTime())));
+        }
+        boolean[] inPantry = new boolean[termNames.size()];
+        for (int i = 0; i < inPantry.length; i++) {
+            inPantry[i] = pantryTerms.contains(termNames.get(i));
+        }
+
+        MealPlanSolver solver = new MealPlanSolver(candidates, inPantry, days, mealsPerDay,
+                maxCookingTime == null ? Integer.MAX_VALUE : maxCookingTime,
+                maxPreparationTime == null ? Integer.MAX_VALUE : maxPreparationTime);
+        long startNanos = System.nanoTime();
+        int granted = acquireSearches();
+        int[] assignment;
+        try {
+            assignment = granted > 0 ? solver.solve(pool, granted, timeBudget.toNanos()) : solver.greedyPlan();
+        } finally {
+            idleSearches.release(granted);
+        }
+        searchesRun.increment(granted);
+        searchesSkipped.increment(searches - granted);
+        if (granted == 0) {
+            log.warn("No idle meal plan search within {} ms, returning the greedy plan", timeBudget.toMillis());
+        }
+        log.debug("Solved a {}x{} meal plan over {} candidates with {} searches in {} ms", days, mealsPerDay,
+                candidates.size(), granted, (System.nanoTime() - startNanos) / 1_000_000);
+        return toPlan(candidates, termNames, inPantry, days, mealsPerDay, assignment);
+    }
+
+    /**
+     * Reserves idle solver threads: waits up to the time budget for the first one, then takes whatever else is idle.
+     *
+     * @return The number of searches this plan may run, 0 if none became idle in time.
+     */
+    private int acquireSearches() {
+        try {
+            if (!idleSearches.tryAcquire(timeBudget.toNanos(), TimeUnit.NANOSECONDS)) {
+                return 0;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+        int granted = 1;
+        while (granted < searches && idleSearches.tryAcquire()) {
+            granted++;
+        }
+        return granted;
+    }
+
+    private static MealPlan toPlan(List<MealCandidate> candidates, List<String> termNames, boolean[] inPantry,
+                                   int days, int mealsPerDay, int[] assignment) {
+        int[] termCounts = new int[termNames.size()];
+        int reused = 0;
+        List<PlannedDay> plannedDays = new ArrayList<>(days);
+        for (int day = 0; day < days; day++) {
+            List<RecipeSummary> meals = new ArrayList<>(mealsPerDay);
+            int cookingTime = 0;
+            int preparationTime = 0;
+            for (int meal = 0; meal < mealsPerDay; meal++) {
+                int index = assignment[day * mealsPerDay + meal];
+                if (index == MealPlanSolver.EMPTY) {
+                    continue;
+                }
+                MealCandidate candidate = candidates.get(index);
+                meals.add(candidate.recipe());
+                cookingTime += candidate.cookingTime();
+                preparationTime += candidate.preparationTime();
+                for (int term : candidate.terms()) {
+                    if (termCounts[term]++ > 0) {
+                        reused++;
+                    }
+                }
+            }
+            plannedDays.add(new PlannedDay(day + 1, meals, cookingTime, preparationTime));
+        }
+
+        List<Integer> missing = new ArrayList<>();
+        for (int term = 0; term < termCounts.length; term++) {
+            if (termCounts[term] > 0 && !inPantry[term]) {
+                missing.add(term);
+            }
+        }
+        missing.sort((a, b) -> termCounts[a] != termCounts[b]
+                ? Integer.compare(termCounts[b], termCounts[a])
+                : termNames.get(a).compareTo(termNames.get(b)));
+        List<String> shoppingList = new ArrayList<>(missing.size());
+        for (int term : missing) {
+            shoppingList.add(termNames.get(term));
+        }
+        return new MealPlan(plannedDays, shoppingList, reused, candidates.size());
+    }
+
+    private static boolean matchesCuisine(SolrDocument doc, Set<String> preferredCuisines) {
+        Collection<Object> values = doc.getFieldValues("cuisines");
+        if (values == null || preferredCuisines.isEmpty()) {
+            return false;
+        }
+        for (Object value : values) {
+            if (preferredCuisines.contains(IngredientNormalizer.normalizeCuisine(String.valueOf(value)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double popularity(SolrDocument doc) {
+        return doc.getFieldValue(PopularityScore.FIELD) instanceof Number number ? number.doubleValue() : 0;
+    }
+
+    private static int minutes(Integer time) {
+        return time == null ? 0 : Math.max(0, time);
+    }
+}
@@ -0,0 +1,297 @@
+package ai.plato.plato.mealplan;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * MealPlanSolver assigns distinct recipes to the slots of a plan, maximizing the plan score under per-day limits on
+ * total cooking and preparation time.
+ * <p>
+ * The score is the sum of the recipes' own scores, plus a bonus for every ingredient occurrence that reuses an
+ * ingredient already in the plan, minus a penalty for every distinct ingredient that is not in the pantry (the
+ * shopping list). This is a quadratic assignment problem, so instead of an exact solver the plan is found by
+ * simulated annealing: several independent searches, each started from a greedy plan randomized differently, run
+ * in parallel on a fork-join pool for a time budget counted from their own start, and the best plan wins. Every
+ * move (put a candidate into a slot, or swap two slots of different days) is evaluated incrementally from
+ * per-ingredient counters, so a search makes hundreds of thousands of moves within a few hundred milliseconds.
+ * </p>
+ */
+final class MealPlanSolver {
+
+    static final int EMPTY = -1;
+
+    static final double REUSE_BONUS = 0.3;
+    static final double SHOPPING_PENALTY = 0.1;
+    private static final double INITIAL_TEMPERATURE = 0.5;
+    private static final int DEADLINE_CHECK_INTERVAL = 256;
+
+    private final List<MealCandidate> candidates;
+    private final boolean[] pantry;
+    private final int days;
+    private final int mealsPerDay;
+    private final int maxCookingTime;
+    private final int maxPreparationTime;
+
+    /**
+     * @param candidates The recipes to choose from.
+     * @param pantry For every local ingredient id, whether it is in the pantry.
+     * @param days The number of days of the plan.
+     * @param mealsPerDay The number of slots per day.
+     * @param maxCookingTime The maximum total cooking time per day in minutes.
+     * @param maxPreparationTime The maximum total preparation time per day in minutes.
+     */
+    MealPlanSolver(List<MealCandidate> candidates, boolean[] pantry, int days, int mealsPerDay,
+                   int maxCookingTime, int maxPreparationTime) {
+        this.candidates = candidates;
+        this.pantry = pantry;
+        this.days = days;
+        this.mealsPerDay = mealsPerDay;
+        this.maxCookingTime = maxCookingTime;
+        this.maxPreparationTime = maxPreparationTime;
+    }
+
+    /**
+     * Runs the parallel search.
+     *
+     * @param pool The pool running the searches.
+     * @param searches The number of independent searches.
+     * @param budgetNanos The time each search runs, counted from the moment it starts.
+     * @return The candidate index of every slot (day-major), {@link #EMPTY} for slots no candidate fits.
+     */
+    int[] solve(ForkJoinPool pool, int searches, long budgetNanos) {
+        List<Callable<Search>> tasks = new ArrayList<>(searches);
+        for (int i = 0; i < searches; i++) {
+            long seed = i;
+            tasks.add(() -> {
+                // A deadline fixed before submission would leave a search that waited for a thread no time at all
+                long deadlineNanos = System.nanoTime() + budgetNanos;
+                // The first search keeps the plain greedy start, so the result is never worse than greedy
+                return new Search(new SplittableRandom(seed), seed > 0).run(deadlineNanos);
+            });
+        }
+        Search best = null;
+        for (Future<Search> future : pool.invokeAll(tasks)) {
+            try {
+                Search search = future.get();
+                if (best == null || search.bestScore > best.bestScore) {
+                    best = search;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Meal plan search failed", e.getCause());
+            }
+        }
+        return best == null ? greedyPlan() : best.bestAssignment;
+    }
+
+    /**
+     * @return The plan of the plain greedy construction, without search.
+     */
+    int[] greedyPlan() {
+        Search search = new Search(new SplittableRandom(0), false);
+        return search.assignment;
+    }
+
+    /**
+     * Search is one simulated annealing run with its own incrementally maintained plan state.
+     */
+    final class Search {
+
+        private final SplittableRandom random;
+        final int[] assignment = new int[days * mealsPerDay];
+        final boolean[] used = new boolean[candidates.size()];
+        private final int[] dayCookingTime = new int[days];
+        private final int[] dayPreparationTime = new int[days];
+        private final int[] termCounts = new int[pantry.length];
+        private double recipeScore;
+        private int termOccurrences;
+        private int distinctTerms;
+        private int shoppingTerms;
+        private int[] bestAssignment;
+        private double bestScore;
+
+        Search(SplittableRandom random, boolean randomizedStart) {
+            this.random = random;
+            Arrays.fill(assignment, EMPTY);
+            fillGreedily(randomizedStart);
+            bestAssignment = assignment.clone();
+            bestScore = score();
+        }
+
+        Search run(long deadlineNanos) {
+            if (candidates.isEmpty()) {
+                return this;
+            }
+            long startNanos = System.nanoTime();
+            double budget = Math.max(1, deadlineNanos - startNanos);
+            double temperature = INITIAL_TEMPERATURE;
+            double current = score();
+            for (long iteration = 0; ; iteration++) {
+                if (iteration % DEADLINE_CHECK_INTERVAL == 0) {
+                    long now = System.nanoTime();
+                    if (now >= deadlineNanos) {
+                        break;
+                    }
+                    // Linear cooling over the time budget
+                    temperature = INITIAL_TEMPERATURE * Math.max(0.001, 1 - (now - startNanos) / budget);
+                }
+                if (days > 1 && random.nextInt(4) == 0) {
+                    trySwap();
+                    continue;
+                }
+                int slot = random.nextInt(assignment.length);
+                int candidate = random.nextInt(candidates.size());
+                int previous = assignment[slot];
+                if (used[candidate] || !fits(slot / mealsPerDay, previous, candidate)) {
+                    continue;
+                }
+                place(slot, candidate);
+                double next = score();
+                double delta = next - current;
+                if (delta >= 0 || random.nextDouble() < Math.exp(delta / temperature)) {
+                    current = next;
+                    if (current > bestScore) {
+                        bestScore = current;
+                        System.arraycopy(assignment, 0, bestAssignment, 0, assignment.length);
+                    }
+                } else {
+                    place(slot, previous);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Fills the slots day by day with the best fitting unused candidate by own score and ingredient reuse.
+         * A randomized start picks among the three best instead, so parallel searches explore different regions.
+         */
+        private void fillGreedily(boolean randomized) {
+            int[] top = new int[3];
+            double[] topGain = new double[3];
+            for (int slot = 0; slot < assignment.length; slot++) {
+                int day = slot / mealsPerDay;
+                Arrays.fill(top, EMPTY);
+                Arrays.fill(topGain, Double.NEGATIVE_INFINITY);
+                double before = score();
+                for (int c = 0; c < candidates.size(); c++) {
+                    if (used[c] || !fits(day, EMPTY, c)) {
+                        continue;
+                    }
+                    place(slot, c);
+                    double gain = score() - before;
+                    place(slot, EMPTY);
+                    for (int k = 0; k < top.length; k++) {
+                        if (gain > topGain[k]) {
+                            System.arraycopy(top, k, top, k + 1, top.length - k - 1);
+                            System.arraycopy(topGain, k, topGain, k + 1, top.length - k - 1);
+                            top[k] = c;
+                            topGain[k] = gain;
+                            break;
+                        }
+                    }
+                }
+                int choice = top[0];
+                if (randomized) {
+                    int pick = random.nextInt(top.length);
+                    if (top[pick] != EMPTY) {
+                        choice = top[pick];
+                    }
+                }
+                if (choice != EMPTY) {
+                    place(slot, choice);
+                }
+            }
+        }
+
+        void trySwap() {
+            int first = random.nextInt(assignment.length);
+            int second = random.nextInt(assignment.length);
+            int firstDay = first / mealsPerDay;
+            int secondDay = second / mealsPerDay;
+            if (firstDay == secondDay) {
+                return;
+            }
+            int a = assignment[first];
+            int b = assignment[second];
+            // Swapping never changes the score, it only frees time on one day for later moves
+            if (fits(firstDay, a, b) && fits(secondDay, b, a)) {
+                place(first, EMPTY);
+                place(second, a);
+                place(first, b);
+            }
+        }
+
+        /**
+         * @return Whether the day stays within its limits when one recipe is replaced by another.
+         */
+        boolean fits(int day, int removed, int added) {
+            int cooking = dayCookingTime[day] - cookingTime(removed) + cookingTime(added);
+            int preparation = dayPreparationTime[day] - preparationTime(removed) + preparationTime(added);
+            return cooking <= maxCookingTime && preparation <= maxPreparationTime;
+        }
+
+        /**
+         * Puts a candidate (or nothing) into a slot, updating all counters.
+         */
+        void place(int slot, int candidate) {
+            int previous = assignment[slot];
+            if (previous == candidate) {
+                return;
+            }
+            int day = slot / mealsPerDay;
+            if (previous != EMPTY) {
+                MealCandidate removed = candidates.get(previous);
+                used[previous] = false;
+                recipeScore -= removed.score();
+                dayCookingTime[day] -= removed.cookingTime();
+                dayPreparationTime[day] -= removed.preparationTime();
+                for (int term : removed.terms()) {
+                    termOccurrences--;
+                    if (--termCounts[term] == 0) {
+                        distinctTerms--;
+                        if (!pantry[term]) {
+                            shoppingTerms--;
+                        }
+                    }
+                }
+            }
+            assignment[slot] = candidate;
+            if (candidate != EMPTY) {
+                MealCandidate added = candidates.get(candidate);
+                used[candidate] = true;
+                recipeScore += added.score();
+                dayCookingTime[day] += added.cookingTime();
+                dayPreparationTime[day] += added.preparationTime();
+                for (int term : added.terms()) {
+                    termOccurrences++;
+                    if (termCounts[term]++ == 0) {
+                        distinctTerms++;
+                        if (!pantry[term]) {
+                            shoppingTerms++;
+                        }
+                    }
+                }
+            }
+        }
+
+        double score() {
+            return recipeScore + REUSE_BONUS * (termOccurrences - distinctTerms) - SHOPPING_PENALTY * shoppingTerms;
+        }
+
+        private int cookingTime(int candidate) {
+            return candidate == EMPTY ? 0 : candidates.get(candidate).cookingTime();
+        }
+
+        private int preparationTime(int candidate) {
+            return candidate == EMPTY ? 0 : candidates.get(candidate).preparationTime();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ai.plato.plato.mealplan;
+
+import ai.plato.plato.model.RecipeSummary;
+
+import java.util.List;
+
+/**
+ * PlannedDay is one day of a meal plan.
+ *
+ * @param day The day number, starting at 1.
+ * @param meals The recipes planned for the day.
+ * @param cookingTime The total cooking time of the day in minutes.
+ * @param preparationTime The total preparation time of the day in minutes.
+ */
+public record PlannedDay(int day, List<RecipeSummary> meals, int cookingTime, int preparationTime) {
+}
@@ -0,0 +1,138 @@
+package ai.plato.plato.metrics;
+
+import ai.plato.plato.cache.CacheStats;
+import ai.plato.plato.cache.RecipeCache;
+import ai.plato.plato.cache.RecipePageCache;
+import ai.plato.plato.config.SolrConnectionPoolMonitor;
+import ai.plato.plato.embedding.EmbeddingService;
+import ai.plato.plato.pantry.PantryService;
+import ai.plato.plato.recommend.RecommendationService;
+import ai.plato.plato.resilience.ResilientSolrClient;
+import ai.plato.plato.service.RandomRecipePool;
+import ai.plato.plato.service.RecipeService;
+import ai.plato.plato.service.SolrQueryExecutor;
+import ai.plato.plato.suggest.SuggestService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.solr.client.solrj.SolrClient;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * PlatoMeterBinder publishes the state of the in-process components in front of Solr:
+ * the page, recipe, suggestion and query embedding caches, request coalescing, the concurrency limit,
+ * the HTTP connection pool, the random id pool, the pantry and similarity indexes, the user profiles and,
+ * when enabled, the per-node state of the resilient Solr client.
+ */
+@Component
+public class PlatoMeterBinder implements MeterBinder {
+
+    private final RecipePageCache recipePageCache;
+    private final RecipeCache recipeCache;
+    private final RecipeService recipeService;
+    private final SolrQueryExecutor solrQueryExecutor;
+    private final SolrConnectionPoolMonitor connectionPoolMonitor;
+    private final RandomRecipePool randomRecipePool;
+    private final PantryService pantryService;
+    private final SuggestService suggestService;
+    private final RecommendationService recommendationService;
+    private final EmbeddingService embeddingService;
+    private final SolrClient solrClient;
+
+    public PlatoMeterBinder(RecipePageCache recipePageCache,
+                            RecipeCache recipeCache,
+                            RecipeService recipeService,
+                            SolrQueryExecutor solrQueryExecutor,
+                            SolrConnectionPoolMonitor connectionPoolMonitor,
+                            RandomRecipePool randomRecipePool,
+                            PantryService pantryService,
+                            SuggestService suggestService,
+                            RecommendationService recommendationService,
+                            EmbeddingService embeddingService,
+                            SolrClient solrClient) {
+        this.recipePageCache = recipePageCache;
+        this.recipeCache = recipeCache;
+        this.recipeService = recipeService;
+        this.solrQueryExecutor = solrQueryExecutor;
+        this.connectionPoolMonitor = connectionPoolMonitor;
+        this.randomRecipePool = randomRecipePool;
+        this.pantryService = pantryService;
+        this.suggestService = suggestService;
+        this.recommendationService = recommendationService;
+        this.embeddingService = embeddingService;
+        this.solrClient = solrClient;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindCache(registry, "recipe-pages", recipePageCache, RecipePageCache::stats);
+        bindCache(registry, "recipes", recipeCache, RecipeCache::stats);
+        bindCache(registry, "suggestions", suggestService, SuggestService::cacheStats);
+        bindCache(registry, "query-embeddings", embeddingService, EmbeddingService::cacheStats);
+
+        FunctionCounter.builder("plato.solr.coalesced", recipeService, RecipeService::coalescedQueries)
+                .description("Queries that joined an identical in-flight Solr request").register(registry);
+
+        Gauge.builder("plato.solr.in.flight", solrQueryExecutor, SolrQueryExecutor::inFlight)
+                .description("Requests currently in flight towards Solr").register(registry);
+        Gauge.builder("plato.solr.queued", solrQueryExecutor, SolrQueryExecutor::queued)
+                .description("Requests waiting for a free Solr request slot").register(registry);
+
+        Gauge.builder("plato.solr.pool.leased", connectionPoolMonitor, m -> m.stats().getLeased()).register(registry);
+        Gauge.builder("plato.solr.pool.pending", connectionPoolMonitor, m -> m.stats().getPending()).register(registry);
+        Gauge.builder("plato.solr.pool.available", connectionPoolMonitor, m -> m.stats().getAvailable()).register(registry);
+        Gauge.builder("plato.solr.pool.max", connectionPoolMonitor, m -> m.stats().getMax()).register(registry);
+        Gauge.builder("plato.solr.pool.saturation", connectionPoolMonitor, SolrConnectionPoolMonitor::saturation)
+                .register(registry);
+
+        Gauge.builder("plato.random.pool.size", randomRecipePool, RandomRecipePool::size).register(registry);
+        Gauge.builder("plato.pantry.index.size", pantryService, PantryService::size).register(registry);
+        Gauge.builder("plato.recommend.index.size", recommendationService, RecommendationService::size)
+                .register(registry);
+        Gauge.builder("plato.recommend.profiles", recommendationService, RecommendationService::profileCount)
+                .register(registry);
+
+        if (solrClient instanceof ResilientSolrClient resilient) {
+            bindResilience(registry, resilient);
+        }
+    }
+
+    private static void bindResilience(MeterRegistry registry, ResilientSolrClient client) {
+        FunctionCounter.builder("plato.solr.hedged", client, ResilientSolrClient::hedgedRequests)
+                .description("Reads for which a hedge request was sent to a second node").register(registry);
+        FunctionCounter.builder("plato.solr.retried", client, ResilientSolrClient::retriedRequests)
+                .description("Reads retried on another node after a failure").register(registry);
+        for (String node : client.nodeUrls()) {
+            Gauge.builder("plato.solr.node.healthy", client, c -> c.isHealthy(node) ? 1 : 0)
+                    .tag("node", node).register(registry);
+            Gauge.builder("plato.solr.node.circuit.open", client, c -> c.isCircuitOpen(node) ? 1 : 0)
+                    .tag("node", node).register(registry);
+            FunctionCounter.builder("plato.solr.node.circuit.opened", client, c -> c.circuitOpenedCount(node))
+                    .description("Times the node's circuit breaker opened").tag("node", node).register(registry);
+        }
+    }
+
+    /**
+     * Binds the statistics of a cache. Meters only hold their state object weakly, so the state is the bean owning
+     * the cache, which lives as long as the application, rather than a lambda nothing else refers to.
+     */
+    private static <T> void bindCache(MeterRegistry registry, String cache, T owner, Function<T, CacheStats> stats) {
+        FunctionCounter.builder("plato.cache.hits", owner, o -> stats.apply(o).hits())
+                .tag("cache", cache).register(registry);
+        FunctionCounter.builder("plato.cache.misses", owner, o -> stats.apply(o).misses())
+                .tag("cache", cache).register(registry);
+        FunctionCounter.builder("plato.cache.evictions", owner, o -> stats.apply(o).evictions())
+                .tag("cache", cache).register(registry);
+        FunctionCounter.builder("plato.cache.expirations", owner, o -> stats.apply(o).expirations())
+                .tag("cache", cache).register(registry);
+        FunctionCounter.builder("plato.cache.invalidations", owner, o -> stats.apply(o).invalidations())
+                .tag("cache", cache).register(registry);
+        Gauge.builder("plato.cache.size", owner, o -> stats.apply(o).size())
+                .tag("cache", cache).register(registry);
+        Gauge.builder("plato.cache.weight", owner, o -> stats.apply(o).weight())
+                .tag("cache", cache).baseUnit("bytes").register(registry);
+    }
+}
@@ -0,0 +1,42 @@
+package ai.plato.plato.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * RecipeErrorMetricsResolver counts the exceptions thrown by controller endpoints, e.g. RecipeSearchException
+ * and NotFoundException, tagged by endpoint and exception type.
+ * <p>
+ * It runs before every other resolver and never resolves the exception itself, so the HTTP status mapping
+ * declared on the exceptions is unaffected.
+ * </p>
+ */
+@Component
+public class RecipeErrorMetricsResolver implements HandlerExceptionResolver, Ordered {
+
+    private final RecipeMetrics recipeMetrics;
+
+    public RecipeErrorMetricsResolver(RecipeMetrics recipeMetrics) {
+        this.recipeMetrics = recipeMetrics;
+    }
+
+    @Override
+    public ModelAndView resolveException(HttpServletRequest request, HttpServletResponse response,
+                                         Object handler, Exception ex) {
+        String endpoint = (handler instanceof HandlerMethod handlerMethod)
+                ? handlerMethod.getMethod().getName()
+                : "unknown";
+        recipeMetrics.recordError(endpoint, ex);
+        return null;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,45 @@
+package ai.plato.plato.model;
+
+/**
+ * FacetBucket is one filter option returned with a search: a field value or range, and the number of
+ * matching recipes that fall into it.
+ */
+public class FacetBucket {
+
+    private String value;
+    private Long count;
+
+    /**
+     * Default constructor for FacetBucket.
+     */
+    public FacetBucket() {
+    }
+
+    /**
+     * Constructs a FacetBucket with the specified parameters.
+     *
+     * @param value The field value, or the range in Solr notation (e.g. "[15,30)").
+     * @param count The number of matching recipes.
+     */
+    public FacetBucket(String value, Long count) {
+        this.value = value;
+        this.count = count;
+    }
+
+    /**
+     * Getter and Setter methods for FacetBucket attributes.
+     */
+    public String getValue() {
+        return value;
+    }
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+    public void setCount(Long count) {
+        this.count = count;
+    }
+}
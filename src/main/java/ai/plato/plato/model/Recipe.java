@@ -10,7 +10,7 @@ import org.apache.solr.client.solrj.beans.Field;
  * It includes fields such as title, ingredients, cooking time, difficulty, and metadata like likes, dislikes, and views.
  * The class is annotated with Solr-specific indexing fields to enable search capabilities.
  */
-public class Recipe {
+public class Recipe implements RecipeView {
 
     @Field
     private String id;
@@ -63,6 +63,9 @@ public class Recipe {
     @Field
     private Long views;
 
+    @Field("popularity_score")
+    private Double popularityScore; // Precomputed from views, likes and dislikes, see PopularityScore
+
     private Instant uploadTimestamp;
 
     @Field("last_modified")
@@ -127,6 +130,7 @@ public class Recipe {
     /**
      * Getter and Setter methods for Recipe attributes.
      */
+    @Override
     public String getId() {
         return id;
     }
@@ -246,6 +250,13 @@ public class Recipe {
         this.views = views;
     }
 
+    public Double getPopularityScore() {
+        return popularityScore;
+    }
+    public void setPopularityScore(Double popularityScore) {
+        this.popularityScore = popularityScore;
+    }
+
     public Instant getUploadTimestamp() {
         return uploadTimestamp;
     }
@@ -258,6 +269,7 @@ public class Recipe {
         this.uploadTimestamp = instant;
     }
 
+    @Override
     public Instant getLastModified() {
         return lastModified;
     }
@@ -0,0 +1,12 @@
+package ai.plato.plato.model;
+
+import java.util.List;
+
+/**
+ * RecipeBatch is the result of looking up several recipes by id.
+ *
+ * @param recipes The recipes found, in the order their ids were requested.
+ * @param missingIds The requested ids that match no recipe.
+ */
+public record RecipeBatch(List<Recipe> recipes, List<String> missingIds) {
+}
@@ -1,17 +1,33 @@
 package ai.plato.plato.model;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * RecipePage represents a paginated response containing a list of recipes.
  * It includes information about the page number, page size, and total number of available documents.
+ * <p>
+ * When the page was fetched in cursor mode, {@code nextCursor} holds the opaque token for the following page,
+ * or {@code null} once the end of the result set has been reached.
+ * Random pages carry the {@code seed} of their feed, which fetches further pages of the same feed.
+ * </p>
+ *
+ * <p>
+ * When facets were requested, {@code facets} maps each facet name to its buckets, so the filter options for the
+ * result set arrive with the results.
+ * </p>
+ *
+ * @param <T> The recipe representation, either the full Recipe or a RecipeSummary.
  */
-public class RecipePage {
+public class RecipePage<T extends RecipeView> {
 
-    private List<Recipe> recipes;
+    private List<T> recipes;
     private Integer pageNumber;
     private Integer pageSize;
     private Long totalDocs;
+    private String nextCursor;
+    private Long seed;
+    private Map<String, List<FacetBucket>> facets;
 
     /**
      * Constructs a RecipePage with the specified parameters.
@@ -21,20 +37,47 @@ public class RecipePage {
      * @param pageSize The number of recipes per page.
      * @param totalDocs The total number of documents available.
      */
-    public RecipePage(List<Recipe> recipes, Integer pageNumber, Integer pageSize, Long totalDocs) {
+    public RecipePage(List<T> recipes, Integer pageNumber, Integer pageSize, Long totalDocs) {
         this.recipes = recipes;
         this.pageNumber = pageNumber;
         this.pageSize = pageSize;
         this.totalDocs = totalDocs;
     }
 
+    /**
+     * Constructs a cursor-based RecipePage with the specified parameters.
+     *
+     * @param recipes The list of recipes on the current page.
+     * @param pageNumber The current page number.
+     * @param pageSize The number of recipes per page.
+     * @param totalDocs The total number of documents available.
+     * @param nextCursor The cursor token for the next page, or null if there are no more results.
+     */
+    public RecipePage(List<T> recipes, Integer pageNumber, Integer pageSize, Long totalDocs, String nextCursor) {
+        this(recipes, pageNumber, pageSize, totalDocs);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Returns a copy of this page sharing its recipe list and facets.
+     * Setting attributes on the copy (such as the seed) leaves this page unchanged.
+     *
+     * @return The copy.
+     */
+    public RecipePage<T> copy() {
+        RecipePage<T> copy = new RecipePage<>(recipes, pageNumber, pageSize, totalDocs, nextCursor);
+        copy.seed = seed;
+        copy.facets = facets;
+        return copy;
+    }
+
     /**
      * Getter and Setter methods for RecipePage attributes.
      */
-    public List<Recipe> getRecipes() {
+    public List<T> getRecipes() {
         return recipes;
     }
-    public void setRecipes(List<Recipe> recipes) {
+    public void setRecipes(List<T> recipes) {
         this.recipes = recipes;
     }
 
@@ -58,4 +101,25 @@ public class RecipePage {
     public void setTotalDocs(Long totalDocs) {
         this.totalDocs = totalDocs;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+
+    public Map<String, List<FacetBucket>> getFacets() {
+        return facets;
+    }
+    public void setFacets(Map<String, List<FacetBucket>> facets) {
+        this.facets = facets;
+    }
 }
@@ -0,0 +1,43 @@
+package ai.plato.plato.model;
+
+import java.util.Locale;
+
+/**
+ * RecipeProjection selects which representation of a recipe is returned by listing and search endpoints.
+ * <p>
+ * Both request an explicit field list from Solr (via the {@code fl} parameter). FULL lists every field of the
+ * recipe model, but not internal stored fields such as the embedding vector. SUMMARY only lists the fields needed
+ * by list views, which skips the large ingredients and instructions lists in the Solr response, the document
+ * mapping and the JSON serialization.
+ * </p>
+ */
+public enum RecipeProjection {
+
+    FULL("id,title,ingredients,instructions,picture_link,cooking_time,cuisines,difficulty,difficulty_easy,"
+            + "difficulty_medium,difficulty_hard,difficulty_user_rated,dislikes,likes,preparation_time,uploaded_by,"
+            + "views,popularity_score,upload_timestamp,last_modified"),
+    SUMMARY("id,title,picture_link,cooking_time,preparation_time,difficulty,likes,dislikes,views,last_modified");
+
+    private final String fields;
+
+    RecipeProjection(String fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * @return The Solr field list for this projection.
+     */
+    public String getFields() {
+        return fields;
+    }
+
+    /**
+     * Parses the value of a "view" request parameter.
+     *
+     * @param view The parameter value ("full" or "summary"), or null for the default.
+     * @return The matching projection, FULL if the value is null.
+     */
+    public static RecipeProjection fromParam(String view) {
+        return view == null ? FULL : valueOf(view.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,30 @@
+package ai.plato.plato.model;
+
+import java.util.Locale;
+
+/**
+ * RecipeRanking selects how popularity is blended into the relevance score of search results.
+ * <p>
+ * BOOST_FUNCTIONS sends the popularity formula as {@code bf} functions, which Solr evaluates for every matching
+ * document. FIELD adds the precomputed {@code popularity_score} field instead, a single docValues lookup per
+ * document. RERANK leaves the main query untouched and only adds the field to the top documents through Solr's
+ * rerank query.
+ * </p>
+ */
+public enum RecipeRanking {
+
+    BOOST_FUNCTIONS,
+    FIELD,
+    RERANK;
+
+    /**
+     * Parses a ranking mode from configuration.
+     *
+     * @param value The mode ("bf", "field" or "rerank").
+     * @return The matching ranking mode.
+     */
+    public static RecipeRanking fromParam(String value) {
+        String mode = value.trim().toLowerCase(Locale.ROOT);
+        return "bf".equals(mode) ? BOOST_FUNCTIONS : valueOf(mode.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,103 @@
+package ai.plato.plato.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * RecipeSummary is the lightweight representation of a recipe used by list views.
+ * It contains the title, picture, timings and popularity counters, but not the ingredients or instructions.
+ */
+public class RecipeSummary implements RecipeView {
+
+    private String id;
+    private List<String> title;
+    private String pictureLink;
+    private Integer cookingTime;
+    private Integer preparationTime;
+    private String difficulty;
+    private Long likes;
+    private Long dislikes;
+    private Long views;
+    private Instant lastModified;
+
+    /**
+     * Default constructor for RecipeSummary.
+     */
+    public RecipeSummary() {
+    }
+
+    /**
+     * Getter and Setter methods for RecipeSummary attributes.
+     */
+    @Override
+    public String getId() {
+        return id;
+    }
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public List<String> getTitle() {
+        return title;
+    }
+    public void setTitle(List<String> title) {
+        this.title = title;
+    }
+
+    public String getPictureLink() {
+        return pictureLink;
+    }
+    public void setPictureLink(String pictureLink) {
+        this.pictureLink = pictureLink;
+    }
+
+    public Integer getCookingTime() {
+        return cookingTime;
+    }
+    public void setCookingTime(Integer cookingTime) {
+        this.cookingTime = cookingTime;
+    }
+
+    public Integer getPreparationTime() {
+        return preparationTime;
+    }
+    public void setPreparationTime(Integer preparationTime) {
+        this.preparationTime = preparationTime;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+    public void setDifficulty(String difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public Long getLikes() {
+        return likes;
+    }
+    public void setLikes(Long likes) {
+        this.likes = likes;
+    }
+
+    public Long getDislikes() {
+        return dislikes;
+    }
+    public void setDislikes(Long dislikes) {
+        this.dislikes = dislikes;
+    }
+
+    public Long getViews() {
+        return views;
+    }
+    public void setViews(Long views) {
+        this.views = views;
+    }
+
+    @Override
+    public Instant getLastModified() {
+        return lastModified;
+    }
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
+}
@@ -0,0 +1,14 @@
+package ai.plato.plato.model;
+
+import java.time.Instant;
+
+/**
+ * RecipeView is the common contract of the representations of a recipe returned in a RecipePage.
+ * It exposes the identity and version of the recipe, which is what caches need to invalidate stale pages.
+ */
+public interface RecipeView {
+
+    String getId();
+
+    Instant getLastModified();
+}
@@ -0,0 +1,28 @@
+package ai.plato.plato.model;
+
+import java.util.Locale;
+
+/**
+ * SearchMode selects how search queries are matched against recipes.
+ * <p>
+ * LEXICAL is the edismax keyword search over titles, ingredients and cuisines. SEMANTIC retrieves the recipes
+ * whose embedding vectors are nearest to the query's vector, so it also finds recipes that share no word with the
+ * query. HYBRID retrieves semantically and then reranks those candidates with the lexical score.
+ * </p>
+ */
+public enum SearchMode {
+
+    LEXICAL,
+    SEMANTIC,
+    HYBRID;
+
+    /**
+     * Parses the value of a "mode" request parameter.
+     *
+     * @param value The parameter value ("lexical", "semantic" or "hybrid"), or null for the default.
+     * @return The matching search mode, LEXICAL if the value is null.
+     */
+    public static SearchMode fromParam(String value) {
+        return value == null ? LEXICAL : valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
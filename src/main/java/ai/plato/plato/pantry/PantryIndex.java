@@ -0,0 +1,211 @@
+package ai.plato.plato.pantry;
+
+import ai.plato.plato.helper.IngredientNormalizer;
+import ai.plato.plato.helper.TermDictionary;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * PantryIndex is an immutable, compact inverted index from ingredients to the recipes that require them.
+ * <p>
+ * Ingredient lines are reduced to canonical names by {@link IngredientNormalizer} and identified by their id
+ * in a {@link TermDictionary} owned by the index; recipes are numbered densely. Both directions are stored as int
+ * arrays in compressed sparse row form: {@code postings} lists the recipes of each term, {@code recipeTerms} lists
+ * the terms of each recipe. Scoring a pantry walks only the posting lists of the pantry's terms and counts matches
+ * per recipe, so it touches a tiny fraction of the catalog and allocates little besides one counter array.
+ * </p>
+ */
+public final class PantryIndex {
+
+    static final PantryIndex EMPTY = new Builder().build();
+
+    private final TermDictionary dictionary;
+    private final String[] recipeIds;
+    private final int termCount;
+    private final int[] postingOffsets;
+    private final int[] postings;
+    private final int[] recipeTermOffsets;
+    private final int[] recipeTerms;
+
+    private PantryIndex(TermDictionary dictionary, String[] recipeIds, int termCount,
+                        int[] postingOffsets, int[] postings, int[] recipeTermOffsets, int[] recipeTerms) {
+        this.dictionary = dictionary;
+        this.recipeIds = recipeIds;
+        this.termCount = termCount;
+        this.postingOffsets = postingOffsets;
+        this.postings = postings;
+        this.recipeTermOffsets = recipeTermOffsets;
+        this.recipeTerms = recipeTerms;
+    }
+
+    /**
+     * @return The number of recipes in the index.
+     */
+    public int recipeCount() {
+        return recipeIds.length;
+    }
+
+    /**
+     * @return The number of distinct ingredients in the index.
+     */
+    public int termCount() {
+        int distinct = 0;
+        for (int term = 0; term < termCount; term++) {
+            if (postingOffsets[term + 1] > postingOffsets[term]) {
+                distinct++;
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * Ranks recipes by the fraction of their ingredients present in a pantry.
+     *
+     * @param pantry The ingredients available, as raw text.
+     * @param maxMissing The maximum number of required ingredients a recipe may be missing.
+     * @param limit The maximum number of matches to return.
+     * @return The best matches, by descending coverage and then ascending number of missing ingredients.
+     */
+    public List<PantryMatch> search(Collection<String> pantry, int maxMissing, int limit) {
+        BitSet pantryTerms = new BitSet(termCount);
+        for (String ingredient : pantry) {
+            // Lookup only: pantry entries come from user input and must not grow the dictionary
+            int term = dictionary.lookup(IngredientNormalizer.normalize(ingredient));
+            if (term != TermDictionary.UNKNOWN && term < termCount) {
+                pantryTerms.set(term);
+            }
+        }
+
+        int[] matched = new int[recipeIds.length];
+        BitSet touched = new BitSet(recipeIds.length);
+        for (int term = pantryTerms.nextSetBit(0); term >= 0; term = pantryTerms.nextSetBit(term + 1)) {
+            for (int p = postingOffsets[term]; p < postingOffsets[term + 1]; p++) {
+                int recipe = postings[p];
+                matched[recipe]++;
+                touched.set(recipe);
+            }
+        }
+
+        // Min-heap on rank, so the worst of the current top matches is evicted first
+        PriorityQueue<int[]> top = new PriorityQueue<>(limit + 1, (a, b) -> compareRank(b, a));
+        for (int recipe = touched.nextSetBit(0); recipe >= 0; recipe = touched.nextSetBit(recipe + 1)) {
+            int required = recipeTermOffsets[recipe + 1] - recipeTermOffsets[recipe];
+            int missing = required - matched[recipe];
+            if (missing > maxMissing) {
+                continue;
+            }
+            top.add(new int[]{recipe, matched[recipe], required});
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<PantryMatch> matches = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            int[] entry = top.poll();
+            matches.add(toMatch(entry[0], entry[1], entry[2], pantryTerms));
+        }
+        matches.sort(null);
+        return matches;
+    }
+
+    private PantryMatch toMatch(int recipe, int matchedCount, int required, BitSet pantryTerms) {
+        List<String> missing = new ArrayList<>(required - matchedCount);
+        for (int t = recipeTermOffsets[recipe]; t < recipeTermOffsets[recipe + 1]; t++) {
+            if (!pantryTerms.get(recipeTerms[t])) {
+                missing.add(dictionary.term(recipeTerms[t]));
+            }
+        }
+        return new PantryMatch(recipeIds[recipe], (double) matchedCount / required, matchedCount, missing, null);
+    }
+
+    /**
+     * Orders [recipe, matched, required] entries: higher coverage first, then fewer missing, then recipe ordinal.
+     */
+    private static int compareRank(int[] a, int[] b) {
+        // Compare matched/required fractions without floating point
+        int byCoverage = Long.compare((long) b[1] * a[2], (long) a[1] * b[2]);
+        if (byCoverage != 0) {
+            return byCoverage;
+        }
+        int byMissing = Integer.compare(a[2] - a[1], b[2] - b[1]);
+        return byMissing != 0 ? byMissing : Integer.compare(a[0], b[0]);
+    }
+
+    /**
+     * Builder collects recipes and their ingredients and lays them out into the compact index arrays.
+     */
+    static final class Builder {
+
+        private final TermDictionary dictionary;
+        private final List<String> recipeIds = new ArrayList<>();
+        private final List<int[]> recipeTermLists = new ArrayList<>();
+        private int totalTerms;
+
+        Builder() {
+            // A dictionary per build holds only the ingredients of the catalog, so it never fills up
+            this.dictionary = new TermDictionary(Integer.MAX_VALUE);
+        }
+
+        /**
+         * Adds a recipe. Recipes without any usable ingredient are skipped.
+         *
+         * @param recipeId The recipe id.
+         * @param ingredients The raw ingredient texts of the recipe.
+         */
+        void add(String recipeId, Collection<String> ingredients) {
+            if (recipeId == null || ingredients == null) {
+                return;
+            }
+            BitSet seen = new BitSet();
+            for (String ingredient : ingredients) {
+                int term = dictionary.id(IngredientNormalizer.normalize(ingredient));
+                if (term != TermDictionary.UNKNOWN) {
+                    seen.set(term);
+                }
+            }
+            if (seen.isEmpty()) {
+                return;
+            }
+            recipeIds.add(recipeId);
+            recipeTermLists.add(seen.stream().toArray());
+            totalTerms += seen.cardinality();
+        }
+
+        PantryIndex build() {
+            int recipeCount = recipeIds.size();
+            int termCount = dictionary.size();
+
+            int[] recipeTermOffsets = new int[recipeCount + 1];
+            int[] recipeTerms = new int[totalTerms];
+            int[] postingOffsets = new int[termCount + 1];
+            for (int r = 0; r < recipeCount; r++) {
+                int[] list = recipeTermLists.get(r);
+                System.arraycopy(list, 0, recipeTerms, recipeTermOffsets[r], list.length);
+                recipeTermOffsets[r + 1] = recipeTermOffsets[r] + list.length;
+                for (int term : list) {
+                    postingOffsets[term + 1]++;
+                }
+            }
+            for (int t = 0; t < termCount; t++) {
+                postingOffsets[t + 1] += postingOffsets[t];
+            }
+
+            // Recipes are visited in ordinal order, so every posting list ends up sorted
+            int[] postings = new int[totalTerms];
+            int[] cursor = new int[termCount];
+            for (int r = 0; r < recipeCount; r++) {
+                for (int term : recipeTermLists.get(r)) {
+                    postings[postingOffsets[term] + cursor[term]++] = r;
+                }
+            }
+
+            return new PantryIndex(dictionary, recipeIds.toArray(new String[0]), termCount,
+                    postingOffsets, postings, recipeTermOffsets, recipeTerms);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ai.plato.plato.pantry;
+
+import ai.plato.plato.model.RecipeSummary;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * PantryMatch describes how well a recipe can be cooked from a pantry.
+ *
+ * @param recipeId The id of the recipe.
+ * @param coverage The fraction of the recipe's ingredients present in the pantry.
+ * @param matchedCount The number of the recipe's ingredients present in the pantry.
+ * @param missingIngredients The ingredients of the recipe that are not in the pantry.
+ * @param recipe The summary of the recipe, or null if it has not been loaded.
+ */
+public record PantryMatch(String recipeId, double coverage, int matchedCount, List<String> missingIngredients,
+                          RecipeSummary recipe) implements Comparable<PantryMatch> {
+
+    /**
+     * @return The number of the recipe's ingredients missing from the pantry.
+     */
+    @JsonProperty
+    public int missingCount() {
+        return missingIngredients.size();
+    }
+
+    /**
+     * Returns a copy of this match with the recipe summary attached.
+     *
+     * @param summary The recipe summary.
+     * @return The updated match.
+     */
+    public PantryMatch withRecipe(RecipeSummary summary) {
+        return new PantryMatch(recipeId, coverage, matchedCount, missingIngredients, summary);
+    }
+
+    @Override
+    public int compareTo(PantryMatch other) {
+        int byCoverage = Double.compare(other.coverage, coverage);
+        if (byCoverage != 0) {
+            return byCoverage;
+        }
+        int byMissing = Integer.compare(missingCount(), other.missingCount());
+        return byMissing != 0 ? byMissing : recipeId.compareTo(other.recipeId);
+    }
+}
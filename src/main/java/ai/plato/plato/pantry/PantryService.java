@@ -0,0 +1,171 @@
+package ai.plato.plato.pantry;
+
+import ai.plato.plato.exception.NotFoundException;
+import ai.plato.plato.exception.RecipeSearchException;
+import ai.plato.plato.helper.RecipeDocumentMapper;
+import ai.plato.plato.model.RecipeProjection;
+import ai.plato.plato.model.RecipeSummary;
+import ai.plato.plato.service.SolrQueryExecutor;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.params.CommonParams;
+import org.apache.solr.common.params.CursorMarkParams;
+import org.apache.solr.common.params.ModifiableSolrParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PantryService finds the recipes that can be cooked from a given set of ingredients.
+ * <p>
+ * Matching "which recipes use mostly these ingredients" is a poor fit for a Solr relevance query, so the service
+ * keeps a {@link PantryIndex} over the ingredients of all recipes in memory. The index is rebuilt in the background
+ * from a cursor over the id and ingredients fields and swapped in atomically; requests always score against a
+ * complete snapshot. Only the summaries of the best matches are then fetched from Solr, in one request.
+ * </p>
+ */
+@Service
+public class PantryService {
+
+    private static final Logger log = LoggerFactory.getLogger(PantryService.class);
+    private static final int FETCH_BATCH_SIZE = 5_000;
+
+    private final SolrClient solrClient;
+    private final SolrQueryExecutor solrQueryExecutor;
+    private final boolean enabled;
+    private volatile PantryIndex index = PantryIndex.EMPTY;
+
+    /**
+     * Constructs PantryService.
+     *
+     * @param solrClient The Solr client instance used for loading the ingredients of all recipes.
+     * @param solrQueryExecutor The executor used for fetching the summaries of matching recipes.
+     * @param enabled Whether the index is built at all.
+     */
+    public PantryService(
+            SolrClient solrClient,
+            SolrQueryExecutor solrQueryExecutor,
+            @Value("${plato.pantry.enabled:true}") boolean enabled) {
+        this.solrClient = solrClient;
+        this.solrQueryExecutor = solrQueryExecutor;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Rebuilds the ingredient index from the recipes in Solr.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${plato.pantry.refresh-interval:15m}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            PantryIndex.Builder builder = new PantryIndex.Builder();
+            SolrQuery query = new SolrQuery("*:*");
+            query.setFields("id", "ingredients");
+            query.setRows(FETCH_BATCH_SIZE);
+            query.addSort("id", SolrQuery.ORDER.asc);
+            String cursor = CursorMarkParams.CURSOR_MARK_START;
+            while (true) {
+                query.set(CursorMarkParams.CURSOR_MARK_PARAM, cursor);
+                QueryResponse response = solrClient.query(query);
+                for (SolrDocument doc : response.getResults()) {
+                    builder.add((String) doc.getFirstValue("id"), toStrings(doc.getFieldValues("ingredients")));
+                }
+                String next = response.getNextCursorMark();
+                if (next == null || next.equals(cursor)) {
+                    break;
+                }
+                cursor = next;
+            }
+
+            PantryIndex built = builder.build();
+            index = built;
+            log.info("Indexed the ingredients of {} recipes ({} distinct ingredients)",
+                    built.recipeCount(), built.termCount());
+        } catch (IOException | SolrServerException | RuntimeException e) {
+            log.warn("Failed to refresh the pantry index", e);
+        }
+    }
+
+    /**
+     * Finds the recipes best covered by a pantry.
+     *
+     * @param pantry The ingredients available.
+     * @param maxMissing The maximum number of ingredients a recipe may require beyond the pantry.
+     * @param limit The maximum number of recipes to return.
+     * @return The matching recipes with their summaries, best coverage first.
+     */
+    public List<PantryMatch> findByPantry(Collection<String> pantry, int maxMissing, int limit) {
+        List<PantryMatch> matches = index.search(pantry, maxMissing, limit);
+        if (matches.isEmpty()) {
+            throw new NotFoundException("No recipes found");
+        }
+
+        List<String> ids = new ArrayList<>(matches.size());
+        for (PantryMatch match : matches) {
+            ids.add(match.recipeId());
+        }
+        ModifiableSolrParams params = new ModifiableSolrParams();
+        params.set(CommonParams.FL, RecipeProjection.SUMMARY.getFields());
+        Map<String, RecipeSummary> summaries = new HashMap<>();
+        try {
+            for (SolrDocument doc : solrQueryExecutor.getByIds("pantry", ids, params)) {
+                RecipeSummary summary = RecipeDocumentMapper.toSummary(doc);
+                summaries.put(summary.getId(), summary);
+            }
+        } catch (IOException | SolrServerException e) {
+            throw new RecipeSearchException("Failed to query Solr", e);
+        }
+
+        List<PantryMatch> result = new ArrayList<>(matches.size());
+        for (PantryMatch match : matches) {
+            RecipeSummary summary = summaries.get(match.recipeId());
+            // Recipes deleted since the index was built are skipped
+            if (summary != null) {
+                result.add(match.withRecipe(summary));
+            }
+        }
+        if (result.isEmpty()) {
+            throw new NotFoundException("No recipes found");
+        }
+        return result;
+    }
+
+    /**
+     * @return Whether the index has been built.
+     */
+    public boolean isReady() {
+        return index.recipeCount() > 0;
+    }
+
+    /**
+     * @return The number of recipes in the index.
+     */
+    public int size() {
+        return index.recipeCount();
+    }
+
+    private static List<String> toStrings(Collection<Object> values) {
+        if (values == null) {
+            return null;
+        }
+        List<String> strings = new ArrayList<>(values.size());
+        for (Object value : values) {
+            strings.add(String.valueOf(value));
+        }
+        return strings;
+    }
+}
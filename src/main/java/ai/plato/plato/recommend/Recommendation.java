@@ -0,0 +1,23 @@
+package ai.plato.plato.recommend;
+
+import ai.plato.plato.model.RecipeSummary;
+
+/**
+ * Recommendation is a recipe suggested to a user or as similar to another recipe.
+ *
+ * @param recipeId The id of the recipe.
+ * @param score The recommendation score; only meaningful relative to the other recommendations of the same answer.
+ * @param recipe The summary of the recipe, or null if it has not been loaded.
+ */
+public record Recommendation(String recipeId, double score, RecipeSummary recipe) {
+
+    /**
+     * Returns a copy of this recommendation with the recipe summary attached.
+     *
+     * @param summary The recipe summary.
+     * @return The updated recommendation.
+     */
+    public Recommendation withRecipe(RecipeSummary summary) {
+        return new Recommendation(recipeId, score, summary);
+    }
+}
@@ -0,0 +1,281 @@
+package ai.plato.plato.recommend;
+
+import ai.plato.plato.event.UserEventType;
+import ai.plato.plato.exception.NotFoundException;
+import ai.plato.plato.exception.RecipeSearchException;
+import ai.plato.plato.helper.RecipeDocumentMapper;
+import ai.plato.plato.model.RecipeProjection;
+import ai.plato.plato.model.RecipeSummary;
+import ai.plato.plato.service.SolrQueryExecutor;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.params.CommonParams;
+import org.apache.solr.common.params.CursorMarkParams;
+import org.apache.solr.common.params.ModifiableSolrParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RecommendationService serves "similar recipes" and "recommended for you" lists from memory.
+ * <p>
+ * A background job loads the ingredients and cuisines of all recipes and builds a {@link SimilarityIndex} holding
+ * the nearest neighbours of every recipe; the new index is swapped in atomically. Every user has a small rolling
+ * {@link UserProfile} of recent views, likes and dislikes, fed by the user event pipeline. A recommendation
+ * combines the neighbour lists of the profile's recipes, so it costs a few array reads per interaction; only the
+ * summaries of the chosen recipes are then fetched from Solr, in one request.
+ * </p>
+ * <p>
+ * Profiles live in memory only. User ids are not authenticated, so the number of profiles is bounded when they are
+ * created: beyond the configured maximum, the profile with the oldest interaction is dropped. Profiles are also
+ * dropped after a period of inactivity.
+ * </p>
+ */
+@Service
+public class RecommendationService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationService.class);
+    private static final int FETCH_BATCH_SIZE = 5_000;
+    private static final float VIEW_WEIGHT = 1f;
+    private static final float LIKE_WEIGHT = 3f;
+    private static final float DISLIKE_WEIGHT = -3f;
+
+    private final SolrQueryExecutor solrQueryExecutor;
+    private final boolean enabled;
+    private final int neighborsPerRecipe;
+    private final int maxFeatureFrequency;
+    private final int profileSize;
+    private final long halfLifeMillis;
+    private final long profileTtlMillis;
+    // Ordered by the latest interaction, so the eldest entry is the least recently active user; guarded by itself
+    private final LinkedHashMap<String, UserProfile> profiles;
+    private volatile SimilarityIndex index = SimilarityIndex.EMPTY;
+
+    /**
+     * Constructs RecommendationService.
+     *
+     * @param solrQueryExecutor The executor used for loading the features of all recipes and fetching the summaries
+     *                          of recommended recipes.
+     * @param enabled Whether the similarity index is built at all.
+     * @param neighborsPerRecipe The number of similar recipes kept per recipe.
+     * @param maxFeatureFrequency Ingredients or cuisines found in more recipes than this do not make recipes similar.
+     * @param profileSize The number of recent interactions kept per user.
+     * @param halfLife The age at which an interaction counts half.
+     * @param profileTtl The inactivity after which a profile is dropped.
+     * @param maxProfiles The maximum number of profiles kept.
+     */
+    public RecommendationService(
+            SolrQueryExecutor solrQueryExecutor,
+            @Value("${plato.recommend.enabled:true}") boolean enabled,
+            @Value("${plato.recommend.neighbors:20}") int neighborsPerRecipe,
+            @Value("${plato.recommend.max-feature-frequency:2000}") int maxFeatureFrequency,
+            @Value("${plato.recommend.profile-size:50}") int profileSize,
+            @Value("${plato.recommend.profile-half-life:7d}") Duration halfLife,
+            @Value("${plato.recommend.profile-ttl:30d}") Duration profileTtl,
+            @Value("${plato.recommend.max-profiles:100000}") int maxProfiles) {
+        this.solrQueryExecutor = solrQueryExecutor;
+        this.enabled = enabled;
+        this.neighborsPerRecipe = neighborsPerRecipe;
+        this.maxFeatureFrequency = maxFeatureFrequency;
+        this.profileSize = profileSize;
+        this.halfLifeMillis = halfLife.toMillis();
+        this.profileTtlMillis = profileTtl.toMillis();
+        this.profiles = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UserProfile> eldest) {
+                return size() > maxProfiles;
+            }
+        };
+    }
+
+    /**
+     * Rebuilds the similarity index from the recipes in Solr.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${plato.recommend.refresh-interval:1h}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            SimilarityIndex.Builder builder = new SimilarityIndex.Builder();
+            SolrQuery query = new SolrQuery("*:*");
+            query.setFields("id", "ingredients", "cuisines");
+            query.setRows(FETCH_BATCH_SIZE);
+            query.addSort("id", SolrQuery.ORDER.asc);
+            String cursor = CursorMarkParams.CURSOR_MARK_START;
+            while (true) {
+                query.set(CursorMarkParams.CURSOR_MARK_PARAM, cursor);
+                QueryResponse response = solrQueryExecutor.query("similarityIndex", query);
+                for (SolrDocument doc : response.getResults()) {
+                    builder.add((String) doc.getFirstValue("id"),
+                            toStrings(doc.getFieldValues("ingredients")), toStrings(doc.getFieldValues("cuisines")));
+                }
+                String next = response.getNextCursorMark();
+                if (next == null || next.equals(cursor)) {
+                    break;
+                }
+                cursor = next;
+            }
+
+            SimilarityIndex built = builder.build(neighborsPerRecipe, maxFeatureFrequency);
+            index = built;
+            log.info("Computed the {} nearest neighbours of {} recipes in {} ms", neighborsPerRecipe,
+                    built.recipeCount(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (IOException | SolrServerException | RuntimeException e) {
+            log.warn("Failed to refresh the similarity index", e);
+        }
+    }
+
+    /**
+     * Records an interaction of a user with a recipe in the user's profile. Searches are ignored.
+     *
+     * @param userId The user id.
+     * @param recipeId The recipe id.
+     * @param type The kind of interaction.
+     * @param timestamp The time of the interaction in epoch milliseconds.
+     */
+    public void recordInteraction(String userId, String recipeId, UserEventType type, long timestamp) {
+        float weight = switch (type) {
+            case VIEW -> VIEW_WEIGHT;
+            case LIKE -> LIKE_WEIGHT;
+            case DISLIKE -> DISLIKE_WEIGHT;
+            case SEARCH -> 0f;
+        };
+        if (weight == 0f) {
+            return;
+        }
+        UserProfile profile;
+        synchronized (profiles) {
+            // Re-inserting moves the profile to the end, so the map stays ordered by latest interaction
+            profile = profiles.remove(userId);
+            if (profile == null) {
+                profile = new UserProfile(profileSize);
+            }
+            profiles.put(userId, profile);
+        }
+        profile.record(recipeId, weight, timestamp);
+    }
+
+    /**
+     * Finds the recipes most similar to a recipe.
+     *
+     * @param recipeId The recipe id.
+     * @param limit The maximum number of recipes to return.
+     * @return The similar recipes with their summaries, most similar first.
+     */
+    public List<Recommendation> findSimilar(String recipeId, int limit) {
+        return withSummaries("similar", index.similar(recipeId, limit));
+    }
+
+    /**
+     * Recommends recipes to a user based on the recipes they recently interacted with.
+     *
+     * @param userId The user id.
+     * @param limit The maximum number of recipes to return.
+     * @return The recommended recipes with their summaries, best first.
+     */
+    public List<Recommendation> recommend(String userId, int limit) {
+        UserProfile profile;
+        synchronized (profiles) {
+            profile = profiles.get(userId);
+        }
+        if (profile == null) {
+            throw new NotFoundException("No interactions recorded for user " + userId);
+        }
+        List<String> seedIds = new ArrayList<>(profileSize);
+        float[] seedWeights = profile.decayedWeights(System.currentTimeMillis(), halfLifeMillis, seedIds);
+        return withSummaries("recommend", index.recommend(seedIds, seedWeights, limit));
+    }
+
+    /**
+     * Drops the profiles of inactive users.
+     */
+    @Scheduled(fixedDelayString = "${plato.recommend.profile-cleanup-interval:10m}")
+    public void evictProfiles() {
+        long cutoff = System.currentTimeMillis() - profileTtlMillis;
+        int dropped;
+        synchronized (profiles) {
+            int before = profiles.size();
+            profiles.values().removeIf(profile -> profile.lastActivity() < cutoff);
+            dropped = before - profiles.size();
+        }
+        if (dropped > 0) {
+            log.info("Dropped {} inactive user profiles", dropped);
+        }
+    }
+
+    /**
+     * @return The number of recipes in the similarity index.
+     */
+    public int size() {
+        return index.recipeCount();
+    }
+
+    /**
+     * @return The number of user profiles in memory.
+     */
+    public int profileCount() {
+        synchronized (profiles) {
+            return profiles.size();
+        }
+    }
+
+    private List<Recommendation> withSummaries(String operation, List<Recommendation> recommendations) {
+        if (recommendations.isEmpty()) {
+            throw new NotFoundException("No recommendations found");
+        }
+        List<String> ids = new ArrayList<>(recommendations.size());
+        for (Recommendation recommendation : recommendations) {
+            ids.add(recommendation.recipeId());
+        }
+        ModifiableSolrParams params = new ModifiableSolrParams();
+        params.set(CommonParams.FL, RecipeProjection.SUMMARY.getFields());
+        Map<String, RecipeSummary> summaries = new HashMap<>();
+        try {
+            for (SolrDocument doc : solrQueryExecutor.getByIds(operation, ids, params)) {
+                RecipeSummary summary = RecipeDocumentMapper.toSummary(doc);
+                summaries.put(summary.getId(), summary);
+            }
+        } catch (IOException | SolrServerException e) {
+            throw new RecipeSearchException("Failed to query Solr", e);
+        }
+
+        List<Recommendation> result = new ArrayList<>(recommendations.size());
+        for (Recommendation recommendation : recommendations) {
+            RecipeSummary summary = summaries.get(recommendation.recipeId());
+            // Recipes deleted since the index was built are skipped
+            if (summary != null) {
+                result.add(recommendation.withRecipe(summary));
+            }
+        }
+        if (result.isEmpty()) {
+            throw new NotFoundException("No recommendations found");
+        }
+        return result;
+    }
+
+    private static List<String> toStrings(Collection<Object> values) {
+        if (values == null) {
+            return null;
+        }
+        List<String> strings = new ArrayList<>(values.size());
+        for (Object value : values) {
+            strings.add(String.valueOf(value));
+        }
+        return strings;
+    }
+}
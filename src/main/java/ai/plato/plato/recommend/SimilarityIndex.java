@@ -0,0 +1,389 @@
+package ai.plato.plato.recommend;
+
+import ai.plato.plato.helper.IngredientNormalizer;
+import ai.plato.plato.helper.TermDictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * SimilarityIndex holds the precomputed nearest neighbours of every recipe.
+ * <p>
+ * Each recipe is a sparse vector over its canonical ingredients and cuisines, weighted by inverse document
+ * frequency, and similarity is the cosine of two vectors. The neighbours are computed once per build through an
+ * inverted index, so a recipe is only compared with the recipes it shares a feature with; features shared by a
+ * large part of the catalog ("salt", "water") carry almost no signal and are skipped while scoring.
+ * </p>
+ * <p>
+ * The result is stored in flat primitive arrays: recipe ids sorted for binary search, and for every recipe a fixed
+ * slot of {@code neighborsPerRecipe} neighbour ordinals and scores, best first. Answering a query only reads these
+ * arrays.
+ * </p>
+ */
+final class SimilarityIndex {
+
+    static final SimilarityIndex EMPTY = new Builder().build(1, 1);
+
+    private static final int NO_NEIGHBOR = -1;
+    private static final int BUILD_CHUNK_SIZE = 1024;
+
+    private final String[] recipeIds;
+    private final int neighborsPerRecipe;
+    private final int[] neighbors;
+    private final float[] scores;
+
+    private SimilarityIndex(String[] recipeIds, int neighborsPerRecipe, int[] neighbors, float[] scores) {
+        this.recipeIds = recipeIds;
+        this.neighborsPerRecipe = neighborsPerRecipe;
+        this.neighbors = neighbors;
+        this.scores = scores;
+    }
+
+    /**
+     * @return The number of recipes in the index.
+     */
+    int recipeCount() {
+        return recipeIds.length;
+    }
+
+    /**
+     * @param recipeId A recipe id.
+     * @return The ordinal of the recipe, or a negative value if it is not indexed.
+     */
+    int ordinal(String recipeId) {
+        return Arrays.binarySearch(recipeIds, recipeId);
+    }
+
+    /**
+     * Returns the recipes most similar to a recipe.
+     *
+     * @param recipeId The recipe id.
+     * @param limit The maximum number of recipes to return.
+     * @return The similar recipes, most similar first; empty if the recipe is not indexed.
+     */
+    List<Recommendation> similar(String recipeId, int limit) {
+        int recipe = ordinal(recipeId);
+        if (recipe < 0) {
+            return List.of();
+        }
+        List<Recommendation> result = new ArrayList<>(Math.min(limit, neighborsPerRecipe));
+        int base = recipe * neighborsPerRecipe;
+        for (int k = 0; k < neighborsPerRecipe && result.size() < limit; k++) {
+            if (neighbors[base + k] == NO_NEIGHBOR) {
+                break;
+            }
+            result.add(new Recommendation(recipeIds[neighbors[base + k]], scores[base + k], null));
+        }
+        return result;
+    }
+
+    /**
+     * Scores recipes against a set of weighted seed recipes, e.g. the recent interactions of a user.
+     * <p>
+     * Every neighbour of a seed receives the seed's weight times its similarity; the sums are ranked. Seeds
+     * themselves are never recommended, and recipes with a non-positive total (mostly neighbours of disliked
+     * recipes) are dropped.
+     * </p>
+     *
+     * @param seedIds The ids of the seed recipes.
+     * @param seedWeights The weight of each seed, negative for dislikes.
+     * @param limit The maximum number of recipes to return.
+     * @return The recommended recipes, best first.
+     */
+    List<Recommendation> recommend(List<String> seedIds, float[] seedWeights, int limit) {
+        int[] seeds = new int[seedIds.size()];
+        BitSet seedSet = new BitSet(recipeIds.length);
+        for (int s = 0; s < seeds.length; s++) {
+            seeds[s] = ordinal(seedIds.get(s));
+            if (seeds[s] >= 0) {
+                seedSet.set(seeds[s]);
+            }
+        }
+
+        // Collect (candidate, contribution) pairs, then sum them per candidate after sorting by ordinal
+        int[] candidates = new int[seeds.length * neighborsPerRecipe];
+        float[] contributions = new float[candidates.length];
+        int count = 0;
+        for (int s = 0; s < seeds.length; s++) {
+            if (seeds[s] < 0) {
+                continue;
+            }
+            int base = seeds[s] * neighborsPerRecipe;
+            for (int k = 0; k < neighborsPerRecipe && neighbors[base + k] != NO_NEIGHBOR; k++) {
+                if (!seedSet.get(neighbors[base + k])) {
+                    candidates[count] = neighbors[base + k];
+                    contributions[count] = seedWeights[s] * scores[base + k];
+                    count++;
+                }
+            }
+        }
+        long[] byCandidate = new long[count];
+        for (int p = 0; p < count; p++) {
+            byCandidate[p] = ((long) candidates[p] << 32) | p;
+        }
+        Arrays.sort(byCandidate);
+
+        TopScores top = new TopScores(limit);
+        int p = 0;
+        while (p < count) {
+            int candidate = (int) (byCandidate[p] >>> 32);
+            float sum = 0;
+            for (; p < count && (int) (byCandidate[p] >>> 32) == candidate; p++) {
+                sum += contributions[(int) byCandidate[p]];
+            }
+            if (sum > 0) {
+                top.offer(candidate, sum);
+            }
+        }
+
+        int size = top.size();
+        int[] ranked = new int[size];
+        float[] rankedScores = new float[size];
+        top.drainDescending(ranked, rankedScores, 0);
+        List<Recommendation> result = new ArrayList<>(size);
+        for (int r = 0; r < size; r++) {
+            result.add(new Recommendation(recipeIds[ranked[r]], rankedScores[r], null));
+        }
+        return result;
+    }
+
+    /**
+     * TopScores keeps the best (ordinal, score) pairs seen, as a binary min-heap of longs. Scores must be positive,
+     * so that the bits of the float order like the float itself.
+     */
+    private static final class TopScores {
+
+        private final long[] heap;
+        private int size;
+
+        TopScores(int capacity) {
+            this.heap = new long[capacity];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void offer(int ordinal, float score) {
+            if (heap.length == 0) {
+                return;
+            }
+            long key = ((long) Float.floatToIntBits(score) << 32) | ordinal;
+            if (size < heap.length) {
+                heap[size] = key;
+                siftUp(size++);
+            } else if (key > heap[0]) {
+                heap[0] = key;
+                siftDown(0);
+            }
+        }
+
+        /**
+         * Empties the heap into the given arrays, best first.
+         */
+        void drainDescending(int[] ordinals, float[] scores, int offset) {
+            for (int k = size - 1; k >= 0; k--) {
+                long key = heap[0];
+                ordinals[offset + k] = (int) key;
+                scores[offset + k] = Float.intBitsToFloat((int) (key >>> 32));
+                heap[0] = heap[--size];
+                siftDown(0);
+            }
+        }
+
+        private void siftUp(int index) {
+            long key = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (heap[parent] <= key) {
+                    break;
+                }
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = key;
+        }
+
+        private void siftDown(int index) {
+            if (size == 0) {
+                return;
+            }
+            long key = heap[index];
+            int half = size >>> 1;
+            while (index < half) {
+                int child = 2 * index + 1;
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (key <= heap[child]) {
+                    break;
+                }
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = key;
+        }
+    }
+
+    /**
+     * Builder collects the features of all recipes and computes the neighbour lists in parallel.
+     */
+    static final class Builder {
+
+        private final TermDictionary dictionary;
+        private final List<String> recipeIds = new ArrayList<>();
+        private final List<int[]> recipeFeatures = new ArrayList<>();
+
+        Builder() {
+            // A dictionary per build holds only the features of the catalog, so it never fills up
+            this.dictionary = new TermDictionary(Integer.MAX_VALUE);
+        }
+
+        /**
+         * Adds a recipe. Ingredients and cuisines share one feature space: canonical ingredient names are lower
+         * case and canonical cuisines are title case, so their dictionary ids do not collide.
+         *
+         * @param recipeId The recipe id.
+         * @param ingredients The raw ingredient texts of the recipe.
+         * @param cuisines The cuisines of the recipe.
+         */
+        void add(String recipeId, Collection<String> ingredients, Collection<String> cuisines) {
+            if (recipeId == null) {
+                return;
+            }
+            BitSet features = new BitSet();
+            if (ingredients != null) {
+                for (String ingredient : ingredients) {
+                    addFeature(features, IngredientNormalizer.normalize(ingredient));
+                }
+            }
+            if (cuisines != null) {
+                for (String cuisine : cuisines) {
+                    addFeature(features, IngredientNormalizer.normalizeCuisine(cuisine));
+                }
+            }
+            if (!features.isEmpty()) {
+                recipeIds.add(recipeId);
+                recipeFeatures.add(features.stream().toArray());
+            }
+        }
+
+        private void addFeature(BitSet features, String term) {
+            int id = dictionary.id(term);
+            if (id != TermDictionary.UNKNOWN) {
+                features.set(id);
+            }
+        }
+
+        /**
+         * Computes the neighbour lists.
+         *
+         * @param neighborsPerRecipe The number of neighbours kept per recipe.
+         * @param maxFeatureFrequency Features found in more recipes than this are not used to find candidates.
+         * @return The index.
+         */
+        SimilarityIndex build(int neighborsPerRecipe, int maxFeatureFrequency) {
+            int recipeCount = recipeIds.size();
+            int[] order = IntStream.range(0, recipeCount).boxed()
+                    .sorted(Comparator.comparing(recipeIds::get))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            String[] ids = new String[recipeCount];
+            int[][] rows = new int[recipeCount][];
+            int featureCount = 0;
+            for (int r = 0; r < recipeCount; r++) {
+                ids[r] = recipeIds.get(order[r]);
+                rows[r] = recipeFeatures.get(order[r]);
+                featureCount = Math.max(featureCount, rows[r][rows[r].length - 1] + 1);
+            }
+
+            // Inverted index in compressed sparse row form; recipes are visited in order, so postings are sorted
+            int[] postingOffsets = new int[featureCount + 1];
+            for (int[] row : rows) {
+                for (int feature : row) {
+                    postingOffsets[feature + 1]++;
+                }
+            }
+            for (int f = 0; f < featureCount; f++) {
+                postingOffsets[f + 1] += postingOffsets[f];
+            }
+            int[] postings = new int[postingOffsets[featureCount]];
+            int[] cursor = new int[featureCount];
+            for (int r = 0; r < recipeCount; r++) {
+                for (int feature : rows[r]) {
+                    postings[postingOffsets[feature] + cursor[feature]++] = r;
+                }
+            }
+
+            float[] squaredWeights = new float[featureCount];
+            for (int f = 0; f < featureCount; f++) {
+                int frequency = postingOffsets[f + 1] - postingOffsets[f];
+                if (frequency > 0) {
+                    float idf = (float) Math.log(1.0 + (double) recipeCount / frequency);
+                    squaredWeights[f] = idf * idf;
+                }
+            }
+            float[] norms = new float[recipeCount];
+            for (int r = 0; r < recipeCount; r++) {
+                double sum = 0;
+                for (int feature : rows[r]) {
+                    sum += squaredWeights[feature];
+                }
+                norms[r] = (float) Math.sqrt(sum);
+            }
+
+            int[] neighbors = new int[recipeCount * neighborsPerRecipe];
+            float[] scores = new float[neighbors.length];
+            Arrays.fill(neighbors, NO_NEIGHBOR);
+            int chunks = (recipeCount + BUILD_CHUNK_SIZE - 1) / BUILD_CHUNK_SIZE;
+            int workers = Math.max(1, Math.min(chunks, ForkJoinPool.getCommonPoolParallelism()));
+            AtomicInteger nextChunk = new AtomicInteger();
+            IntStream.range(0, workers).parallel().forEach(worker -> {
+                // Scratch space is per worker, which claims chunks until none are left; the workers share nothing
+                // but read-only arrays and disjoint slots of the result
+                float[] dots = new float[recipeCount];
+                int[] touched = new int[recipeCount];
+                TopScores top = new TopScores(neighborsPerRecipe);
+                for (int chunk = nextChunk.getAndIncrement(); chunk < chunks; chunk = nextChunk.getAndIncrement()) {
+                    int end = Math.min(recipeCount, (chunk + 1) * BUILD_CHUNK_SIZE);
+                    for (int r = chunk * BUILD_CHUNK_SIZE; r < end; r++) {
+                        int touchedCount = 0;
+                        for (int feature : rows[r]) {
+                            int from = postingOffsets[feature];
+                            int to = postingOffsets[feature + 1];
+                            if (to - from > maxFeatureFrequency) {
+                                continue;
+                            }
+                            float weight = squaredWeights[feature];
+                            for (int p = from; p < to; p++) {
+                                int other = postings[p];
+                                if (other == r) {
+                                    continue;
+                                }
+                                if (dots[other] == 0) {
+                                    touched[touchedCount++] = other;
+                                }
+                                dots[other] += weight;
+                            }
+                        }
+                        for (int t = 0; t < touchedCount; t++) {
+                            int other = touched[t];
+                            top.offer(other, dots[other] / (norms[r] * norms[other]));
+                            dots[other] = 0;
+                        }
+                        top.drainDescending(neighbors, scores, r * neighborsPerRecipe);
+                    }
+                }
+            });
+
+            return new SimilarityIndex(ids, neighborsPerRecipe, neighbors, scores);
+        }
+    }
+}
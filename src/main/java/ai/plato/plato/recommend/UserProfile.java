@@ -0,0 +1,72 @@
+package ai.plato.plato.recommend;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * UserProfile is the rolling interaction history of one user: the most recent recipes viewed, liked or disliked,
+ * in a fixed-size ring. Older interactions fall out of the ring, and the remaining ones are weighted down with age
+ * when recommendations are computed.
+ */
+final class UserProfile {
+
+    private final String[] recipeIds;
+    private final float[] weights;
+    private final long[] timestamps;
+    private int next;
+    private int size;
+    private volatile long lastActivity;
+
+    UserProfile(int capacity) {
+        this.recipeIds = new String[capacity];
+        this.weights = new float[capacity];
+        this.timestamps = new long[capacity];
+    }
+
+    /**
+     * Records an interaction, replacing the oldest one if the ring is full.
+     *
+     * @param recipeId The recipe id.
+     * @param weight The weight of the interaction, negative for dislikes.
+     * @param timestamp The time of the interaction in epoch milliseconds.
+     */
+    synchronized void record(String recipeId, float weight, long timestamp) {
+        recipeIds[next] = recipeId;
+        weights[next] = weight;
+        timestamps[next] = timestamp;
+        next = (next + 1) % recipeIds.length;
+        size = Math.min(size + 1, recipeIds.length);
+        lastActivity = Math.max(lastActivity, timestamp);
+    }
+
+    /**
+     * Returns the interactions with their weight decayed by age, merged per recipe.
+     *
+     * @param now The current time in epoch milliseconds.
+     * @param halfLifeMillis The age at which an interaction counts half.
+     * @param seedIds An empty list that receives the recipe ids, most recent first.
+     * @return The decayed weight of each recipe in {@code seedIds}.
+     */
+    synchronized float[] decayedWeights(long now, long halfLifeMillis, List<String> seedIds) {
+        float[] merged = new float[size];
+        for (int i = 0; i < size; i++) {
+            int slot = Math.floorMod(next - 1 - i, recipeIds.length);
+            float weight = (float) (weights[slot] * Math.pow(0.5, (double) (now - timestamps[slot]) / halfLifeMillis));
+            int existing = seedIds.indexOf(recipeIds[slot]);
+            if (existing >= 0) {
+                merged[existing] += weight;
+            } else {
+                merged[seedIds.size()] = weight;
+                seedIds.add(recipeIds[slot]);
+            }
+        }
+        return Arrays.copyOf(merged, seedIds.size());
+    }
+
+    /**
+     * @return The time of the latest interaction in epoch milliseconds.
+     */
+    long lastActivity() {
+        return lastActivity;
+    }
+}
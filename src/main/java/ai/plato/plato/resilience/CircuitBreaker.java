@@ -0,0 +1,101 @@
+package ai.plato.plato.resilience;
+
+/**
+ * CircuitBreaker stops sending requests to a node after repeated failures and probes it again later.
+ * <p>
+ * The breaker is CLOSED while the node works. After {@code failureThreshold} consecutive failures it OPENs and
+ * rejects requests for {@code openDurationNanos}. Then it lets a single trial request through (HALF_OPEN): if the
+ * trial succeeds the breaker closes, otherwise it opens again for another period.
+ * </p>
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+
+    // All fields below are guarded by "this"
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+    private long opened;
+
+    CircuitBreaker(int failureThreshold, long openDurationNanos) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDurationNanos;
+    }
+
+    /**
+     * Checks whether a request may be sent, admitting the trial request of a half-open breaker.
+     *
+     * @return Whether the request may be sent.
+     */
+    synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAt < openDurationNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                return true;
+            default:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    /**
+     * @return Whether a request would currently be admitted, without admitting it.
+     */
+    synchronized boolean isAvailable() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> System.nanoTime() - openedAt >= openDurationNanos;
+            case HALF_OPEN -> !trialInFlight;
+        };
+    }
+
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    synchronized void onFailure() {
+        trialInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                opened++;
+            }
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Releases the trial slot of a request whose outcome says nothing about the node, e.g. a cancelled hedge.
+     */
+    synchronized void onIgnored() {
+        trialInFlight = false;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    /**
+     * @return How often the breaker has opened.
+     */
+    synchronized long openedCount() {
+        return opened;
+    }
+}
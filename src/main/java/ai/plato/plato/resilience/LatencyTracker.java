@@ -0,0 +1,56 @@
+package ai.plato.plato.resilience;
+
+import java.util.Arrays;
+
+/**
+ * LatencyTracker keeps the latencies of recent successful requests and estimates their 95th percentile.
+ * <p>
+ * Samples go into a fixed-size ring buffer. The percentile is recomputed from a sorted copy at most once per
+ * refresh interval and read from a volatile field in between, so the hot path only records a sample.
+ * </p>
+ */
+final class LatencyTracker {
+
+    private static final int MIN_SAMPLES = 20;
+
+    private final long[] samples;
+    private final long refreshIntervalNanos;
+
+    // Guarded by "this"
+    private int next;
+    private int count;
+
+    private volatile long p95Nanos = -1;
+    private volatile long computedAt;
+
+    LatencyTracker(int capacity, long refreshIntervalNanos) {
+        this.samples = new long[capacity];
+        this.refreshIntervalNanos = refreshIntervalNanos;
+    }
+
+    synchronized void record(long latencyNanos) {
+        samples[next] = latencyNanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    /**
+     * @return The 95th percentile of recent latencies in nanoseconds, or -1 while there are too few samples.
+     */
+    long p95() {
+        long now = System.nanoTime();
+        if (now - computedAt >= refreshIntervalNanos) {
+            long[] copy;
+            synchronized (this) {
+                if (count < MIN_SAMPLES) {
+                    return -1;
+                }
+                copy = Arrays.copyOf(samples, count);
+            }
+            Arrays.sort(copy);
+            p95Nanos = copy[(int) Math.ceil(copy.length * 0.95) - 1];
+            computedAt = now;
+        }
+        return p95Nanos;
+    }
+}
@@ -0,0 +1,451 @@
+package ai.plato.plato.resilience;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.impl.BinaryResponseParser;
+import org.apache.solr.client.solrj.impl.HttpSolrClient;
+import org.apache.solr.client.solrj.request.AbstractUpdateRequest;
+import org.apache.solr.client.solrj.request.QueryRequest;
+import org.apache.solr.client.solrj.request.SolrPing;
+import org.apache.solr.common.SolrException;
+import org.apache.solr.common.util.NamedList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * ResilientSolrClient spreads requests over several Solr replicas and shields callers from a slow or failing one.
+ * <p>
+ * Every node has its own client, a health flag maintained by a background ping, and a {@link CircuitBreaker}.
+ * Requests are routed round-robin over healthy nodes whose breaker is closed. Reads (queries and real-time gets)
+ * are idempotent and therefore:
+ * </p>
+ * <ul>
+ *     <li>hedged: if the first node has not answered within the recent 95th percentile latency, the same request
+ *     is sent to a second node and whichever answers first wins;</li>
+ *     <li>retried on another node after a connection error or a 5xx response, up to a bounded number of
+ *     attempts. Client errors (4xx) are returned immediately.</li>
+ * </ul>
+ * <p>
+ * Updates are sent once, to a single node, because retrying a non-idempotent update (e.g. an atomic
+ * {@code inc}) after a timeout could apply it twice.
+ * </p>
+ */
+public class ResilientSolrClient extends SolrClient {
+
+    private static final Logger log = LoggerFactory.getLogger(ResilientSolrClient.class);
+
+    private final List<SolrNode> nodes;
+    private final boolean hedgingEnabled;
+    private final long minHedgeDelayNanos;
+    private final long maxHedgeDelayNanos;
+    private final int maxAttempts;
+    private final LatencyTracker latencies;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService prober;
+    private final AtomicInteger roundRobin = new AtomicInteger();
+    private final LongAdder hedgedRequests = new LongAdder();
+    private final LongAdder retriedRequests = new LongAdder();
+
+    private ResilientSolrClient(Builder builder) {
+        List<SolrNode> created = new ArrayList<>(builder.baseUrls.size());
+        for (String baseUrl : builder.baseUrls) {
+            created.add(new SolrNode(baseUrl, builder.nodeClientFactory.apply(baseUrl),
+                    new CircuitBreaker(builder.failureThreshold, builder.openDuration.toNanos())));
+        }
+        this.nodes = List.copyOf(created);
+        this.hedgingEnabled = builder.hedgingEnabled;
+        this.minHedgeDelayNanos = builder.minHedgeDelay.toNanos();
+        this.maxHedgeDelayNanos = builder.maxHedgeDelay.toNanos();
+        this.maxAttempts = builder.maxAttempts;
+        this.latencies = new LatencyTracker(1024, TimeUnit.MILLISECONDS.toNanos(100));
+        this.prober = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("solr-prober").factory());
+        long probeMillis = builder.probeInterval.toMillis();
+        prober.scheduleWithFixedDelay(this::probeAll, probeMillis, probeMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public NamedList<Object> request(SolrRequest<?> request, String collection) throws SolrServerException, IOException {
+        return isIdempotent(request)
+                ? new ReadExecution(request, collection).run()
+                : write(request, collection);
+    }
+
+    @Override
+    public void close() throws IOException {
+        prober.shutdownNow();
+        executor.shutdownNow();
+        for (SolrNode node : nodes) {
+            node.client().close();
+        }
+    }
+
+    /**
+     * @return The number of reads for which a hedge request was sent.
+     */
+    public long hedgedRequests() {
+        return hedgedRequests.sum();
+    }
+
+    /**
+     * @return The number of reads that were retried on another node after a failure.
+     */
+    public long retriedRequests() {
+        return retriedRequests.sum();
+    }
+
+    /**
+     * @return The base URLs of all nodes, in configuration order.
+     */
+    public List<String> nodeUrls() {
+        return nodes.stream().map(SolrNode::baseUrl).toList();
+    }
+
+    /**
+     * @param baseUrl The base URL of a node.
+     * @return Whether the node passed its last health probe.
+     */
+    public boolean isHealthy(String baseUrl) {
+        return node(baseUrl).isHealthy();
+    }
+
+    /**
+     * @param baseUrl The base URL of a node.
+     * @return Whether the node's circuit breaker currently rejects requests.
+     */
+    public boolean isCircuitOpen(String baseUrl) {
+        return node(baseUrl).circuitBreaker().state() == CircuitBreaker.State.OPEN;
+    }
+
+    /**
+     * @param baseUrl The base URL of a node.
+     * @return How often the node's circuit breaker has opened.
+     */
+    public long circuitOpenedCount(String baseUrl) {
+        return node(baseUrl).circuitBreaker().openedCount();
+    }
+
+    /**
+     * Probes the health of every node now, instead of waiting for the next scheduled probe.
+     */
+    public void probeAll() {
+        for (SolrNode node : nodes) {
+            boolean healthy;
+            try {
+                healthy = new SolrPing().process(node.client()).getStatus() == 0;
+            } catch (SolrServerException | IOException | RuntimeException e) {
+                healthy = false;
+            }
+            if (healthy != node.isHealthy()) {
+                if (healthy) {
+                    log.info("Solr node {} is healthy again", node);
+                } else {
+                    log.warn("Solr node {} failed its health probe", node);
+                }
+            }
+            node.setHealthy(healthy);
+        }
+    }
+
+    private NamedList<Object> write(SolrRequest<?> request, String collection) throws SolrServerException, IOException {
+        for (SolrNode node : routingOrder()) {
+            if (node.circuitBreaker().tryAcquire()) {
+                try {
+                    return attempt(node, request, collection);
+                } catch (SolrServerException | IOException | RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new SolrServerException(e);
+                }
+            }
+        }
+        throw new SolrServerException("No Solr node is available");
+    }
+
+    private NamedList<Object> attempt(SolrNode node, SolrRequest<?> request, String collection) throws Exception {
+        long startNanos = System.nanoTime();
+        try {
+            NamedList<Object> response = node.client().request(request, collection);
+            latencies.record(System.nanoTime() - startNanos);
+            node.circuitBreaker().onSuccess();
+            return response;
+        } catch (Exception e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // A hedge that lost the race was cancelled; that says nothing about the node
+                node.circuitBreaker().onIgnored();
+            } else if (isNodeFailure(e)) {
+                node.circuitBreaker().onFailure();
+            } else {
+                node.circuitBreaker().onSuccess();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Orders the nodes for one request: rotated round-robin, healthy nodes first, nodes with an open breaker left out.
+     * Unhealthy nodes stay in the list as a last resort, since the probe may lag behind a recovery.
+     */
+    private List<SolrNode> routingOrder() {
+        int offset = Math.floorMod(roundRobin.getAndIncrement(), nodes.size());
+        List<SolrNode> healthy = new ArrayList<>(nodes.size());
+        List<SolrNode> unhealthy = new ArrayList<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            SolrNode node = nodes.get((offset + i) % nodes.size());
+            if (!node.circuitBreaker().isAvailable()) {
+                continue;
+            }
+            (node.isHealthy() ? healthy : unhealthy).add(node);
+        }
+        healthy.addAll(unhealthy);
+        return healthy;
+    }
+
+    private long hedgeDelayNanos() {
+        long p95 = latencies.p95();
+        if (p95 < 0) {
+            return maxHedgeDelayNanos;
+        }
+        return Math.max(minHedgeDelayNanos, Math.min(maxHedgeDelayNanos, p95));
+    }
+
+    private static boolean isIdempotent(SolrRequest<?> request) {
+        if (request instanceof AbstractUpdateRequest) {
+            return false;
+        }
+        return request instanceof QueryRequest || request.getMethod() == SolrRequest.METHOD.GET;
+    }
+
+    /**
+     * @return Whether an error indicates a problem with the node rather than with the request.
+     */
+    private static boolean isNodeFailure(Throwable error) {
+        if (error instanceof SolrException solrException) {
+            return solrException.code() >= 500 || solrException.code() <= 0;
+        }
+        return true;
+    }
+
+    private static SolrServerException unwrap(Throwable error) throws IOException {
+        if (error instanceof SolrServerException solrServerException) {
+            return solrServerException;
+        }
+        if (error instanceof IOException ioException) {
+            throw ioException;
+        }
+        if (error instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        return new SolrServerException(error);
+    }
+
+    private SolrNode node(String baseUrl) {
+        for (SolrNode node : nodes) {
+            if (node.baseUrl().equals(baseUrl)) {
+                return node;
+            }
+        }
+        throw new IllegalArgumentException("Unknown Solr node " + baseUrl);
+    }
+
+    /**
+     * ReadExecution runs one idempotent request: the first attempt, at most one hedge, and retries after failures.
+     */
+    private final class ReadExecution {
+
+        private final SolrRequest<?> request;
+        private final String collection;
+        private final List<SolrNode> order;
+        private final ExecutorCompletionService<NamedList<Object>> completion =
+                new ExecutorCompletionService<>(executor);
+        private final List<Future<NamedList<Object>>> futures = new ArrayList<>();
+        private int next;
+        private int attempts;
+        private int inFlight;
+
+        ReadExecution(SolrRequest<?> request, String collection) {
+            this.request = request;
+            this.collection = collection;
+            this.order = routingOrder();
+        }
+
+        NamedList<Object> run() throws SolrServerException, IOException {
+            Throwable lastError = null;
+            try {
+                if (!launch(true)) {
+                    throw new SolrServerException("No Solr node is available");
+                }
+                boolean hedged = !hedgingEnabled;
+                while (inFlight > 0) {
+                    Future<NamedList<Object>> done;
+                    if (!hedged) {
+                        done = completion.poll(hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+                        if (done == null) {
+                            hedged = true;
+                            // Hedges go to a different node only; a second request to a slow node does not help
+                            if (launch(false)) {
+                                hedgedRequests.increment();
+                            }
+                            continue;
+                        }
+                    } else {
+                        done = completion.take();
+                    }
+                    inFlight--;
+                    try {
+                        return done.get();
+                    } catch (ExecutionException e) {
+                        lastError = e.getCause();
+                        if (!isNodeFailure(lastError)) {
+                            break;
+                        }
+                        if (inFlight == 0 && launch(true)) {
+                            retriedRequests.increment();
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SolrServerException("Interrupted while waiting for Solr", e);
+            } finally {
+                for (Future<NamedList<Object>> future : futures) {
+                    future.cancel(true);
+                }
+            }
+            throw unwrap(lastError);
+        }
+
+        /**
+         * Sends the request to the next node in routing order whose breaker would admit it.
+         *
+         * @param mayRevisit Whether nodes that were already tried may be tried again (retries on a single node).
+         * @return Whether a request was sent.
+         */
+        private boolean launch(boolean mayRevisit) {
+            int limit = mayRevisit ? order.size() * maxAttempts : order.size();
+            while (attempts < maxAttempts && next < limit && !order.isEmpty()) {
+                SolrNode node = order.get(next++ % order.size());
+                if (!node.circuitBreaker().isAvailable()) {
+                    continue;
+                }
+                futures.add(completion.submit(() -> admitAndAttempt(node)));
+                attempts++;
+                inFlight++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Acquires the node's breaker only once the task runs, so that every admitted request reaches
+         * {@link #attempt} and reports its outcome. A hedge cancelled before it started must not keep the trial slot
+         * of a half-open breaker, which would take the node out of routing for good.
+         */
+        private NamedList<Object> admitAndAttempt(SolrNode node) throws Exception {
+            if (!node.circuitBreaker().tryAcquire()) {
+                // Another request took the trial slot since launch() checked the breaker
+                throw new SolrServerException("Circuit breaker of Solr node " + node + " rejected the request");
+            }
+            return attempt(node, request, collection);
+        }
+    }
+
+    /**
+     * Builder for ResilientSolrClient.
+     */
+    public static class Builder {
+
+        private final List<String> baseUrls;
+        private Function<String, SolrClient> nodeClientFactory = baseUrl -> new HttpSolrClient.Builder(baseUrl)
+                .withResponseParser(new BinaryResponseParser())
+                .build();
+        private Duration probeInterval = Duration.ofSeconds(5);
+        private boolean hedgingEnabled = true;
+        private Duration minHedgeDelay = Duration.ofMillis(10);
+        private Duration maxHedgeDelay = Duration.ofMillis(500);
+        private int maxAttempts = 3;
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        /**
+         * @param baseUrls The base URLs of the Solr nodes, including the core or collection path.
+         */
+        public Builder(List<String> baseUrls) {
+            if (baseUrls.isEmpty()) {
+                throw new IllegalArgumentException("At least one Solr base URL is required");
+            }
+            this.baseUrls = Collections.unmodifiableList(new ArrayList<>(baseUrls));
+        }
+
+        /**
+         * @param nodeClientFactory Creates the client talking to a single node from its base URL.
+         * @return This builder.
+         */
+        public Builder withNodeClientFactory(Function<String, SolrClient> nodeClientFactory) {
+            this.nodeClientFactory = nodeClientFactory;
+            return this;
+        }
+
+        /**
+         * @param probeInterval The interval between health probes of each node.
+         * @return This builder.
+         */
+        public Builder withProbeInterval(Duration probeInterval) {
+            this.probeInterval = probeInterval;
+            return this;
+        }
+
+        /**
+         * @param enabled Whether slow reads are hedged on a second node.
+         * @param minDelay The lower bound of the hedge delay.
+         * @param maxDelay The upper bound of the hedge delay, also used until enough latencies are known.
+         * @return This builder.
+         */
+        public Builder withHedging(boolean enabled, Duration minDelay, Duration maxDelay) {
+            this.hedgingEnabled = enabled;
+            this.minHedgeDelay = minDelay;
+            this.maxHedgeDelay = maxDelay;
+            return this;
+        }
+
+        /**
+         * @param maxAttempts The maximum number of requests sent for one read, including hedges and retries.
+         * @return This builder.
+         */
+        public Builder withMaxAttempts(int maxAttempts) {
+            this.maxAttempts = Math.max(1, maxAttempts);
+            return this;
+        }
+
+        /**
+         * @param failureThreshold The number of consecutive failures that opens a node's circuit breaker.
+         * @param openDuration How long an open breaker rejects requests before admitting a trial request.
+         * @return This builder.
+         */
+        public Builder withCircuitBreaker(int failureThreshold, Duration openDuration) {
+            this.failureThreshold = failureThreshold;
+            this.openDuration = openDuration;
+            return this;
+        }
+
+        public ResilientSolrClient build() {
+            return new ResilientSolrClient(this);
+        }
+    }
+}
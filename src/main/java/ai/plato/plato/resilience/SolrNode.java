@@ -0,0 +1,53 @@
+package ai.plato.plato.resilience;
+
+import org.apache.solr.client.solrj.SolrClient;
+
+/**
+ * SolrNode is one Solr replica behind the {@link ResilientSolrClient}: its client, its health as seen by the
+ * probe, and its circuit breaker.
+ */
+final class SolrNode {
+
+    private final String baseUrl;
+    private final SolrClient client;
+    private final CircuitBreaker circuitBreaker;
+    private volatile boolean healthy = true;
+
+    SolrNode(String baseUrl, SolrClient client, CircuitBreaker circuitBreaker) {
+        this.baseUrl = baseUrl;
+        this.client = client;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    SolrClient client() {
+        return client;
+    }
+
+    CircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+
+    boolean isHealthy() {
+        return healthy;
+    }
+
+    void setHealthy(boolean healthy) {
+        this.healthy = healthy;
+    }
+
+    /**
+     * @return Whether requests should be routed to this node.
+     */
+    boolean isAvailable() {
+        return healthy && circuitBreaker.isAvailable();
+    }
+
+    @Override
+    public String toString() {
+        return baseUrl;
+    }
+}
@@ -0,0 +1,272 @@
+package ai.plato.plato.service;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.params.CursorMarkParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * RandomRecipePool keeps a pre-shuffled copy of all recipe ids in memory to serve random feeds cheaply.
+ * <p>
+ * Sorting by a random field makes Solr compute a random value for every document in the index on each request.
+ * Instead, the pool loads the ids in the background, shuffles them once, and derives a page of a random feed by
+ * walking the shuffled array with a seed-dependent offset and stride. The same seed always yields the same
+ * sequence, so pages of a feed are consistent with each other, while different seeds yield different feeds.
+ * Only the ids of the requested page are then fetched from Solr.
+ * </p>
+ * <p>
+ * The loaded ids are sorted and shuffled with a fixed seed, so reloading an unchanged catalog reproduces the same
+ * order, even across restarts. Each distinct catalog gets a version marker derived from its ids, and new feed seeds
+ * carry the marker of the pool they started on in their low {@link #MARKER_BITS} bits ({@link #SORT_MARKER} for feeds
+ * started before the pool was loaded, which stay on the sort-based strategy). When the catalog changes, the
+ * previous version is retained, so a feed in progress keeps its order across one change.
+ * </p>
+ */
+@Component
+public class RandomRecipePool {
+
+    /**
+     * The number of low seed bits holding the version marker of the pool a feed started on.
+     */
+    public static final int MARKER_BITS = 16;
+
+    /**
+     * The version marker of feeds served by sorting on a random field, before the pool was loaded.
+     */
+    public static final int SORT_MARKER = 0;
+
+    private static final Logger log = LoggerFactory.getLogger(RandomRecipePool.class);
+    private static final int FETCH_BATCH_SIZE = 10_000;
+    private static final long MARKER_MASK = (1L << MARKER_BITS) - 1;
+    private static final long SHUFFLE_SEED = 0x5DEECE66DL;
+    private static final Snapshot EMPTY = new Snapshot(SORT_MARKER, new String[0], new String[0]);
+
+    private final SolrClient solrClient;
+    private final boolean enabled;
+    private final int maxSize;
+    private volatile Snapshot current = EMPTY;
+    private volatile Snapshot previous = EMPTY;
+
+    /**
+     * Constructs RandomRecipePool.
+     *
+     * @param solrClient The Solr client instance used for loading recipe ids.
+     * @param enabled Whether the pool is loaded at all.
+     * @param maxSize Maximum number of ids kept in memory.
+     */
+    public RandomRecipePool(
+            SolrClient solrClient,
+            @Value("${plato.random.pool-enabled:true}") boolean enabled,
+            @Value("${plato.random.pool-max-size:2000000}") int maxSize) {
+        this.solrClient = solrClient;
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Reloads the ids of all recipes, and reshuffles them if the catalog changed.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${plato.random.pool-refresh-interval:10m}")
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<String> loaded = new ArrayList<>();
+            SolrQuery query = new SolrQuery("*:*");
+            query.setFields("id");
+            query.setRows(FETCH_BATCH_SIZE);
+            query.addSort("id", SolrQuery.ORDER.asc);
+            String cursor = CursorMarkParams.CURSOR_MARK_START;
+            while (loaded.size() < maxSize) {
+                query.set(CursorMarkParams.CURSOR_MARK_PARAM, cursor);
+                QueryResponse response = solrClient.query(query);
+                for (SolrDocument doc : response.getResults()) {
+                    loaded.add((String) doc.getFirstValue("id"));
+                }
+                String next = response.getNextCursorMark();
+                if (next == null || next.equals(cursor)) {
+                    break;
+                }
+                cursor = next;
+            }
+
+            // Solr's byte order and String order can differ, so the canonical order is established here
+            String[] sorted = loaded.toArray(new String[0]);
+            Arrays.sort(sorted);
+            Snapshot active = current;
+            if (Arrays.equals(sorted, active.sorted())) {
+                return;
+            }
+            reuseInstances(sorted, active.sorted());
+
+            String[] shuffled = sorted.clone();
+            SplittableRandom random = new SplittableRandom(SHUFFLE_SEED);
+            for (int i = shuffled.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                String tmp = shuffled[i];
+                shuffled[i] = shuffled[j];
+                shuffled[j] = tmp;
+            }
+            // The previous version only serves feeds in progress, which never need its canonical order
+            previous = new Snapshot(active.marker(), EMPTY.sorted(), active.shuffled());
+            current = new Snapshot(versionMarker(sorted, active.marker()), sorted, shuffled);
+            log.info("Loaded {} recipe ids into the random pool (version {})", shuffled.length, current.marker());
+        } catch (IOException | SolrServerException | RuntimeException e) {
+            log.warn("Failed to refresh the random recipe pool", e);
+        }
+    }
+
+    /**
+     * @return Whether the pool has been loaded and can serve random pages.
+     */
+    public boolean isReady() {
+        return current.shuffled().length > 0;
+    }
+
+    /**
+     * @return The number of ids in the pool.
+     */
+    public int size() {
+        return current.shuffled().length;
+    }
+
+    /**
+     * Creates the seed of a new feed, marked with the current pool version, or with {@link #SORT_MARKER} while the
+     * pool is not loaded.
+     *
+     * @return A non-negative seed.
+     */
+    public long newSeed() {
+        long seed = ThreadLocalRandom.current().nextLong(Long.MAX_VALUE);
+        return (seed & ~MARKER_MASK) | current.marker();
+    }
+
+    /**
+     * Whether a feed is served from the pool. Feeds started before the pool was loaded stay on the sort-based
+     * strategy, so their order never changes partway through.
+     *
+     * @param seed The seed of the feed.
+     * @return Whether {@link #page} serves the feed.
+     */
+    public boolean serves(long seed) {
+        return isReady() && (seed & MARKER_MASK) != SORT_MARKER;
+    }
+
+    /**
+     * Returns the number of ids in the pool version a feed is served from.
+     *
+     * @param seed The seed of the feed.
+     * @return The number of ids.
+     */
+    public int size(long seed) {
+        return snapshot(seed).shuffled().length;
+    }
+
+    /**
+     * Returns the ids of one page of the random feed identified by a seed. The feed is served from the pool
+     * version named by the seed's marker if it is retained, otherwise from the current version.
+     *
+     * @param seed The seed identifying the feed.
+     * @param start The index of the first id in the feed.
+     * @param rows The number of ids to return.
+     * @return The ids of the page, empty if the page is past the end of the feed.
+     */
+    public List<String> page(long seed, int start, int rows) {
+        String[] pool = snapshot(seed).shuffled();
+        int n = pool.length;
+        List<String> page = new ArrayList<>(rows);
+        if (n == 0 || start >= n) {
+            return page;
+        }
+
+        // Visiting (offset + i * stride) mod n for i = 0..n-1 is a permutation of the pool when stride and n are coprime
+        long mixed = mix(seed);
+        long offset = Math.floorMod(mixed, n);
+        long stride = 1 + Math.floorMod(mixed >>> 32, n);
+        while (gcd(stride, n) != 1) {
+            stride++;
+        }
+
+        int end = Math.min(n, start + rows);
+        for (int i = start; i < end; i++) {
+            page.add(pool[(int) ((offset + i * stride) % n)]);
+        }
+        return page;
+    }
+
+    private Snapshot snapshot(long seed) {
+        int marker = (int) (seed & MARKER_MASK);
+        Snapshot older = previous;
+        return marker == older.marker() && marker != SORT_MARKER ? older : current;
+    }
+
+    /**
+     * Derives the version marker of a catalog from its ids, so an unchanged catalog keeps its marker across restarts.
+     * The marker never equals {@link #SORT_MARKER} or the marker of the version it replaces.
+     */
+    private static int versionMarker(String[] sorted, int replacedMarker) {
+        int marker = (int) (Arrays.hashCode(sorted) & MARKER_MASK);
+        while (marker == SORT_MARKER || marker == replacedMarker) {
+            marker = (int) ((marker + 1) & MARKER_MASK);
+        }
+        return marker;
+    }
+
+    /**
+     * Replaces ids of a new load by the equal String instances of the previous load, so retained versions share
+     * their ids instead of holding two copies of the catalog.
+     */
+    private static void reuseInstances(String[] sorted, String[] previousSorted) {
+        int j = 0;
+        for (int i = 0; i < sorted.length && j < previousSorted.length; i++) {
+            while (j < previousSorted.length && previousSorted[j].compareTo(sorted[i]) < 0) {
+                j++;
+            }
+            if (j < previousSorted.length && previousSorted[j].equals(sorted[i])) {
+                sorted[i] = previousSorted[j++];
+            }
+        }
+    }
+
+    private static long mix(long seed) {
+        // SplitMix64 finalizer, so nearby seeds produce unrelated offsets and strides
+        long z = seed + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /**
+     * Snapshot is one version of the pool.
+     *
+     * @param marker The version marker carried by the seeds of feeds started on this version.
+     * @param sorted The ids in canonical order.
+     * @param shuffled The ids in feed order.
+     */
+    private record Snapshot(int marker, String[] sorted, String[] shuffled) {
+    }
+}
@@ -0,0 +1,132 @@
+package ai.plato.plato.service;
+
+import ai.plato.plato.exception.RecipeSearchException;
+import ai.plato.plato.exception.SolrOverloadedException;
+import ai.plato.plato.helper.RecipeDocumentMapper;
+import ai.plato.plato.helper.RecipeSolrQueryBuilder;
+import ai.plato.plato.model.RecipeProjection;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.params.CursorMarkParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Semaphore;
+
+/**
+ * RecipeExportService streams the whole catalog as newline-delimited JSON.
+ * <p>
+ * The export walks the index with a cursor sorted by id, one batch at a time, and writes every recipe to the
+ * output as soon as it is mapped. Memory use is bounded by the batch size, regardless of the catalog size, and a
+ * Solr request slot is only held while a batch is fetched, so long exports do not starve interactive requests.
+ * The number of exports running at once is limited separately.
+ * </p>
+ */
+@Service
+public class RecipeExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecipeExportService.class);
+
+    private final SolrQueryExecutor solrQueryExecutor;
+    private final ObjectWriter fullWriter;
+    private final ObjectWriter projectedWriter;
+    private final int batchSize;
+    private final Semaphore exports;
+
+    /**
+     * Constructs RecipeExportService.
+     *
+     * @param solrQueryExecutor The executor used for fetching batches from Solr.
+     * @param objectMapper The application's JSON mapper, so exported recipes look like API responses.
+     * @param batchSize The number of recipes fetched from Solr per request.
+     * @param maxConcurrentExports Maximum number of exports running at once.
+     */
+    public RecipeExportService(
+            SolrQueryExecutor solrQueryExecutor,
+            ObjectMapper objectMapper,
+            @Value("${plato.export.batch-size:1000}") int batchSize,
+            @Value("${plato.export.max-concurrent:4}") int maxConcurrentExports) {
+        this.solrQueryExecutor = solrQueryExecutor;
+        // Lines are flushed per batch rather than per recipe. Recipes are written as root values of one generator,
+        // which separates them with a space unless told otherwise
+        this.fullWriter = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+        // Fields left out by the projection are omitted instead of written as null
+        this.projectedWriter = objectMapper.copy()
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+        this.batchSize = batchSize;
+        this.exports = new Semaphore(maxConcurrentExports);
+    }
+
+    /**
+     * Writes all recipes to an output stream, one JSON object per line.
+     * <p>
+     * The export slot is taken when the export starts and released when it ends, so a response that is never
+     * streamed, e.g. because the client went away first, holds no slot. A rejected export has not written
+     * anything yet, so the client still receives an error status.
+     * </p>
+     *
+     * @param fields Comma-separated Solr field list to export, or null for full recipes.
+     * @param out The stream to write to. It is flushed after every batch but not closed.
+     * @throws IOException If writing to the stream fails, e.g. because the client disconnected.
+     * @throws SolrOverloadedException If the maximum number of concurrent exports is reached.
+     */
+    public void export(String fields, OutputStream out) throws IOException {
+        ObjectWriter writer = fields == null ? fullWriter : projectedWriter;
+        SolrQuery query = new SolrQuery("*:*");
+        query.setRows(batchSize);
+        query.setFields(fields != null ? fields : RecipeProjection.FULL.getFields());
+        RecipeSolrQueryBuilder.applyCursorSort(query, false);
+
+        long exported = 0;
+        long startNanos = System.nanoTime();
+        if (!exports.tryAcquire()) {
+            throw new SolrOverloadedException("Too many concurrent exports");
+        }
+        try (JsonGenerator generator = writer.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            String cursor = CursorMarkParams.CURSOR_MARK_START;
+            while (true) {
+                query.set(CursorMarkParams.CURSOR_MARK_PARAM, cursor);
+                QueryResponse response = solrQueryExecutor.query("export", query);
+                for (SolrDocument document : response.getResults()) {
+                    writer.writeValue(generator, RecipeDocumentMapper.toRecipe(document));
+                    exported++;
+                }
+                generator.flush();
+
+                String next = response.getNextCursorMark();
+                if (next == null || next.equals(cursor)) {
+                    break;
+                }
+                cursor = next;
+            }
+            if (exported > 0) {
+                // The separator only goes between recipes, so the last line is terminated here
+                generator.writeRaw('\n');
+            }
+        } catch (SolrServerException e) {
+            // The response is already committed, so the client sees a truncated stream
+            log.warn("Export aborted after {} recipes", exported, e);
+            throw new RecipeSearchException("Failed to query Solr", e);
+        } finally {
+            exports.release();
+        }
+        log.info("Exported {} recipes in {} ms", exported, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+}
@@ -0,0 +1,71 @@
+package ai.plato.plato.service;
+
+import ai.plato.plato.cache.ResultCache;
+import ai.plato.plato.cache.SingleFlight;
+import ai.plato.plato.exception.RecipeSearchException;
+import ai.plato.plato.helper.RecipeFacets;
+import ai.plato.plato.helper.RecipeSolrQueryBuilder;
+import ai.plato.plato.model.FacetBucket;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RecipeFacetService provides the facet counts over the whole catalog, which the UI shows as filter options
+ * before the user has searched for anything.
+ * <p>
+ * The counts are identical for every user and change only slowly, so they are computed with a single rows=0
+ * query and kept for a short time-to-live. Concurrent requests after expiry share one Solr request.
+ * </p>
+ */
+@Service
+public class RecipeFacetService {
+
+    private static final String BASELINE_KEY = "baseline";
+
+    private final SolrQueryExecutor solrQueryExecutor;
+    private final ResultCache<String, Map<String, List<FacetBucket>>> cache;
+    private final SingleFlight<String, Map<String, List<FacetBucket>>> inFlight = new SingleFlight<>();
+
+    /**
+     * Constructs RecipeFacetService.
+     *
+     * @param solrQueryExecutor The executor used for querying the index.
+     * @param ttl How long baseline counts are served from memory.
+     */
+    public RecipeFacetService(
+            SolrQueryExecutor solrQueryExecutor,
+            @Value("${plato.facets.baseline-ttl:60s}") Duration ttl) {
+        this.solrQueryExecutor = solrQueryExecutor;
+        // A single small entry; the weight limit only has to admit it
+        this.cache = new ResultCache<>("baseline-facets", true, Long.MAX_VALUE, ttl, facets -> 1);
+    }
+
+    /**
+     * Returns the facet counts over all recipes.
+     *
+     * @return The buckets of each facet by facet name.
+     */
+    public Map<String, List<FacetBucket>> baselineFacets() {
+        Map<String, List<FacetBucket>> cached = cache.get(BASELINE_KEY);
+        if (cached != null) {
+            return cached;
+        }
+        return inFlight.execute(BASELINE_KEY, () -> {
+            SolrQuery query = RecipeFacets.apply(new RecipeSolrQueryBuilder("*:*").setStartAndRows(0, 0)).build();
+            try {
+                Map<String, List<FacetBucket>> facets = RecipeFacets.parse(solrQueryExecutor.query("facets", query));
+                cache.put(BASELINE_KEY, facets, null);
+                return facets;
+            } catch (IOException | SolrServerException e) {
+                throw new RecipeSearchException("Failed to query Solr", e);
+            }
+        });
+    }
+}
@@ -1,20 +1,44 @@
 package ai.plato.plato.service;
 
+import ai.plato.plato.cache.RecipeCache;
+import ai.plato.plato.cache.RecipePageCache;
+import ai.plato.plato.cache.SingleFlight;
+import ai.plato.plato.cache.SolrQueryKeys;
+import ai.plato.plato.embedding.EmbeddingService;
 import ai.plato.plato.exception.NotFoundException;
 import ai.plato.plato.exception.RecipeSearchException;
+import ai.plato.plato.helper.PopularityScore;
+import ai.plato.plato.helper.RecipeDocumentMapper;
+import ai.plato.plato.helper.RecipeFacets;
 import ai.plato.plato.helper.RecipeSolrQueryBuilder;
+import ai.plato.plato.helper.RecipeSolrQueryBuilder.FilterHints;
+import ai.plato.plato.metrics.RecipeMetrics;
 import ai.plato.plato.model.Recipe;
+import ai.plato.plato.model.RecipeBatch;
 import ai.plato.plato.model.RecipePage;
-import org.apache.solr.client.solrj.SolrClient;
+import ai.plato.plato.model.RecipeProjection;
+import ai.plato.plato.model.RecipeRanking;
+import ai.plato.plato.model.RecipeView;
 import org.apache.solr.client.solrj.SolrQuery;
 import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
+import org.apache.solr.common.params.CommonParams;
+import org.apache.solr.common.params.CursorMarkParams;
+import org.apache.solr.common.params.ModifiableSolrParams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -25,15 +49,54 @@ import java.util.Set;
 public class RecipeService {
 
     private static final Logger log = LoggerFactory.getLogger(RecipeService.class);
-    private final SolrClient solrClient;
+    private static final int COOKING_TIME_FILTER_COST = 50;
+    private final SolrQueryExecutor solrQueryExecutor;
+    private final RecipePageCache recipePageCache;
+    private final RecipeCache recipeCache;
+    private final RandomRecipePool randomRecipePool;
+    private final RecipeMetrics recipeMetrics;
+    private final RecipeRanking ranking;
+    private final int rerankDocs;
+    private final double rerankWeight;
+    private final EmbeddingService embeddingService;
+    private final int semanticTopK;
+    private final double hybridLexicalWeight;
+    private final SingleFlight<String, RecipePage<?>> inFlightQueries = new SingleFlight<>();
 
     /**
-     * Constructs RecipeService with a Solr client.
+     * Constructs RecipeService with a Solr query executor.
      *
-     * @param solrClient The Solr client instance used for querying the index.
+     * @param solrQueryExecutor The executor used for querying the index with bounded concurrency.
+     * @param recipePageCache Cache for pages returned by findAll and searchRecipes.
+     * @param recipeCache Cache for recipes looked up by id.
+     * @param randomRecipePool Pre-shuffled pool of recipe ids used for random feeds.
+     * @param recipeMetrics Metrics recording the time spent mapping documents.
+     * @param ranking How popularity is blended into search ranking: "bf", "field" or "rerank".
+     * @param rerankDocs The number of top documents reranked in "rerank" mode.
+     * @param rerankWeight The weight of the popularity score in "rerank" mode.
+     * @param embeddingService The service computing query vectors for semantic search.
+     * @param semanticTopK The number of nearest neighbours retrieved by semantic search.
+     * @param hybridLexicalWeight The weight of the lexical score when hybrid search reranks semantic candidates.
      */
-    public RecipeService(SolrClient solrClient) {
-        this.solrClient = solrClient;
+    public RecipeService(SolrQueryExecutor solrQueryExecutor, RecipePageCache recipePageCache,
+                         RecipeCache recipeCache, RandomRecipePool randomRecipePool, RecipeMetrics recipeMetrics,
+                         @Value("${plato.search.ranking:bf}") String ranking,
+                         @Value("${plato.search.rerank-docs:200}") int rerankDocs,
+                         @Value("${plato.search.rerank-weight:1.0}") double rerankWeight,
+                         EmbeddingService embeddingService,
+                         @Value("${plato.search.semantic.top-k:100}") int semanticTopK,
+                         @Value("${plato.search.semantic.hybrid-lexical-weight:1.0}") double hybridLexicalWeight) {
+        this.solrQueryExecutor = solrQueryExecutor;
+        this.recipePageCache = recipePageCache;
+        this.recipeCache = recipeCache;
+        this.randomRecipePool = randomRecipePool;
+        this.recipeMetrics = recipeMetrics;
+        this.ranking = RecipeRanking.fromParam(ranking);
+        this.rerankDocs = rerankDocs;
+        this.rerankWeight = rerankWeight;
+        this.embeddingService = embeddingService;
+        this.semanticTopK = semanticTopK;
+        this.hybridLexicalWeight = hybridLexicalWeight;
     }
 
     /**
@@ -43,31 +106,37 @@ public class RecipeService {
      * @param pageSize The number of recipes per page.
      * @return A RecipePage containing the requested recipes.
      */
-    public RecipePage findAll(Integer pageNumber, Integer pageSize) {
+    public RecipePage<?> findAll(Integer pageNumber, Integer pageSize) {
+        return findAll(pageNumber, pageSize, null, RecipeProjection.FULL);
+    }
+
+    /**
+     * Fetches a page of all available recipes, using cursor-based paging when a cursor is supplied.
+     *
+     * @param pageNumber The page number to retrieve (echoed back in cursor mode).
+     * @param pageSize The number of recipes per page.
+     * @param cursor The cursor returned with the previous page, "*" to start a traversal, or null for offset paging.
+     * @param projection The recipe representation to return.
+     * @return A RecipePage containing the requested recipes.
+     */
+    public RecipePage<?> findAll(
+            Integer pageNumber, Integer pageSize, String cursor, RecipeProjection projection) {
         // Solr indexing starts from 0 so page number needs to be adjusted
         Integer solrPageNumber = pageNumber - 1;
 
         final SolrQuery query = new SolrQuery("*:*");
-        query.setStart(solrPageNumber * pageSize);
+        if (cursor != null) {
+            query.setStart(0);
+            query.set(CursorMarkParams.CURSOR_MARK_PARAM, cursor);
+            RecipeSolrQueryBuilder.applyCursorSort(query, false);
+        } else {
+            query.setStart(solrPageNumber * pageSize);
+        }
         query.setRows(pageSize);
+        query.setFields(projection.getFields());
 
-        try {
-            log.info("Fetching " +pageSize + " recipes on solr page " + solrPageNumber);
-
-            final QueryResponse response = solrClient.query(query);
-
-            long totalDocs = response.getResults().getNumFound();
-            boolean exact = response.getResults().getNumFoundExact();
-            List<Recipe> recipes = response.getBeans(Recipe.class);
-
-            if (recipes == null || recipes.isEmpty()) {
-                throw new NotFoundException("No recipes found");
-            }
-
-            return new RecipePage(recipes, pageNumber, pageSize, totalDocs);
-        } catch (IOException | SolrServerException e) {
-            throw new RecipeSearchException("Failed to query Solr", e);
-        }
+        log.info("Fetching {} recipes on solr page {}", pageSize, solrPageNumber);
+        return fetchPage("findAll", query, pageNumber, pageSize, cursor, projection);
     }
 
     /**
@@ -82,7 +151,7 @@ public class RecipeService {
      * @param cookingTimeMax Maximum cooking time.
      * @return A RecipePage with matching recipes.
      */
-    public RecipePage searchRecipes(
+    public RecipePage<?> searchRecipes(
             String query,
             Integer pageNumber,
             Integer pageSize,
@@ -90,43 +159,118 @@ public class RecipeService {
             String uploadedBy,
             Integer cookingTimeMin,
             Integer cookingTimeMax) {
+        return searchRecipes(query, pageNumber, pageSize, null, RecipeProjection.FULL,
+                matchTypes, uploadedBy, cookingTimeMin, cookingTimeMax, false);
+    }
+
+    /**
+     * Searches for recipes with filters and boost functions, using cursor-based paging when a cursor is supplied.
+     *
+     * @param query Search term.
+     * @param pageNumber Page number (echoed back in cursor mode).
+     * @param pageSize Results per page.
+     * @param cursor The cursor returned with the previous page, "*" to start a traversal, or null for offset paging.
+     * @param projection The recipe representation to return.
+     * @param matchTypes Fields to match.
+     * @param uploadedBy Filter by uploader.
+     * @param cookingTimeMin Minimum cooking time.
+     * @param cookingTimeMax Maximum cooking time.
+     * @param facets Whether to return facet counts for the result set along with the page.
+     * @return A RecipePage with matching recipes.
+     */
+    public RecipePage<?> searchRecipes(
+            String query,
+            Integer pageNumber,
+            Integer pageSize,
+            String cursor,
+            RecipeProjection projection,
+            Set<String> matchTypes,
+            String uploadedBy,
+            Integer cookingTimeMin,
+            Integer cookingTimeMax,
+            boolean facets) {
         // Solr indexing starts from 0 so page number needs to be adjusted
         Integer solrPageNumber = pageNumber - 1;
 
-        // Define boost functions for popularity/relevance: views, likes, like/dislike ratio
-        String boostFunctions = "pow(log(sum(views,1)),0.5) pow(log(sum(likes,1)),1.0) pow(div(likes,sum(likes,dislikes,1)),1.5)";
-
         // Build Solr query using builder pattern
         RecipeSolrQueryBuilder builder = new RecipeSolrQueryBuilder(query)
                 .applyMatchTypes(matchTypes)
-                .addBoostFunctions(boostFunctions)
-                .setStartAndRows(solrPageNumber * pageSize, pageSize);
-
-        // Add additional filters (cooking time, prep time, creator, etc.)
-        if (uploadedBy != null) {
-            builder.addFilter("uploaded_by:\"" + uploadedBy + "\"");
+                .setFields(projection.getFields());
+        applyRanking(builder, cursor != null);
+        if (cursor != null) {
+            builder.setCursor(cursor, pageSize);
+        } else {
+            builder.setStartAndRows(solrPageNumber * pageSize, pageSize);
         }
-        if (cookingTimeMax != null) {
-            builder.addFilter("cooking_time:[" + cookingTimeMin + " TO " + cookingTimeMax + "]");
+
+        // Add additional filters (cooking time, prep time, creator, etc.), tagged so their facets can exclude them
+        builder.addTermFilter("uploaded_by", uploadedBy, FilterHints.tagged(RecipeFacets.UPLOADED_BY));
+        // Cooking time ranges are picked freely by users, so caching them would only churn the filterCache
+        builder.addRangeFilter("cooking_time", cookingTimeMin, cookingTimeMax,
+                FilterHints.uncached(COOKING_TIME_FILTER_COST).withTag(RecipeFacets.COOKING_TIME));
+        if (facets) {
+            RecipeFacets.apply(builder);
         }
 
         final SolrQuery solrQuery = builder.build();
 
-        try {
-            log.info("RecipeService: Searching for recipes");
-
-            final QueryResponse response = solrClient.query(solrQuery);
-            long totalDocs = response.getResults().getNumFound();
-            List<Recipe> recipes = response.getBeans(Recipe.class);
+        log.info("RecipeService: Searching for recipes");
+        return fetchPage("search", solrQuery, pageNumber, pageSize, cursor, projection);
+    }
 
-            if (recipes == null || recipes.isEmpty()) {
-                throw new NotFoundException("No recipes found");
-            }
+    /**
+     * Searches for recipes by meaning: the recipes whose embedding vectors are nearest to the query's vector,
+     * optionally reranked by the lexical score of the query. Only offset paging is supported, because the nearest
+     * neighbour search returns a bounded candidate set rather than a full ranking.
+     *
+     * @param query Search term.
+     * @param pageNumber Page number.
+     * @param pageSize Results per page.
+     * @param projection The recipe representation to return.
+     * @param matchTypes Fields matched by the lexical rerank in hybrid mode.
+     * @param uploadedBy Filter by uploader.
+     * @param cookingTimeMin Minimum cooking time.
+     * @param cookingTimeMax Maximum cooking time.
+     * @param facets Whether to return facet counts for the result set along with the page.
+     * @param hybrid Whether to rerank the semantic candidates with the lexical score.
+     * @return A RecipePage with matching recipes.
+     */
+    public RecipePage<?> semanticSearch(
+            String query,
+            Integer pageNumber,
+            Integer pageSize,
+            RecipeProjection projection,
+            Set<String> matchTypes,
+            String uploadedBy,
+            Integer cookingTimeMin,
+            Integer cookingTimeMax,
+            boolean facets,
+            boolean hybrid) {
+        float[] vector = embeddingService.embedQuery(query);
+        if (vector == null) {
+            throw new NotFoundException("No recipes found");
+        }
+        int start = (pageNumber - 1) * pageSize;
+        // Deep pages need more neighbours than the default candidate set
+        int topK = Math.max(semanticTopK, start + pageSize);
 
-            return new RecipePage(recipes, pageNumber, pageSize, totalDocs);
-        } catch (IOException | SolrServerException e) {
-            throw new RecipeSearchException("Failed to query Solr", e);
+        RecipeSolrQueryBuilder builder = new RecipeSolrQueryBuilder(query)
+                .applyMatchTypes(matchTypes)
+                .setFields(projection.getFields())
+                .setKnnQuery(EmbeddingService.FIELD, vector, topK)
+                .setStartAndRows(start, pageSize);
+        if (hybrid) {
+            builder.setRerank("{!edismax v=$userq}", topK, hybridLexicalWeight);
+        }
+        builder.addTermFilter("uploaded_by", uploadedBy, FilterHints.tagged(RecipeFacets.UPLOADED_BY));
+        builder.addRangeFilter("cooking_time", cookingTimeMin, cookingTimeMax,
+                FilterHints.uncached(COOKING_TIME_FILTER_COST).withTag(RecipeFacets.COOKING_TIME));
+        if (facets) {
+            RecipeFacets.apply(builder);
         }
+
+        log.info("RecipeService: Searching for recipes semantically");
+        return fetchPage(hybrid ? "hybrid" : "semantic", builder.build(), pageNumber, pageSize, null, projection);
     }
 
     /**
@@ -136,30 +280,277 @@ public class RecipeService {
      * @param pageSize The number of recipes per page.
      * @return A RecipePage containing random recipes.
      */
-    public RecipePage findRandom(Integer pageNumber, Integer pageSize) {
+    public RecipePage<?> findRandom(Integer pageNumber, Integer pageSize) {
+        return findRandom(pageNumber, pageSize, null, RecipeProjection.FULL);
+    }
+
+    /**
+     * Fetches a page of a seeded random feed of recipes.
+     * The same seed always yields the same feed, so clients page through it by passing back the seed of the
+     * first page. A feed keeps the strategy it started with (sorting in Solr before the id pool is loaded, the pool
+     * afterwards), and the pool keeps its order until the catalog changes.
+     *
+     * @param pageNumber The page number to retrieve.
+     * @param pageSize The number of recipes per page.
+     * @param seed The seed of the feed, or null to start a new feed.
+     * @param projection The recipe representation to return.
+     * @return A RecipePage containing random recipes and the seed of their feed.
+     */
+    public RecipePage<?> findRandom(Integer pageNumber, Integer pageSize, Long seed, RecipeProjection projection) {
         // Solr indexing starts from 0 so page number needs to be adjusted
         Integer solrPageNumber = pageNumber - 1;
+        long feedSeed = (seed != null) ? seed : randomRecipePool.newSeed();
+
+        try {
+            log.info("Fetching {} random recipes on solr page {}", pageSize, solrPageNumber);
 
+            RecipePage<?> page = randomRecipePool.serves(feedSeed)
+                    ? findRandomFromPool(pageNumber, pageSize, feedSeed, projection)
+                    : findRandomBySort(pageNumber, pageSize, feedSeed, projection);
+            page.setSeed(feedSeed);
+            return page;
+        } catch (IOException | SolrServerException e) {
+            throw new RecipeSearchException("Failed to query Solr", e);
+        }
+    }
+
+    /**
+     * Serves a random page from the pre-shuffled id pool, fetching only the recipes on the page.
+     */
+    private RecipePage<?> findRandomFromPool(Integer pageNumber, Integer pageSize, long seed, RecipeProjection projection)
+            throws IOException, SolrServerException {
+        List<String> ids = randomRecipePool.page(seed, (pageNumber - 1) * pageSize, pageSize);
+        if (ids.isEmpty()) {
+            throw new NotFoundException("No recipes found");
+        }
+
+        ModifiableSolrParams params = new ModifiableSolrParams();
+        params.set(CommonParams.FL, projection.getFields());
+        SolrDocumentList documents = solrQueryExecutor.getByIds("random", ids, params);
+
+        // Real-time get does not guarantee the order of the requested ids, so restore the feed order
+        Map<String, SolrDocument> documentsById = new HashMap<>();
+        for (SolrDocument document : documents) {
+            documentsById.put((String) document.getFirstValue("id"), document);
+        }
+        List<SolrDocument> ordered = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            SolrDocument document = documentsById.get(id);
+            // Recipes deleted since the pool was loaded are skipped
+            if (document != null) {
+                ordered.add(document);
+            }
+        }
+
+        List<? extends RecipeView> recipes = recipeMetrics.timeMapping("random",
+                () -> RecipeDocumentMapper.toViews(ordered, projection));
+        if (recipes.isEmpty()) {
+            throw new NotFoundException("No recipes found");
+        }
+        return new RecipePage<>(recipes, pageNumber, pageSize, (long) randomRecipePool.size(seed));
+    }
+
+    /**
+     * Serves a random page by sorting on a seeded random field. Used until the id pool has been loaded.
+     */
+    private RecipePage<?> findRandomBySort(Integer pageNumber, Integer pageSize, long seed, RecipeProjection projection)
+            throws IOException, SolrServerException {
         final SolrQuery query = new SolrQuery("*:*");
-        query.setStart(solrPageNumber * pageSize);
+        query.setStart((pageNumber - 1) * pageSize);
         query.setRows(pageSize);
-        query.addSort("random_" + System.currentTimeMillis(), SolrQuery.ORDER.asc);
+        query.addSort("random_" + seed, SolrQuery.ORDER.asc);
+        query.setFields(projection.getFields());
 
-        try {
-            log.info("Fetching " +pageSize + " random recipes on solr page " + solrPageNumber);
+        final QueryResponse response = solrQueryExecutor.query("random", query);
 
-            final QueryResponse response = solrClient.query(query);
+        long totalDocs = response.getResults().getNumFound();
+        List<? extends RecipeView> recipes = recipeMetrics.timeMapping("random",
+                () -> RecipeDocumentMapper.toViews(response.getResults(), projection));
 
-            long totalDocs = response.getResults().getNumFound();
-            List<Recipe> recipes = response.getBeans(Recipe.class);
+        if (recipes == null || recipes.isEmpty()) {
+            throw new NotFoundException("No recipes found");
+        }
+
+        return new RecipePage<>(recipes, pageNumber, pageSize, totalDocs);
+    }
+
+    /**
+     * Fetches the full details of a single recipe.
+     *
+     * @param id The recipe id.
+     * @return The recipe.
+     */
+    public Recipe findById(String id) {
+        log.info("Fetching recipe {}", id);
+        Recipe recipe = recipeCache.get(id);
+        if (recipe == null) {
+            List<Recipe> fetched = fetchByIds("findById", List.of(id));
+            if (fetched.isEmpty()) {
+                throw new NotFoundException("Recipe " + id + " not found");
+            }
+            recipe = fetched.getFirst();
+        }
+        return recipe;
+    }
+
+    /**
+     * Fetches the full details of several recipes. Recipes missing from the cache are fetched from Solr's
+     * real-time get handler in a single request.
+     *
+     * @param ids The recipe ids; duplicates are looked up once.
+     * @return The recipes found, in request order, and the ids that match no recipe.
+     */
+    public RecipeBatch findByIds(Collection<String> ids) {
+        Set<String> uniqueIds = new LinkedHashSet<>(ids);
+        log.info("Fetching {} recipes by id", uniqueIds.size());
+
+        Map<String, Recipe> found = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String id : uniqueIds) {
+            Recipe recipe = recipeCache.get(id);
+            if (recipe != null) {
+                found.put(id, recipe);
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (Recipe recipe : fetchByIds("findByIds", misses)) {
+                found.put(recipe.getId(), recipe);
+            }
+        }
 
-            if (recipes == null || recipes.isEmpty()) {
-                throw new NotFoundException("No recipes found");
+        List<Recipe> recipes = new ArrayList<>(found.size());
+        List<String> missingIds = new ArrayList<>();
+        for (String id : uniqueIds) {
+            Recipe recipe = found.get(id);
+            if (recipe != null) {
+                recipes.add(recipe);
+            } else {
+                missingIds.add(id);
             }
+        }
+        return new RecipeBatch(recipes, missingIds);
+    }
 
-            return new RecipePage(recipes, pageNumber, pageSize, totalDocs);
+    /**
+     * Fetches recipes through Solr's real-time get handler and caches them.
+     *
+     * @param operation The name of the operation, used to tag metrics.
+     * @param ids The recipe ids.
+     * @return The recipes that exist, in no particular order.
+     */
+    private List<Recipe> fetchByIds(String operation, Collection<String> ids) {
+        ModifiableSolrParams params = new ModifiableSolrParams();
+        params.set(CommonParams.FL, RecipeProjection.FULL.getFields());
+        try {
+            SolrDocumentList documents = solrQueryExecutor.getByIds(operation, ids, params);
+            List<Recipe> recipes = new ArrayList<>(documents.size());
+            for (SolrDocument document : documents) {
+                Recipe recipe = RecipeDocumentMapper.toRecipe(document);
+                recipeCache.put(recipe);
+                recipes.add(recipe);
+            }
+            return recipes;
         } catch (IOException | SolrServerException e) {
             throw new RecipeSearchException("Failed to query Solr", e);
         }
     }
+
+    /**
+     * @return The number of queries that joined an identical in-flight Solr request instead of sending their own.
+     */
+    public long coalescedQueries() {
+        return inFlightQueries.coalesced();
+    }
+
+    /**
+     * Blends popularity (views, likes, like/dislike ratio) into the relevance score according to the ranking mode.
+     *
+     * @param builder The query builder.
+     * @param cursorMode Whether the query uses cursor-based paging.
+     */
+    private void applyRanking(RecipeSolrQueryBuilder builder, boolean cursorMode) {
+        switch (ranking) {
+            case BOOST_FUNCTIONS -> builder.addBoostFunctions(PopularityScore.BOOST_FUNCTIONS);
+            case FIELD -> builder.addBoostFunctions(PopularityScore.FIELD);
+            case RERANK -> {
+                // Reranking reorders only the top documents, which gives deep cursor traversals no stable order
+                if (cursorMode) {
+                    builder.addBoostFunctions(PopularityScore.FIELD);
+                } else {
+                    builder.setRerank("{!func}" + PopularityScore.FIELD, rerankDocs, rerankWeight);
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes a listing or search query, serving it from the page cache when possible.
+     * Identical concurrent cache misses are coalesced so they share a single Solr round trip.
+     *
+     * @param operation The name of the operation, used to tag metrics.
+     * @param query The Solr query to execute.
+     * @param pageNumber The page number to report in the RecipePage.
+     * @param pageSize The number of recipes per page.
+     * @param cursor The cursor used for the request, or null in offset mode.
+     * @param projection The recipe representation to return.
+     * @return A RecipePage containing the matching recipes.
+     */
+    private RecipePage<?> fetchPage(
+            String operation, SolrQuery query, Integer pageNumber, Integer pageSize, String cursor, RecipeProjection projection) {
+        // Cursor traversals are rarely repeated, so only offset pages are cached
+        boolean cacheable = cursor == null;
+        RecipePage<?> cached = cacheable ? recipePageCache.get(query) : null;
+        if (cached != null) {
+            return cached;
+        }
+
+        // Coalesced callers share the fetched page, so each of them gets its own copy
+        return inFlightQueries.execute(pageNumber + "|" + SolrQueryKeys.of(query), () -> {
+            try {
+                final QueryResponse response = solrQueryExecutor.query(operation, query);
+
+                long totalDocs = response.getResults().getNumFound();
+                List<? extends RecipeView> recipes = recipeMetrics.timeMapping(operation,
+                        () -> RecipeDocumentMapper.toViews(response.getResults(), projection));
+
+                if (recipes == null || recipes.isEmpty()) {
+                    // A cursor walk ends with an empty page; only offset pages past the end are an error
+                    if (cursor != null) {
+                        return new RecipePage<>(List.of(), pageNumber, pageSize, totalDocs, null);
+                    }
+                    throw new NotFoundException("No recipes found");
+                }
+
+                RecipePage<?> page = new RecipePage<>(recipes, pageNumber, pageSize, totalDocs, nextCursor(cursor, response));
+                if (query.get("json.facet") != null) {
+                    page.setFacets(RecipeFacets.parse(response));
+                }
+                if (cacheable) {
+                    // Cache before the in-flight call completes so late arrivals hit the cache
+                    recipePageCache.put(query, page);
+                }
+                return page;
+            } catch (IOException | SolrServerException e) {
+                throw new RecipeSearchException("Failed to query Solr", e);
+            }
+        }).copy();
+    }
+
+    /**
+     * Determines the cursor to hand back to the client for the next page.
+     *
+     * @param cursor The cursor used for the current request, or null in offset mode.
+     * @param response The Solr response for the current request.
+     * @return The next cursor, or null in offset mode or once the cursor stops advancing.
+     */
+    private String nextCursor(String cursor, QueryResponse response) {
+        if (cursor == null) {
+            return null;
+        }
+        String next = response.getNextCursorMark();
+        // Solr returns the same cursor mark once there are no more results to fetch
+        return (next == null || next.equals(cursor)) ? null : next;
+    }
 }
@@ -0,0 +1,134 @@
+package ai.plato.plato.service;
+
+import ai.plato.plato.exception.SolrOverloadedException;
+import ai.plato.plato.metrics.RecipeMetrics;
+import io.micrometer.core.instrument.Timer;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocumentList;
+import org.apache.solr.common.params.SolrParams;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SolrQueryExecutor runs queries against Solr while bounding the number of concurrent requests.
+ * <p>
+ * Request threads are virtual (see spring.threads.virtual.enabled), so the servlet container no longer caps how
+ * many searches can be in flight. This executor takes over that role towards Solr: callers wait for a permit
+ * for at most the configured timeout and are rejected with a {@link SolrOverloadedException} afterwards,
+ * instead of piling up unbounded load on the Solr nodes.
+ * </p>
+ */
+@Component
+public class SolrQueryExecutor {
+
+    private final SolrClient solrClient;
+    private final RecipeMetrics recipeMetrics;
+    private final Semaphore permits;
+    private final int maxConcurrentRequests;
+    private final long acquireTimeoutNanos;
+
+    /**
+     * Constructs SolrQueryExecutor.
+     *
+     * @param solrClient The Solr client instance used for querying the index.
+     * @param recipeMetrics Metrics recording the latency and results of each call.
+     * @param maxConcurrentRequests Maximum number of requests in flight towards Solr.
+     * @param acquireTimeout Maximum time a request waits for a free slot.
+     */
+    public SolrQueryExecutor(
+            SolrClient solrClient,
+            RecipeMetrics recipeMetrics,
+            @Value("${plato.solr.max-concurrent-requests:256}") int maxConcurrentRequests,
+            @Value("${plato.solr.acquire-timeout:2s}") Duration acquireTimeout) {
+        this.solrClient = solrClient;
+        this.recipeMetrics = recipeMetrics;
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    /**
+     * Executes a query once a concurrency slot is available.
+     *
+     * @param operation The name of the operation the query is made for, used to tag metrics.
+     * @param query The query to execute.
+     * @return The Solr response.
+     * @throws IOException If the request to Solr fails.
+     * @throws SolrServerException If Solr reports an error.
+     */
+    public QueryResponse query(String operation, SolrQuery query) throws IOException, SolrServerException {
+        QueryResponse response = execute(operation, () -> solrClient.query(query));
+        recipeMetrics.recordQueryResponse(operation, response);
+        return response;
+    }
+
+    /**
+     * Fetches several documents by id in a single request to Solr's real-time get handler
+     * once a concurrency slot is available.
+     *
+     * @param operation The name of the operation the request is made for, used to tag metrics.
+     * @param ids The document ids.
+     * @param params Additional request parameters (e.g. fl), or null.
+     * @return The documents that exist, in no particular order.
+     * @throws IOException If the request to Solr fails.
+     * @throws SolrServerException If Solr reports an error.
+     */
+    public SolrDocumentList getByIds(String operation, Collection<String> ids, SolrParams params)
+            throws IOException, SolrServerException {
+        return execute(operation, () -> solrClient.getById(ids, params));
+    }
+
+    /**
+     * @return The number of requests currently in flight towards Solr.
+     */
+    public int inFlight() {
+        return maxConcurrentRequests - permits.availablePermits();
+    }
+
+    /**
+     * @return The number of callers waiting for a concurrency slot.
+     */
+    public int queued() {
+        return permits.getQueueLength();
+    }
+
+    private <T> T execute(String operation, SolrCall<T> call) throws IOException, SolrServerException {
+        acquire();
+        Timer.Sample sample = recipeMetrics.startSolrRequest();
+        Throwable error = null;
+        try {
+            return call.execute();
+        } catch (IOException | SolrServerException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            recipeMetrics.stopSolrRequest(sample, operation, error);
+            permits.release();
+        }
+    }
+
+    private void acquire() {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new SolrOverloadedException("Timed out waiting for a free Solr request slot");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SolrOverloadedException("Interrupted while waiting for a free Solr request slot");
+        }
+    }
+
+    @FunctionalInterface
+    private interface SolrCall<T> {
+        T execute() throws IOException, SolrServerException;
+    }
+}
@@ -0,0 +1,122 @@
+package ai.plato.plato.suggest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * PrefixIndex is an immutable completion index over a set of weighted terms.
+ * <p>
+ * Keys are kept in one sorted array, so all keys starting with a prefix form a contiguous range that is located
+ * with two binary searches. The range is then scanned for the highest weights with a bounded heap. Compared with
+ * a trie, the arrays hold no per-node objects and are cheap to rebuild from scratch.
+ * </p>
+ */
+final class PrefixIndex {
+
+    static final PrefixIndex EMPTY = new PrefixIndex(new String[0], new String[0], new long[0]);
+
+    // Highest code unit, used to form the exclusive upper bound of a prefix range
+    private static final char MAX_CHAR = Character.MAX_VALUE;
+
+    // Worst completion first: lowest weight, then the text that sorts last, so ties are cut deterministically
+    private static final Comparator<Suggestion> WORST_FIRST = Comparator.comparingLong(Suggestion::weight)
+            .thenComparing(Suggestion::text, Comparator.reverseOrder());
+
+    private final String[] keys;
+    private final String[] texts;
+    private final long[] weights;
+
+    private PrefixIndex(String[] keys, String[] texts, long[] weights) {
+        this.keys = keys;
+        this.texts = texts;
+        this.weights = weights;
+    }
+
+    /**
+     * Builds an index from normalized keys mapped to their suggestions.
+     *
+     * @param entries The suggestions by normalized key.
+     * @return The index.
+     */
+    static PrefixIndex of(Map<String, Suggestion> entries) {
+        String[] keys = entries.keySet().toArray(new String[0]);
+        Arrays.sort(keys);
+        String[] texts = new String[keys.length];
+        long[] weights = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            Suggestion suggestion = entries.get(keys[i]);
+            texts[i] = suggestion.text();
+            weights[i] = suggestion.weight();
+        }
+        return new PrefixIndex(keys, texts, weights);
+    }
+
+    /**
+     * @return The number of keys in the index.
+     */
+    int size() {
+        return keys.length;
+    }
+
+    /**
+     * @param key A normalized key.
+     * @return Whether the key is in the index.
+     */
+    boolean contains(String key) {
+        return Arrays.binarySearch(keys, key) >= 0;
+    }
+
+    /**
+     * Returns the highest weighted completions of a prefix, merged with additional candidates.
+     *
+     * @param prefix The normalized prefix.
+     * @param limit The maximum number of completions.
+     * @param extra Further candidates, e.g. terms added since the index was built; must all start with the prefix.
+     * @return The completions, highest weight first and equal weights by text.
+     */
+    List<Suggestion> complete(String prefix, int limit, Collection<Suggestion> extra) {
+        int from = lowerBound(prefix);
+        int to = lowerBound(prefix + MAX_CHAR);
+
+        PriorityQueue<Suggestion> top = new PriorityQueue<>(limit + 1, WORST_FIRST);
+        for (int i = from; i < to; i++) {
+            if (top.size() == limit && (weights[i] < top.peek().weight()
+                    || weights[i] == top.peek().weight() && texts[i].compareTo(top.peek().text()) >= 0)) {
+                continue;
+            }
+            top.add(new Suggestion(texts[i], weights[i]));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        for (Suggestion suggestion : extra) {
+            top.add(suggestion);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<Suggestion> completions = new ArrayList<>(top);
+        completions.sort(WORST_FIRST.reversed());
+        return completions;
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
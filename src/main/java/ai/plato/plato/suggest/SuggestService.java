@@ -0,0 +1,359 @@
+package ai.plato.plato.suggest;
+
+import ai.plato.plato.cache.CacheStats;
+import ai.plato.plato.cache.RecipeChangedEvent;
+import ai.plato.plato.cache.ResultCache;
+import ai.plato.plato.helper.IngredientNormalizer;
+import ai.plato.plato.service.SolrQueryExecutor;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.params.CommonParams;
+import org.apache.solr.common.params.CursorMarkParams;
+import org.apache.solr.common.params.ModifiableSolrParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * SuggestService completes typed prefixes to recipe titles, ingredients and cuisines.
+ * <p>
+ * Typeahead requests arrive on every keystroke, so they are answered from memory instead of running a search.
+ * One {@link PrefixIndex} per kind of completion is rebuilt periodically from a cursor over the catalog. Recipes
+ * indexed in between are picked up from {@link RecipeChangedEvent}s: their terms are fetched in small batches and
+ * kept in sorted delta maps that are consulted next to the indexes until the next rebuild.
+ * </p>
+ *
+ * <p>
+ * Results are cached per prefix, tagged with the indexes they were computed from. A rebuild clears the cache,
+ * and an entry that a lookup still running on the old indexes stores afterwards is ignored. A term added through
+ * the delta path evicts the cached results of each of its prefixes, so new completions show up without flushing
+ * the whole cache.
+ * </p>
+ */
+@Service
+public class SuggestService {
+
+    /**
+     * Maximum number of completions of each kind that can be requested.
+     */
+    public static final int MAX_LIMIT = 20;
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestService.class);
+    private static final int FETCH_BATCH_SIZE = 5_000;
+    private static final int DELTA_BATCH_SIZE = 500;
+    private static final String FIELDS = "id,title,ingredients,cuisines,views,likes";
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final SolrClient solrClient;
+    private final SolrQueryExecutor solrQueryExecutor;
+    private final boolean enabled;
+    private final int maxTitles;
+    private final int maxCachedPrefixLength;
+    private final ResultCache<String, CachedSuggestions> cache;
+
+    private volatile Indexes indexes = new Indexes(PrefixIndex.EMPTY, PrefixIndex.EMPTY, PrefixIndex.EMPTY);
+    private final Set<String> pendingIds = ConcurrentHashMap.newKeySet();
+    private final ConcurrentSkipListMap<String, DeltaEntry> titleDelta = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, DeltaEntry> ingredientDelta = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, DeltaEntry> cuisineDelta = new ConcurrentSkipListMap<>();
+
+    /**
+     * Constructs SuggestService.
+     *
+     * @param solrClient The Solr client instance used for loading the catalog.
+     * @param solrQueryExecutor The executor used for fetching recently changed recipes.
+     * @param enabled Whether the indexes are built at all.
+     * @param maxTitles Maximum number of titles kept; the most popular are retained.
+     * @param maxCachedPrefixLength Prefixes longer than this are not cached.
+     * @param cacheMaxWeightBytes Maximum approximate heap used by cached completions.
+     * @param cacheTtl Time-to-live of cached completions.
+     */
+    public SuggestService(
+            SolrClient solrClient,
+            SolrQueryExecutor solrQueryExecutor,
+            @Value("${plato.suggest.enabled:true}") boolean enabled,
+            @Value("${plato.suggest.max-titles:500000}") int maxTitles,
+            @Value("${plato.suggest.max-cached-prefix-length:12}") int maxCachedPrefixLength,
+            @Value("${plato.suggest.cache.max-weight-bytes:8388608}") long cacheMaxWeightBytes,
+            @Value("${plato.suggest.cache.ttl:10m}") Duration cacheTtl) {
+        this.solrClient = solrClient;
+        this.solrQueryExecutor = solrQueryExecutor;
+        this.enabled = enabled;
+        this.maxTitles = maxTitles;
+        this.maxCachedPrefixLength = maxCachedPrefixLength;
+        this.cache = new ResultCache<>("suggestions", enabled, cacheMaxWeightBytes, cacheTtl, SuggestService::weigh);
+    }
+
+    /**
+     * Returns the completions of a prefix.
+     *
+     * @param prefix The typed prefix.
+     * @param limit The maximum number of completions of each kind, at most {@link #MAX_LIMIT}.
+     * @return The completions, grouped by kind.
+     */
+    public Suggestions suggest(String prefix, int limit) {
+        String key = normalizeKey(prefix);
+        boolean cacheable = key.length() <= maxCachedPrefixLength;
+        // The cache holds the full MAX_LIMIT completions per prefix, so every requested size is served from one entry
+        Indexes current = indexes;
+        CachedSuggestions cached = cacheable ? cache.get(key) : null;
+        Suggestions suggestions;
+        // An entry computed from replaced indexes may have been stored after the rebuild cleared the cache
+        if (cached != null && cached.indexes() == current) {
+            suggestions = cached.suggestions();
+        } else {
+            suggestions = new Suggestions(key,
+                    current.titles().complete(key, MAX_LIMIT, deltaRange(titleDelta, key)),
+                    current.ingredients().complete(key, MAX_LIMIT, deltaRange(ingredientDelta, key)),
+                    current.cuisines().complete(key, MAX_LIMIT, deltaRange(cuisineDelta, key)));
+            if (cacheable) {
+                cache.put(key, new CachedSuggestions(current, suggestions), null);
+            }
+        }
+        return new Suggestions(key, head(suggestions.titles(), limit), head(suggestions.ingredients(), limit),
+                head(suggestions.cuisines(), limit));
+    }
+
+    /**
+     * Rebuilds the completion indexes from the catalog.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${plato.suggest.refresh-interval:30m}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        try {
+            Map<String, Suggestion> titles = new HashMap<>();
+            Map<String, Suggestion> ingredients = new HashMap<>();
+            Map<String, Suggestion> cuisines = new HashMap<>();
+            SolrQuery query = new SolrQuery("*:*");
+            query.setFields(FIELDS);
+            query.setRows(FETCH_BATCH_SIZE);
+            query.addSort("id", SolrQuery.ORDER.asc);
+            String cursor = CursorMarkParams.CURSOR_MARK_START;
+            while (true) {
+                query.set(CursorMarkParams.CURSOR_MARK_PARAM, cursor);
+                QueryResponse response = solrClient.query(query);
+                for (SolrDocument doc : response.getResults()) {
+                    collect(doc, (kind, k, text, weight) -> add(kind == Kind.TITLE ? titles
+                            : kind == Kind.INGREDIENT ? ingredients : cuisines, k, text, weight));
+                }
+                String next = response.getNextCursorMark();
+                if (next == null || next.equals(cursor)) {
+                    break;
+                }
+                cursor = next;
+            }
+
+            indexes = new Indexes(PrefixIndex.of(mostPopular(titles, maxTitles)),
+                    PrefixIndex.of(ingredients), PrefixIndex.of(cuisines));
+            // Terms added before this rebuild started are now part of the indexes
+            dropDeltasBefore(startNanos);
+            // Lookups still running on the old indexes may store entries after this; suggest() ignores them
+            cache.clear();
+            log.info("Built suggestion indexes with {} titles, {} ingredients and {} cuisines",
+                    indexes.titles().size(), indexes.ingredients().size(), indexes.cuisines().size());
+        } catch (IOException | SolrServerException | RuntimeException e) {
+            log.warn("Failed to refresh the suggestion indexes", e);
+        }
+    }
+
+    /**
+     * Remembers a changed recipe so its terms are added to the suggestions.
+     *
+     * @param event The recipe change event.
+     */
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (enabled) {
+            pendingIds.add(event.recipeId());
+        }
+    }
+
+    /**
+     * Adds the terms of recently changed recipes to the delta maps.
+     */
+    @Scheduled(fixedDelayString = "${plato.suggest.delta-interval:5s}")
+    public void applyPendingChanges() {
+        while (!pendingIds.isEmpty()) {
+            List<String> ids = new ArrayList<>(DELTA_BATCH_SIZE);
+            Iterator<String> pending = pendingIds.iterator();
+            while (pending.hasNext() && ids.size() < DELTA_BATCH_SIZE) {
+                ids.add(pending.next());
+                pending.remove();
+            }
+
+            ModifiableSolrParams params = new ModifiableSolrParams();
+            params.set(CommonParams.FL, FIELDS);
+            try {
+                for (SolrDocument doc : solrQueryExecutor.getByIds("suggest", ids, params)) {
+                    collect(doc, this::addDelta);
+                }
+            } catch (IOException | SolrServerException | RuntimeException e) {
+                // The terms will be picked up by the next rebuild
+                log.warn("Failed to load {} changed recipes for suggestions", ids.size(), e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return A snapshot of the completion cache counters.
+     */
+    public CacheStats cacheStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Normalizes typed text or an indexed term to the key completions are looked up by.
+     *
+     * @param text The text.
+     * @return The lowercased, trimmed and single-spaced key.
+     */
+    static String normalizeKey(String text) {
+        return WHITESPACE.matcher(text.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+    }
+
+    private void collect(SolrDocument doc, TermSink sink) {
+        long popularity = 1 + toLong(doc.getFirstValue("views")) + 10 * toLong(doc.getFirstValue("likes"));
+        for (String title : strings(doc.getFieldValues("title"))) {
+            sink.accept(Kind.TITLE, normalizeKey(title), title.trim(), popularity);
+        }
+        for (String ingredient : strings(doc.getFieldValues("ingredients"))) {
+            String name = IngredientNormalizer.normalize(ingredient);
+            if (name != null) {
+                sink.accept(Kind.INGREDIENT, name, name, 1);
+            }
+        }
+        for (String cuisine : strings(doc.getFieldValues("cuisines"))) {
+            String name = IngredientNormalizer.normalizeCuisine(cuisine);
+            if (name != null) {
+                sink.accept(Kind.CUISINE, normalizeKey(name), name, 1);
+            }
+        }
+    }
+
+    private static void add(Map<String, Suggestion> entries, String key, String text, long weight) {
+        if (key.isEmpty()) {
+            return;
+        }
+        // Weights of a term occurring in several recipes add up
+        entries.merge(key, new Suggestion(text, weight), (a, b) -> new Suggestion(a.text(), a.weight() + b.weight()));
+    }
+
+    private void addDelta(Kind kind, String key, String text, long weight) {
+        Indexes current = indexes;
+        PrefixIndex index = kind == Kind.TITLE ? current.titles()
+                : kind == Kind.INGREDIENT ? current.ingredients() : current.cuisines();
+        ConcurrentSkipListMap<String, DeltaEntry> delta = kind == Kind.TITLE ? titleDelta
+                : kind == Kind.INGREDIENT ? ingredientDelta : cuisineDelta;
+        // Weights of terms already in the index are refreshed by the next rebuild
+        if (key.isEmpty() || index.contains(key)
+                || delta.putIfAbsent(key, new DeltaEntry(new Suggestion(text, weight), System.nanoTime())) != null) {
+            return;
+        }
+        for (int length = 1; length <= Math.min(key.length(), maxCachedPrefixLength); length++) {
+            cache.evict(key.substring(0, length));
+        }
+    }
+
+    private void dropDeltasBefore(long nanos) {
+        titleDelta.values().removeIf(entry -> entry.addedNanos() - nanos < 0);
+        ingredientDelta.values().removeIf(entry -> entry.addedNanos() - nanos < 0);
+        cuisineDelta.values().removeIf(entry -> entry.addedNanos() - nanos < 0);
+    }
+
+    private static Collection<Suggestion> deltaRange(ConcurrentSkipListMap<String, DeltaEntry> delta, String prefix) {
+        if (delta.isEmpty()) {
+            return List.of();
+        }
+        Collection<DeltaEntry> range = delta.subMap(prefix, prefix + Character.MAX_VALUE).values();
+        List<Suggestion> suggestions = new ArrayList<>(range.size());
+        for (DeltaEntry entry : range) {
+            suggestions.add(entry.suggestion());
+        }
+        return suggestions;
+    }
+
+    private static List<Suggestion> head(List<Suggestion> suggestions, int limit) {
+        return suggestions.size() <= limit ? suggestions : suggestions.subList(0, limit);
+    }
+
+    private static Map<String, Suggestion> mostPopular(Map<String, Suggestion> titles, int max) {
+        if (titles.size() <= max) {
+            return titles;
+        }
+        List<Map.Entry<String, Suggestion>> entries = new ArrayList<>(titles.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue().weight(), a.getValue().weight()));
+        Map<String, Suggestion> top = new HashMap<>(max * 2);
+        for (Map.Entry<String, Suggestion> entry : entries.subList(0, max)) {
+            top.put(entry.getKey(), entry.getValue());
+        }
+        return top;
+    }
+
+    private static long weigh(CachedSuggestions cached) {
+        Suggestions suggestions = cached.suggestions();
+        long weight = 64;
+        for (List<Suggestion> group : List.of(suggestions.titles(), suggestions.ingredients(), suggestions.cuisines())) {
+            for (Suggestion suggestion : group) {
+                weight += 48 + suggestion.text().length();
+            }
+        }
+        return weight;
+    }
+
+    private static List<String> strings(Collection<Object> values) {
+        if (values == null) {
+            return List.of();
+        }
+        List<String> strings = new ArrayList<>(values.size());
+        for (Object value : values) {
+            if (value != null) {
+                strings.add(value.toString());
+            }
+        }
+        return strings;
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? Math.max(0, number.longValue()) : 0;
+    }
+
+    private enum Kind { TITLE, INGREDIENT, CUISINE }
+
+    @FunctionalInterface
+    private interface TermSink {
+        void accept(Kind kind, String key, String text, long weight);
+    }
+
+    private record Indexes(PrefixIndex titles, PrefixIndex ingredients, PrefixIndex cuisines) {
+    }
+
+    private record DeltaEntry(Suggestion suggestion, long addedNanos) {
+    }
+
+    private record CachedSuggestions(Indexes indexes, Suggestions suggestions) {
+    }
+}
@@ -0,0 +1,10 @@
+package ai.plato.plato.suggest;
+
+/**
+ * Suggestion is a single completion offered for a typed prefix.
+ *
+ * @param text The completion, as it should be displayed.
+ * @param weight The ranking weight: recipe popularity for titles, number of recipes for ingredients and cuisines.
+ */
+public record Suggestion(String text, long weight) {
+}
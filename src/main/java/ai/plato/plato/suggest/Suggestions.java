@@ -0,0 +1,15 @@
+package ai.plato.plato.suggest;
+
+import java.util.List;
+
+/**
+ * Suggestions holds the completions for a prefix, grouped by what they complete to.
+ *
+ * @param prefix The normalized prefix the completions were computed for.
+ * @param titles Matching recipe titles, most popular first.
+ * @param ingredients Matching ingredients, most used first.
+ * @param cuisines Matching cuisines, most used first.
+ */
+public record Suggestions(String prefix, List<Suggestion> titles, List<Suggestion> ingredients,
+                          List<Suggestion> cuisines) {
+}
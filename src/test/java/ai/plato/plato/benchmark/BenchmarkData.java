@@ -0,0 +1,64 @@
+package ai.plato.plato.benchmark;
+
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Synthetic recipe documents shaped like the ones stored in the recipes core.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Builds a page of recipe documents.
+     * last_modified is left out because DocumentObjectBinder cannot bind Solr dates to the Instant field.
+     *
+     * @param size The number of documents.
+     * @return The documents, with numFound set to their count.
+     */
+    static SolrDocumentList recipeDocuments(int size) {
+        SolrDocumentList documents = new SolrDocumentList();
+        for (int i = 0; i < size; i++) {
+            documents.add(recipeDocument(i));
+        }
+        documents.setNumFound(size);
+        return documents;
+    }
+
+    static SolrDocument recipeDocument(int i) {
+        SolrDocument doc = new SolrDocument();
+        doc.setField("id", "recipe-" + i);
+        doc.setField("title", List.of("Spaghetti aglio e olio " + i));
+        doc.setField("ingredients", strings("ingredient", 12));
+        doc.setField("instructions", strings("Step", 8));
+        doc.setField("picture_link", "https://img.example.com/recipes/" + i + ".jpg");
+        doc.setField("cooking_time", 10 + i % 50);
+        doc.setField("cuisines", List.of("Italian", "Mediterranean"));
+        doc.setField("difficulty", "easy");
+        doc.setField("difficulty_easy", 120L);
+        doc.setField("difficulty_medium", 30L);
+        doc.setField("difficulty_hard", 4L);
+        doc.setField("difficulty_user_rated", "easy");
+        doc.setField("dislikes", 7L);
+        doc.setField("likes", 250L + i);
+        doc.setField("preparation_time", 15);
+        doc.setField("uploaded_by", "user" + (i % 10));
+        doc.setField("views", 10_000L + i);
+        doc.setField("upload_timestamp", new Date(1_700_000_000_000L + i));
+        return doc;
+    }
+
+    private static List<String> strings(String prefix, int count) {
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(prefix + " " + i + " with a typical amount of descriptive text");
+        }
+        return values;
+    }
+}
@@ -0,0 +1,54 @@
+package ai.plato.plato.benchmark;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.common.SolrDocumentList;
+import org.apache.solr.common.util.JavaBinCodec;
+import org.apache.solr.common.util.NamedList;
+import org.apache.solr.common.util.SimpleOrderedMap;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * In-process SolrClient that answers every request with the same pre-encoded javabin response.
+ * <p>
+ * Each request decodes the javabin bytes again, so benchmarks using it include the response parsing cost of a
+ * real Solr round trip, but not the network and server time.
+ * </p>
+ */
+final class CannedSolrClient extends SolrClient {
+
+    private final byte[] response;
+
+    CannedSolrClient(SolrDocumentList documents) {
+        NamedList<Object> header = new SimpleOrderedMap<>();
+        header.add("status", 0);
+        header.add("QTime", 1);
+        NamedList<Object> body = new NamedList<>();
+        body.add("responseHeader", header);
+        body.add("response", documents);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JavaBinCodec codec = new JavaBinCodec()) {
+            codec.marshal(body, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.response = out.toByteArray();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public NamedList<Object> request(SolrRequest<?> request, String collection) throws IOException {
+        try (JavaBinCodec codec = new JavaBinCodec()) {
+            return (NamedList<Object>) codec.unmarshal(new ByteArrayInputStream(response));
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,80 @@
+package ai.plato.plato.benchmark;
+
+import ai.plato.plato.helper.PopularityScore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-match cost of the popularity boost functions with reading the precomputed popularity_score.
+ * <p>
+ * With {@code bf}, Solr reads three docValues columns and evaluates pow/log/div for every document matching a
+ * search; with the precomputed field it reads one column. This benchmark scores a result set of the given size
+ * both ways in-process, which isolates the arithmetic from Solr's query execution. {@link SearchRankingBenchmark}
+ * measures the client side of a search in each plato.search.ranking mode; the end-to-end effect on a real index is
+ * visible in the plato.solr.qtime metric.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PopularityScoreBenchmark {
+
+    @Param({"1000", "100000"})
+    private int matches;
+
+    private long[] views;
+    private long[] likes;
+    private long[] dislikes;
+    private double[] popularityScores;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        views = new long[matches];
+        likes = new long[matches];
+        dislikes = new long[matches];
+        popularityScores = new double[matches];
+        for (int i = 0; i < matches; i++) {
+            views[i] = random.nextInt(1_000_000);
+            likes[i] = random.nextInt(10_000);
+            dislikes[i] = random.nextInt(1_000);
+            popularityScores[i] = PopularityScore.compute(views[i], likes[i], dislikes[i]);
+        }
+    }
+
+    @Benchmark
+    public double boostFunctions() {
+        double total = 0;
+        for (int i = 0; i < matches; i++) {
+            double l = likes[i];
+            total += Math.pow(Math.log10(views[i] + 1), 0.5)
+                    + Math.pow(Math.log10(l + 1), 1.0)
+                    + Math.pow(l / (l + dislikes[i] + 1), 1.5);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double precomputedField() {
+        double total = 0;
+        for (int i = 0; i < matches; i++) {
+            total += popularityScores[i];
+        }
+        return total;
+    }
+}
@@ -0,0 +1,54 @@
+package ai.plato.plato.benchmark;
+
+import ai.plato.plato.cache.SolrQueryKeys;
+import ai.plato.plato.helper.PopularityScore;
+import ai.plato.plato.helper.RecipeSolrQueryBuilder;
+import ai.plato.plato.helper.RecipeSolrQueryBuilder.FilterHints;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building a search query the way RecipeService does, and deriving its page cache key.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBuilderBenchmark {
+
+    private final Set<String> matchTypes = Set.of("title", "ingredients", "cuisines");
+    private final SolrQuery builtQuery = buildQuery();
+
+    @Benchmark
+    public SolrQuery buildSearchQuery() {
+        return buildQuery();
+    }
+
+    @Benchmark
+    public String cacheKey() {
+        return SolrQueryKeys.of(builtQuery);
+    }
+
+    private SolrQuery buildQuery() {
+        return new RecipeSolrQueryBuilder("quick weeknight pasta")
+                .applyMatchTypes(matchTypes)
+                .addBoostFunctions(PopularityScore.BOOST_FUNCTIONS)
+                .setStartAndRows(40, 20)
+                .addTermFilter("uploaded_by", "chef anna")
+                .addRangeFilter("cooking_time", 10, 30, FilterHints.uncached(50))
+                .build();
+    }
+}
@@ -0,0 +1,56 @@
+package ai.plato.plato.benchmark;
+
+import ai.plato.plato.helper.RecipeDocumentMapper;
+import ai.plato.plato.model.Recipe;
+import org.apache.solr.client.solrj.beans.DocumentObjectBinder;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares SolrJ's reflection-based DocumentObjectBinder with the hand-rolled RecipeDocumentMapper
+ * on pages of recipe documents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecipeMappingBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private SolrDocumentList documents;
+    private DocumentObjectBinder binder;
+
+    @Setup
+    public void setUp() {
+        documents = BenchmarkData.recipeDocuments(pageSize);
+        binder = new DocumentObjectBinder();
+    }
+
+    @Benchmark
+    public List<Recipe> documentObjectBinder() {
+        return binder.getBeans(Recipe.class, documents);
+    }
+
+    @Benchmark
+    public List<Recipe> recipeDocumentMapper() {
+        return RecipeDocumentMapper.toRecipes(documents);
+    }
+}
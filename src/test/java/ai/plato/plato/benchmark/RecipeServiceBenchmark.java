@@ -0,0 +1,87 @@
+package ai.plato.plato.benchmark;
+
+import ai.plato.plato.cache.RecipeCache;
+import ai.plato.plato.cache.RecipePageCache;
+import ai.plato.plato.embedding.EmbeddingService;
+import ai.plato.plato.embedding.HashingEmbedder;
+import ai.plato.plato.metrics.RecipeMetrics;
+import ai.plato.plato.model.RecipePage;
+import ai.plato.plato.model.RecipeProjection;
+import ai.plato.plato.service.RandomRecipePool;
+import ai.plato.plato.service.RecipeService;
+import ai.plato.plato.service.SolrQueryExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures RecipeService end to end against an in-process Solr stub: query building, the concurrency limit,
+ * javabin decoding, document mapping and metrics. With the page cache enabled, repeated searches are served
+ * from memory, which shows the cost of a cache hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecipeServiceBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    @Param({"false", "true"})
+    private boolean cacheEnabled;
+
+    private CannedSolrClient solrClient;
+    private RecipeService recipeService;
+
+    @Setup
+    public void setUp() {
+        solrClient = new CannedSolrClient(BenchmarkData.recipeDocuments(pageSize));
+        RecipeMetrics recipeMetrics = new RecipeMetrics(new SimpleMeterRegistry());
+        recipeService = new RecipeService(
+                new SolrQueryExecutor(solrClient, recipeMetrics, 256, Duration.ofSeconds(2)),
+                new RecipePageCache(cacheEnabled, 64L * 1024 * 1024, Duration.ofMinutes(5)),
+                new RecipeCache(cacheEnabled, 32L * 1024 * 1024, Duration.ofMinutes(10)),
+                new RandomRecipePool(solrClient, false, 0),
+                recipeMetrics,
+                "bf", 200, 1.0,
+                new EmbeddingService(new HashingEmbedder(256), 0, Duration.ofHours(1)), 100, 1.0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        solrClient.close();
+    }
+
+    @Benchmark
+    public RecipePage<?> searchFull() {
+        return recipeService.searchRecipes("pasta", 1, pageSize, null, RecipeProjection.FULL,
+                null, null, 10, 30, false);
+    }
+
+    @Benchmark
+    public RecipePage<?> searchSummary() {
+        return recipeService.searchRecipes("pasta", 1, pageSize, null, RecipeProjection.SUMMARY,
+                null, null, 10, 30, false);
+    }
+
+    @Benchmark
+    public RecipePage<?> findAll() {
+        return recipeService.findAll(1, pageSize, null, RecipeProjection.FULL);
+    }
+}
@@ -0,0 +1,131 @@
+package ai.plato.plato.counter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CounterLogTest {
+
+    // "VIEWS\t1\trN\n"
+    private static final int RECORD_BYTES = 11;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysRecordsAndSkipsATornLastLine() throws IOException {
+        try (CounterLog counterLog = new CounterLog(directory, 1 << 20)) {
+            counterLog.recover((type, recipeId, delta) -> { });
+            counterLog.append(CounterType.VIEWS, "r1", 1);
+            counterLog.append(CounterType.LIKES, "r2", 3);
+            counterLog.append(CounterType.DISLIKES, "r1", 2);
+        }
+        // A crash in the middle of a write leaves the last line without its recipe id and newline
+        Files.writeString(segments().get(0), "VIEWS\t7", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        List<String> replayed = recover();
+
+        assertThat(replayed).containsExactly("VIEWS r1 1", "LIKES r2 3", "DISLIKES r1 2");
+    }
+
+    @Test
+    void skipsATornLastLineEvenIfItParses() throws IOException {
+        // The last record was cut inside its recipe id "r42"
+        Files.writeString(directory.resolve("counters-0000000000000000001.wal"),
+                "VIEWS\t1\tr1\nVIEWS\t1\tr4", StandardCharsets.UTF_8);
+
+        assertThat(recover()).containsExactly("VIEWS r1 1");
+    }
+
+    @Test
+    void skipsRecordsThatDoNotParse() throws IOException {
+        Files.writeString(directory.resolve("counters-0000000000000000001.wal"),
+                "VIEWS\t1\tr1\nSHARES\t1\tr1\nLIKES\tmany\tr1\nLIKES\t2\tr2\n", StandardCharsets.UTF_8);
+
+        assertThat(recover()).containsExactly("VIEWS r1 1", "LIKES r2 2");
+    }
+
+    @Test
+    void replaysAllSegmentsInOrderAndContinuesWithANewOne() throws IOException {
+        try (CounterLog counterLog = new CounterLog(directory, 1 << 20)) {
+            counterLog.recover((type, recipeId, delta) -> { });
+            counterLog.append(CounterType.VIEWS, "r1", 1);
+            counterLog.rotate();
+            counterLog.append(CounterType.VIEWS, "r2", 1);
+        }
+        List<Path> before = segments();
+
+        List<String> replayed = new ArrayList<>();
+        try (CounterLog counterLog = new CounterLog(directory, 1 << 20)) {
+            List<Path> recovered = counterLog.recover((type, recipeId, delta) -> replayed.add(recipeId));
+            assertThat(recovered).containsExactlyElementsOf(before);
+            counterLog.delete(recovered);
+            counterLog.append(CounterType.VIEWS, "r3", 1);
+        }
+
+        assertThat(replayed).containsExactly("r1", "r2");
+        assertThat(segments()).hasSize(1);
+        // The new segment continues the generations of the replayed ones
+        assertThat(segments().get(0).getFileName().toString()).isEqualTo("counters-0000000000000000003.wal");
+        assertThat(recover()).containsExactly("VIEWS r3 1");
+    }
+
+    @Test
+    void dropsRecordsPastTheSegmentLimitUntilTheNextRotation() throws IOException {
+        try (CounterLog counterLog = new CounterLog(directory, 3 * RECORD_BYTES + 5)) {
+            counterLog.recover((type, recipeId, delta) -> { });
+            for (int i = 1; i <= 5; i++) {
+                counterLog.append(CounterType.VIEWS, "r" + i, 1);
+            }
+            Path full = counterLog.rotate();
+            assertThat(Files.size(full)).isEqualTo(3L * RECORD_BYTES);
+
+            counterLog.append(CounterType.VIEWS, "r6", 1);
+        }
+
+        assertThat(recover()).containsExactly("VIEWS r1 1", "VIEWS r2 1", "VIEWS r3 1", "VIEWS r6 1");
+    }
+
+    @Test
+    void rotateHandsOverTheWrittenSegmentForDeletion() throws IOException {
+        try (CounterLog counterLog = new CounterLog(directory, 1 << 20)) {
+            counterLog.recover((type, recipeId, delta) -> { });
+            counterLog.append(CounterType.LIKES, "r1", 1);
+            Path rotated = counterLog.rotate();
+            counterLog.append(CounterType.LIKES, "r2", 1);
+            counterLog.sync();
+
+            // The rotated segment is complete on disk and stays until it is deleted explicitly
+            assertThat(Files.readString(rotated)).isEqualTo("LIKES\t1\tr1\n");
+            assertThat(segments()).hasSize(2);
+            counterLog.delete(List.of(rotated));
+            assertThat(segments()).hasSize(1);
+        }
+
+        assertThat(recover()).containsExactly("LIKES r2 1");
+    }
+
+    private List<String> recover() throws IOException {
+        List<String> replayed = new ArrayList<>();
+        try (CounterLog counterLog = new CounterLog(directory, 1 << 20)) {
+            counterLog.recover((type, recipeId, delta) -> replayed.add(type + " " + recipeId + " " + delta));
+        }
+        return replayed;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> segments = Files.list(directory)) {
+            return segments.sorted().toList();
+        }
+    }
+}
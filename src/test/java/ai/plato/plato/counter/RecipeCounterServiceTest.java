@@ -0,0 +1,198 @@
+package ai.plato.plato.counter;
+
+import ai.plato.plato.helper.PopularityScore;
+import ai.plato.plato.metrics.RecipeMetrics;
+import ai.plato.plato.service.SolrQueryExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.request.UpdateRequest;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.util.NamedList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecipeCounterServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private final FakeSolr solr = new FakeSolr();
+
+    @Test
+    void flushesIncrementsAsAtomicUpdatesWithTheNewScore() throws IOException {
+        solr.addRecipe("r1", 10, 2, 0);
+        RecipeCounterService service = service();
+        service.recover();
+
+        for (int i = 0; i < 3; i++) {
+            service.increment("r1", CounterType.VIEWS);
+        }
+        service.increment("r1", CounterType.LIKES);
+        service.flush();
+
+        assertThat(solr.updates).hasSize(1);
+        SolrInputDocument update = solr.updates.get(0);
+        assertThat(update.getFieldValue("id")).isEqualTo("r1");
+        assertThat(update.getFieldValue("views")).isEqualTo(Map.of("inc", 3L));
+        assertThat(update.getFieldValue("likes")).isEqualTo(Map.of("inc", 1L));
+        assertThat(update.getFieldValue("dislikes")).isNull();
+        assertThat(update.getFieldValue(PopularityScore.FIELD))
+                .isEqualTo(Map.of("set", PopularityScore.compute(13L, 3L, 0L)));
+
+        // Nothing is pending anymore
+        service.flush();
+        assertThat(solr.updates).hasSize(1);
+        service.stop();
+    }
+
+    @Test
+    void dropsIncrementsOfUnknownRecipesInsteadOfCreatingDocuments() throws IOException {
+        solr.addRecipe("r1", 0, 0, 0);
+        RecipeCounterService service = service();
+        service.recover();
+
+        service.increment("r1", CounterType.VIEWS);
+        service.increment("deleted", CounterType.LIKES);
+        service.flush();
+        service.flush();
+
+        assertThat(solr.updates).hasSize(1);
+        assertThat(solr.updates.get(0).getFieldValue("id")).isEqualTo("r1");
+        service.stop();
+    }
+
+    @Test
+    void deletesTheFlushedSegmentOnlyAfterTheUpdateWasSent() throws IOException {
+        solr.addRecipe("r1", 0, 0, 0);
+        RecipeCounterService service = service();
+        service.recover();
+
+        service.increment("r1", CounterType.VIEWS);
+        service.flush();
+
+        // While the update was sent, the rotated segment and the new one both existed
+        assertThat(solr.segmentsDuringUpdate).isEqualTo(2);
+        assertThat(segments()).hasSize(1);
+        service.stop();
+    }
+
+    @Test
+    void requeuesAndRelogsCountsWhenTheUpdateFails() throws IOException {
+        solr.addRecipe("r1", 5, 0, 0);
+        solr.failUpdates = true;
+        RecipeCounterService service = service();
+        service.recover();
+
+        service.increment("r1", CounterType.VIEWS);
+        service.increment("r1", CounterType.VIEWS);
+        service.flush();
+        service.syncLog();
+
+        // The segment holding the original records is gone, but the counts were written to the new one
+        assertThat(solr.updates).isEmpty();
+        assertThat(segments()).hasSize(1);
+        assertThat(Files.readString(segments().get(0))).isEqualTo("VIEWS\t2\tr1\n");
+
+        solr.failUpdates = false;
+        service.flush();
+
+        assertThat(solr.updates).hasSize(1);
+        assertThat(solr.updates.get(0).getFieldValue("views")).isEqualTo(Map.of("inc", 2L));
+        service.stop();
+    }
+
+    @Test
+    void recoversRequeuedCountsAfterACrash() throws IOException {
+        solr.addRecipe("r1", 5, 0, 0);
+        solr.failUpdates = true;
+        RecipeCounterService crashed = service();
+        crashed.recover();
+        crashed.increment("r1", CounterType.DISLIKES);
+        crashed.flush();
+        crashed.syncLog();
+        // The service is abandoned without stop(), as in a crash
+
+        solr.failUpdates = false;
+        RecipeCounterService restarted = service();
+        restarted.recover();
+        restarted.flush();
+
+        assertThat(solr.updates).hasSize(1);
+        assertThat(solr.updates.get(0).getFieldValue("dislikes")).isEqualTo(Map.of("inc", 1L));
+        restarted.stop();
+    }
+
+    private RecipeCounterService service() throws IOException {
+        SolrQueryExecutor executor = new SolrQueryExecutor(solr, new RecipeMetrics(new SimpleMeterRegistry()),
+                16, Duration.ofSeconds(1));
+        return new RecipeCounterService(solr, executor, new SimpleMeterRegistry(), directory, 1 << 20, 1000,
+                Duration.ofSeconds(1));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> segments = Files.list(directory)) {
+            return segments.sorted().toList();
+        }
+    }
+
+    /**
+     * In-process Solr answering real-time gets from a map of documents and recording updates.
+     */
+    private final class FakeSolr extends SolrClient {
+
+        final Map<String, SolrDocument> documents = new HashMap<>();
+        final List<SolrInputDocument> updates = new ArrayList<>();
+        volatile boolean failUpdates;
+        int segmentsDuringUpdate;
+
+        void addRecipe(String id, long views, long likes, long dislikes) {
+            SolrDocument document = new SolrDocument();
+            document.setField("id", id);
+            document.setField("views", views);
+            document.setField("likes", likes);
+            document.setField("dislikes", dislikes);
+            documents.put(id, document);
+        }
+
+        @Override
+        public NamedList<Object> request(SolrRequest<?> request, String collection) throws IOException {
+            NamedList<Object> response = new NamedList<>();
+            if (request instanceof UpdateRequest update) {
+                if (failUpdates) {
+                    throw new IOException("Solr is unreachable");
+                }
+                segmentsDuringUpdate = segments().size();
+                updates.addAll(update.getDocuments());
+                return response;
+            }
+            SolrDocumentList found = new SolrDocumentList();
+            for (String id : request.getParams().getParams("ids")) {
+                if (documents.containsKey(id)) {
+                    found.add(documents.get(id));
+                }
+            }
+            found.setNumFound(found.size());
+            response.add("response", found);
+            return response;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
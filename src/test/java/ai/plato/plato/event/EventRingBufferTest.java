@@ -0,0 +1,96 @@
+package ai.plato.plato.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventRingBufferTest {
+
+    @Test
+    void roundsCapacityUpAndRejectsOffersWhenFull() {
+        EventRingBuffer<Integer> buffer = new EventRingBuffer<>(5);
+
+        assertThat(buffer.capacity()).isEqualTo(8);
+        for (int i = 0; i < 8; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(8)).isFalse();
+        assertThat(buffer.size()).isEqualTo(8);
+
+        List<Integer> taken = new ArrayList<>();
+        assertThat(buffer.drain(taken::add, 3)).isEqualTo(3);
+        assertThat(taken).containsExactly(0, 1, 2);
+        assertThat(buffer.offer(8)).isTrue();
+        assertThat(buffer.drain(taken::add, Integer.MAX_VALUE)).isEqualTo(6);
+        assertThat(taken).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8);
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void deliversEveryElementOnceAndInProducerOrderUnderContention() throws Exception {
+        int producerCount = 8;
+        int perProducer = 100_000;
+        // A small buffer is full most of the time, so producers wrap around and race for the same slots
+        EventRingBuffer<Long> buffer = new EventRingBuffer<>(64);
+        ExecutorService executor = Executors.newFixedThreadPool(producerCount);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> producers = new ArrayList<>();
+        try {
+            for (int p = 0; p < producerCount; p++) {
+                long producer = p;
+                producers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!buffer.offer(producer << 32 | i)) {
+                            // Yield rather than spin, so the consumer gets to run on machines with few cores
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            int[] nextExpected = new int[producerCount];
+            long[] received = new long[1];
+            boolean[] ordered = {true};
+            start.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            while (received[0] < (long) producerCount * perProducer && System.nanoTime() < deadline) {
+                int taken = buffer.drain(element -> {
+                    int producer = (int) (element >>> 32);
+                    int sequence = (int) (long) element;
+                    // Every element of a producer arrives exactly once and in the order it was offered
+                    if (sequence != nextExpected[producer]) {
+                        ordered[0] = false;
+                    }
+                    nextExpected[producer] = sequence + 1;
+                    received[0]++;
+                }, 1024);
+                if (taken == 0) {
+                    Thread.yield();
+                }
+            }
+
+            assertThat(received[0]).isEqualTo((long) producerCount * perProducer);
+            assertThat(ordered[0]).isTrue();
+            for (int p = 0; p < producerCount; p++) {
+                assertThat(nextExpected[p]).isEqualTo(perProducer);
+            }
+            for (Future<?> producer : producers) {
+                producer.get(10, TimeUnit.SECONDS);
+            }
+            assertThat(buffer.size()).isZero();
+            assertThat(buffer.drain(element -> { }, 1)).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
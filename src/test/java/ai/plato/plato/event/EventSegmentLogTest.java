@@ -0,0 +1,115 @@
+package ai.plato.plato.event;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventSegmentLogTest {
+
+    // Length, timestamp, type, then the length-prefixed 5-byte user id and 8-byte subject of events(...)
+    private static final int RECORD_BYTES = 4 + 8 + 1 + 2 + 5 + 2 + 8;
+    private static final int SEGMENT_BYTES = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysAllSegmentsInOrder() throws IOException {
+        List<UserEvent> written = events(5);
+        try (EventSegmentLog eventLog = new EventSegmentLog(directory, SEGMENT_BYTES)) {
+            eventLog.recover(event -> { });
+            eventLog.append(written.get(0));
+            eventLog.append(written.get(1));
+            eventLog.roll();
+            eventLog.append(written.get(2));
+            eventLog.append(written.get(3));
+            eventLog.append(written.get(4));
+        }
+
+        List<UserEvent> replayed = new ArrayList<>();
+        try (EventSegmentLog eventLog = new EventSegmentLog(directory, SEGMENT_BYTES)) {
+            eventLog.recover(replayed::add);
+            assertThat(eventLog.sealedSegments()).hasSize(2);
+        }
+        assertThat(replayed).containsExactlyElementsOf(written);
+    }
+
+    @Test
+    void stopsReplayAtARecordTornByTruncation() throws IOException {
+        List<UserEvent> written = events(3);
+        Path segment = writeSegment(written);
+        // Cut the file in the middle of the third record
+        truncate(segment, 2L * RECORD_BYTES + RECORD_BYTES / 2);
+
+        assertThat(recover()).containsExactlyElementsOf(written.subList(0, 2));
+    }
+
+    @Test
+    void stopsReplayAtALengthPrefixCutShort() throws IOException {
+        List<UserEvent> written = events(3);
+        Path segment = writeSegment(written);
+        truncate(segment, 2L * RECORD_BYTES + 2);
+
+        assertThat(recover()).containsExactlyElementsOf(written.subList(0, 2));
+    }
+
+    @Test
+    void keepsAppendingAfterAnEmptySegment() throws IOException {
+        Path segment = writeSegment(events(2));
+        truncate(segment, 0);
+
+        UserEvent next = new UserEvent(UserEventType.LIKE, "user9", "recipe-9", 9_999);
+        try (EventSegmentLog eventLog = new EventSegmentLog(directory, SEGMENT_BYTES)) {
+            List<UserEvent> replayed = new ArrayList<>();
+            eventLog.recover(replayed::add);
+            assertThat(replayed).isEmpty();
+            eventLog.append(next);
+        }
+        assertThat(recover()).containsExactly(next);
+    }
+
+    private Path writeSegment(List<UserEvent> events) throws IOException {
+        try (EventSegmentLog eventLog = new EventSegmentLog(directory, SEGMENT_BYTES)) {
+            eventLog.recover(event -> { });
+            for (UserEvent event : events) {
+                eventLog.append(event);
+            }
+        }
+        try (Stream<Path> segments = Files.list(directory)) {
+            return segments.sorted().toList().getLast();
+        }
+    }
+
+    private List<UserEvent> recover() throws IOException {
+        List<UserEvent> replayed = new ArrayList<>();
+        try (EventSegmentLog eventLog = new EventSegmentLog(directory, SEGMENT_BYTES)) {
+            eventLog.recover(replayed::add);
+        }
+        return replayed;
+    }
+
+    private static void truncate(Path segment, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        }
+    }
+
+    private static List<UserEvent> events(int count) {
+        List<UserEvent> events = new ArrayList<>(count);
+        UserEventType[] types = UserEventType.values();
+        for (int i = 0; i < count; i++) {
+            events.add(new UserEvent(types[i % types.length], "user" + i, "recipe-" + i, 1_000L + i));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,44 @@
+package ai.plato.plato.event;
+
+import ai.plato.plato.exception.NotFoundException;
+import ai.plato.plato.recommend.RecommendationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserEventServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void dropsTheHistoryOfTheLeastRecentlyActiveUserWhenFull() throws IOException {
+        RecommendationService recommendationService = new RecommendationService(null, false, 20, 2000, 50,
+                Duration.ofDays(7), Duration.ofDays(30), 100);
+        UserEventService service = new UserEventService(recommendationService, new SimpleMeterRegistry(),
+                1024, directory, 1 << 16, 10, Duration.ofDays(30), 8, 1024, 2);
+        service.recover();
+        try {
+            service.publish(UserEventType.VIEW, "anna", "r1");
+            service.publish(UserEventType.VIEW, "ben", "r2");
+            service.publish(UserEventType.VIEW, "anna", "r3");
+            service.publish(UserEventType.VIEW, "carl", "r4");
+            service.drain();
+
+            assertThat(service.recentViews("anna", 10)).extracting(ViewedRecipe::recipeId)
+                    .containsExactly("r3", "r1");
+            assertThat(service.recentViews("carl", 10)).extracting(ViewedRecipe::recipeId)
+                    .containsExactly("r4");
+            assertThatThrownBy(() -> service.recentViews("ben", 10)).isInstanceOf(NotFoundException.class);
+        } finally {
+            service.stop();
+        }
+    }
+}
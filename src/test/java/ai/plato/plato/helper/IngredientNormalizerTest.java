@@ -0,0 +1,94 @@
+package ai.plato.plato.helper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngredientNormalizerTest {
+
+    @Test
+    void stripsQuantitiesAndUnits() {
+        assertNormalizes(new String[][]{
+                {"1/2 cup milk", "milk"},
+                {"1 1/2 tsp kosher salt", "salt"},
+                {"½ cup sugar", "sugar"},
+                {"2-3 cloves garlic", "garlic"},
+                {"500g minced beef", "beef"},
+                {"1.5kg chicken thighs", "chicken thigh"},
+                {"a pinch of salt", "salt"},
+                {"1 can of chickpeas", "chickpea"},
+        });
+    }
+
+    @Test
+    void dropsNotesAndDescriptors() {
+        assertNormalizes(new String[][]{
+                {"2 cups finely chopped onions", "onion"},
+                {"1 onion, peeled and diced", "onion"},
+                {"1 (14 oz) can diced tomatoes", "tomato"},
+                {"1 [optional] lemon", "lemon"},
+                {"3 large eggs", "egg"},
+        });
+    }
+
+    @Test
+    void singularizesTheLastWord() {
+        assertNormalizes(new String[][]{
+                {"2 potatoes", "potato"},
+                {"3 peaches", "peach"},
+                {"2 dishes", "dish"},
+                {"berries", "berry"},
+                {"1 tbsp bay leaves", "bay leaf"},
+                {"molasses", "molasses"},
+                {"couscous", "couscous"},
+                {"hummus", "hummus"},
+                {"glass", "glass"},
+        });
+    }
+
+    @Test
+    void mapsSynonymsToOneName() {
+        assertNormalizes(new String[][]{
+                {"Scallions", "green onion"},
+                {"1 courgette", "zucchini"},
+                {"250ml double cream", "heavy cream"},
+                {"2 egg yolks", "egg"},
+                {"Freshly ground black pepper", "pepper"},
+                {"Extra Virgin Olive Oil", "olive oil"},
+                {"1 cup plain flour", "all-purpose flour"},
+        });
+    }
+
+    @Test
+    void keepsAUnitThatNamesTheIngredient() {
+        assertNormalizes(new String[][]{
+                {"1 tsp ground cloves", "clove"},
+                {"cup", "cup"},
+        });
+    }
+
+    @Test
+    void returnsNullForTextWithoutAnIngredient() {
+        assertNormalizes(new String[][]{
+                {null, null},
+                {"", null},
+                {"  ", null},
+                {"1 cup of", null},
+                {"(to taste)", null},
+        });
+    }
+
+    @Test
+    void normalizesCuisineNames() {
+        assertThat(IngredientNormalizer.normalizeCuisine(" italian ")).isEqualTo("Italian");
+        assertThat(IngredientNormalizer.normalizeCuisine("SOUTH  african")).isEqualTo("South African");
+        assertThat(IngredientNormalizer.normalizeCuisine("  ")).isNull();
+        assertThat(IngredientNormalizer.normalizeCuisine(null)).isNull();
+    }
+
+    private static void assertNormalizes(String[][] cases) {
+        for (String[] c : cases) {
+            assertThat(IngredientNormalizer.normalize(c[0])).as(String.valueOf(c[0])).isEqualTo(c[1]);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package ai.plato.plato.helper;
+
+import ai.plato.plato.helper.RecipeSolrQueryBuilder.FilterHints;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.common.params.CursorMarkParams;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecipeSolrQueryBuilderTest {
+
+    @Test
+    void buildsEdismaxQueryWithDefaultFields() {
+        SolrQuery query = new RecipeSolrQueryBuilder("pasta").applyMatchTypes(null).build();
+
+        assertThat(query.getQuery()).isEqualTo("pasta");
+        assertThat(query.get("defType")).isEqualTo("edismax");
+        assertThat(query.get("qf")).isEqualTo("title^2 ingredients");
+        assertThat(query.getFilterQueries()).isNull();
+    }
+
+    @Test
+    void appliesRequestedMatchTypes() {
+        SolrQuery query = new RecipeSolrQueryBuilder("pasta")
+                .applyMatchTypes(Set.of("title", "cuisines"))
+                .build();
+
+        assertThat(query.get("qf")).isEqualTo("title^2 cuisines");
+    }
+
+    @Test
+    void emitsEachFilterAsSeparateFilterQuery() {
+        SolrQuery query = new RecipeSolrQueryBuilder("pasta")
+                .addFilter("uploaded_by:anna")
+                .addFilter("cuisines:Italian")
+                .build();
+
+        assertThat(query.getFilterQueries()).containsExactly("cuisines:Italian", "uploaded_by:anna");
+    }
+
+    @Test
+    void filterOrderDoesNotDependOnInsertionOrder() {
+        SolrQuery first = new RecipeSolrQueryBuilder("pasta")
+                .addTermFilter("uploaded_by", "anna")
+                .addRangeFilter("cooking_time", 10, 30, FilterHints.NONE)
+                .build();
+        SolrQuery second = new RecipeSolrQueryBuilder("pasta")
+                .addRangeFilter("cooking_time", 10, 30, FilterHints.NONE)
+                .addTermFilter("uploaded_by", "anna")
+                .build();
+
+        assertThat(first.getFilterQueries()).containsExactly(second.getFilterQueries());
+    }
+
+    @Test
+    void ignoresBlankAndDuplicateFilters() {
+        SolrQuery query = new RecipeSolrQueryBuilder("pasta")
+                .addFilter(" ")
+                .addFilter(null)
+                .addFilter("cuisines:Italian")
+                .addFilter("cuisines:Italian")
+                .build();
+
+        assertThat(query.getFilterQueries()).containsExactly("cuisines:Italian");
+    }
+
+    @Test
+    void escapesTermFilterValues() {
+        SolrQuery query = new RecipeSolrQueryBuilder("pasta")
+                .addTermFilter("uploaded_by", "chef \"anna\"")
+                .addTermFilter("cuisines", null)
+                .build();
+
+        assertThat(query.getFilterQueries()).containsExactly("uploaded_by:chef\\ \\\"anna\\\"");
+    }
+
+    @Test
+    void leavesMissingRangeBoundsOpen() {
+        SolrQuery query = new RecipeSolrQueryBuilder("pasta")
+                .addRangeFilter("cooking_time", null, 30, FilterHints.NONE)
+                .addRangeFilter("preparation_time", 5, null, FilterHints.NONE)
+                .addRangeFilter("views", null, null, FilterHints.NONE)
+                .build();
+
+        assertThat(query.getFilterQueries())
+                .containsExactly("cooking_time:[* TO 30]", "preparation_time:[5 TO *]");
+    }
+
+    @Test
+    void addsCachingAndCostLocalParams() {
+        SolrQuery query = new RecipeSolrQueryBuilder("pasta")
+                .addRangeFilter("cooking_time", 10, 30, FilterHints.uncached(50))
+                .build();
+
+        assertThat(query.getFilterQueries()).containsExactly("{!cache=false cost=50}cooking_time:[10 TO 30]");
+    }
+
+    @Test
+    void addsTagLocalParam() {
+        SolrQuery query = new RecipeSolrQueryBuilder("pasta")
+                .addFilter("cuisines:Italian", FilterHints.tagged("cuisines"))
+                .addFilter("cooking_time:[10 TO 30]", FilterHints.uncached(50).withTag("time"))
+                .build();
+
+        assertThat(query.getFilterQueries()).containsExactly(
+                "{!tag=cuisines}cuisines:Italian",
+                "{!tag=time cache=false cost=50}cooking_time:[10 TO 30]");
+    }
+
+    @Test
+    void setsPagingParameters() {
+        SolrQuery query = new RecipeSolrQueryBuilder("pasta").setStartAndRows(40, 20).build();
+
+        assertThat(query.getStart()).isEqualTo(40);
+        assertThat(query.getRows()).isEqualTo(20);
+        assertThat(query.get(CursorMarkParams.CURSOR_MARK_PARAM)).isNull();
+    }
+
+    @Test
+    void cursorPagingAddsTiebreakerSort() {
+        SolrQuery query = new RecipeSolrQueryBuilder("pasta")
+                .setCursor(RecipeSolrQueryBuilder.CURSOR_START, 20)
+                .build();
+
+        assertThat(query.getStart()).isZero();
+        assertThat(query.getRows()).isEqualTo(20);
+        assertThat(query.get(CursorMarkParams.CURSOR_MARK_PARAM)).isEqualTo("*");
+        assertThat(query.getSortField()).isEqualTo("score desc,id asc");
+    }
+
+    @Test
+    void setsFieldListAndBoostFunctions() {
+        SolrQuery query = new RecipeSolrQueryBuilder("pasta")
+                .setFields("id,title")
+                .addBoostFunctions("log(views)")
+                .build();
+
+        assertThat(query.getFields()).isEqualTo("id,title");
+        assertThat(query.get("bf")).isEqualTo("log(views)");
+    }
+
+    @Test
+    void emitsJsonFacetsSortedByName() {
+        SolrQuery query = new RecipeSolrQueryBuilder("pasta")
+                .addJsonFacet("difficulty", "{type:terms,field:difficulty}")
+                .addJsonFacet("cuisines", "{type:terms,field:cuisines}")
+                .build();
+
+        assertThat(query.get("json.facet"))
+                .isEqualTo("{cuisines:{type:terms,field:cuisines},difficulty:{type:terms,field:difficulty}}");
+    }
+
+    @Test
+    void tagsRecipeFacetFiltersForExclusion() {
+        SolrQuery query = RecipeFacets.apply(new RecipeSolrQueryBuilder("pasta")
+                .addTermFilter("uploaded_by", "anna", FilterHints.tagged(RecipeFacets.UPLOADED_BY)))
+                .build();
+
+        assertThat(query.getFilterQueries()).containsExactly("{!tag=uploaded_by}uploaded_by:anna");
+        assertThat(query.get("json.facet"))
+                .contains("uploaded_by:{type:terms,field:uploaded_by,limit:10,mincount:1,domain:{excludeTags:uploaded_by}}")
+                .contains("cooking_time:{type:range,field:cooking_time,ranges:[");
+    }
+
+    @Test
+    void replacesMainQueryWithKnnAndKeepsTextForRerank() {
+        SolrQuery query = new RecipeSolrQueryBuilder("quick pasta")
+                .applyMatchTypes(null)
+                .setKnnQuery("recipe_vector", new float[]{0.5f, -0.25f}, 100)
+                .setRerank("{!edismax v=$userq}", 100, 1.0)
+                .build();
+
+        assertThat(query.getQuery()).isEqualTo("{!knn f=recipe_vector topK=100}[0.5,-0.25]");
+        assertThat(query.get("userq")).isEqualTo("quick pasta");
+        assertThat(query.get("defType")).isNull();
+        assertThat(query.get("qf")).isEqualTo("title^2 ingredients");
+        assertThat(query.get("rqq")).isEqualTo("{!edismax v=$userq}");
+    }
+}
@@ -0,0 +1,103 @@
+package ai.plato.plato.ingest;
+
+import ai.plato.plato.exception.IngestionException;
+import ai.plato.plato.model.Recipe;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvRecipeReaderTest {
+
+    private static final String HEADER = "id,title,instructions,cooking_time\n";
+
+    @Test
+    void keepsCommasInsideQuotedValues() {
+        List<Recipe> recipes = readAll(HEADER + "1,\"Pasta, quick\",\"Boil, then drain\",10\n");
+
+        assertThat(recipes).hasSize(1);
+        assertThat(recipes.get(0).getTitle()).containsExactly("Pasta, quick");
+        assertThat(recipes.get(0).getInstructions()).containsExactly("Boil, then drain");
+        assertThat(recipes.get(0).getCookingTime()).isEqualTo(10);
+    }
+
+    @Test
+    void unescapesDoubledQuotes() {
+        List<Recipe> recipes = readAll(HEADER + "1,\"The \"\"best\"\" soup\",\"\"\"Stir\"\"\",5\n");
+
+        assertThat(recipes.get(0).getTitle()).containsExactly("The \"best\" soup");
+        assertThat(recipes.get(0).getInstructions()).containsExactly("\"Stir\"");
+    }
+
+    @Test
+    void followsQuotedValuesAcrossLineBreaks() {
+        List<Recipe> recipes = readAll(HEADER
+                + "1,Soup,\"Chop the onions.\nSimmer for an hour.\",60\n"
+                + "2,Salad,Toss,5\n");
+
+        assertThat(recipes).extracting(Recipe::getId).containsExactly("1", "2");
+        assertThat(recipes.get(0).getInstructions()).containsExactly("Chop the onions.\nSimmer for an hour.");
+    }
+
+    @Test
+    void readsTheLastRowWithoutATrailingNewline() {
+        List<Recipe> recipes = readAll(HEADER + "1,Soup,Stir,10\n\n2,Salad,Toss,5");
+
+        assertThat(recipes).extracting(Recipe::getId).containsExactly("1", "2");
+        assertThat(recipes.get(1).getCookingTime()).isEqualTo(5);
+    }
+
+    @Test
+    void splitsMultiValuedFieldsAndIgnoresUnknownColumns() {
+        List<Recipe> recipes = readAll("id,title,ingredients,rating\n1,Soup,onion|carrot|salt,4.5\n");
+
+        assertThat(recipes.get(0).getIngredients()).containsExactly("onion", "carrot", "salt");
+    }
+
+    @Test
+    void reportsAMalformedRowWithItsLineAndContinues() {
+        CsvRecipeReader reader = reader(HEADER
+                + "1,Soup,\"Chop.\nSimmer.\",60\n"
+                + "2,Salad,Toss,quick\n"
+                + "3,Stew,Braise,90\n");
+
+        assertThat(reader.next().getId()).isEqualTo("1");
+        // The quoted line break in the first row moves the second row to line 4
+        assertThatThrownBy(reader::next)
+                .isInstanceOf(MalformedRecordException.class)
+                .hasMessageContaining("cooking_time on line 4");
+        assertThat(reader.next().getId()).isEqualTo("3");
+        assertThat(reader.hasNext()).isFalse();
+    }
+
+    @Test
+    void rejectsAnUnterminatedQuotedValue() {
+        CsvRecipeReader reader = reader(HEADER + "1,\"Soup,Stir,10\n2,Salad,Toss,5\n");
+
+        assertThatThrownBy(reader::hasNext)
+                .isInstanceOf(IngestionException.class)
+                .hasMessageContaining("Unterminated quoted value");
+    }
+
+    @Test
+    void rejectsAnEmptyInput() {
+        assertThatThrownBy(() -> reader(""))
+                .isInstanceOf(IngestionException.class)
+                .hasMessageContaining("empty");
+    }
+
+    private static CsvRecipeReader reader(String csv) {
+        return new CsvRecipeReader(new BufferedReader(new StringReader(csv)));
+    }
+
+    private static List<Recipe> readAll(String csv) {
+        List<Recipe> recipes = new ArrayList<>();
+        reader(csv).forEachRemaining(recipes::add);
+        return recipes;
+    }
+}
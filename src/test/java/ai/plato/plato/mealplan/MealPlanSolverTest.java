@@ -0,0 +1,166 @@
+package ai.plato.plato.mealplan;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class MealPlanSolverTest {
+
+    private static final int TERMS = 25;
+    private static final int DAYS = 5;
+    private static final int MEALS_PER_DAY = 2;
+    private static final int MAX_COOKING_TIME = 90;
+    private static final int MAX_PREPARATION_TIME = 60;
+
+    @Test
+    void incrementalScoreMatchesRecomputationAfterEveryMove() {
+        SplittableRandom random = new SplittableRandom(11);
+        List<MealCandidate> candidates = candidates(random, 40);
+        boolean[] pantry = pantry(random);
+        MealPlanSolver solver = new MealPlanSolver(candidates, pantry, DAYS, MEALS_PER_DAY,
+                MAX_COOKING_TIME, MAX_PREPARATION_TIME);
+
+        for (int seed = 0; seed < 4; seed++) {
+            MealPlanSolver.Search search = solver.new Search(new SplittableRandom(seed), seed > 0);
+            assertConsistent(search, candidates, pantry);
+            for (int move = 0; move < 20_000; move++) {
+                if (random.nextInt(4) == 0) {
+                    search.trySwap();
+                } else {
+                    int slot = random.nextInt(search.assignment.length);
+                    int candidate = random.nextInt(candidates.size() + 1) - 1;
+                    if ((candidate != MealPlanSolver.EMPTY && search.used[candidate])
+                            || !search.fits(slot / MEALS_PER_DAY, search.assignment[slot], candidate)) {
+                        continue;
+                    }
+                    search.place(slot, candidate);
+                }
+                assertConsistent(search, candidates, pantry);
+            }
+        }
+    }
+
+    @Test
+    void solveReturnsAValidPlanNoWorseThanGreedy() {
+        SplittableRandom random = new SplittableRandom(5);
+        List<MealCandidate> candidates = candidates(random, 60);
+        boolean[] pantry = pantry(random);
+        MealPlanSolver solver = new MealPlanSolver(candidates, pantry, DAYS, MEALS_PER_DAY,
+                MAX_COOKING_TIME, MAX_PREPARATION_TIME);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            int[] plan = solver.solve(pool, 3, TimeUnit.MILLISECONDS.toNanos(20));
+
+            assertValid(plan, candidates);
+            assertThat(recompute(plan, candidates, pantry))
+                    .isGreaterThanOrEqualTo(recompute(solver.greedyPlan(), candidates, pantry) - 1e-9);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void everySearchGetsTheFullBudgetEvenWhenItWaitsForAThread() {
+        SplittableRandom random = new SplittableRandom(3);
+        List<MealCandidate> candidates = candidates(random, 20);
+        MealPlanSolver solver = new MealPlanSolver(candidates, pantry(random), DAYS, MEALS_PER_DAY,
+                MAX_COOKING_TIME, MAX_PREPARATION_TIME);
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            long budget = TimeUnit.MILLISECONDS.toNanos(30);
+            long start = System.nanoTime();
+            solver.solve(pool, 3, budget);
+
+            // One thread runs the three searches one after another, each for the whole budget
+            assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(3 * budget);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void assertConsistent(MealPlanSolver.Search search, List<MealCandidate> candidates,
+                                         boolean[] pantry) {
+        assertValid(search.assignment, candidates);
+        boolean[] used = new boolean[candidates.size()];
+        for (int candidate : search.assignment) {
+            if (candidate != MealPlanSolver.EMPTY) {
+                used[candidate] = true;
+            }
+        }
+        assertThat(search.used).containsExactly(used);
+        assertThat(search.score()).isCloseTo(recompute(search.assignment, candidates, pantry), within(1e-9));
+    }
+
+    private static void assertValid(int[] plan, List<MealCandidate> candidates) {
+        assertThat(plan).hasSize(DAYS * MEALS_PER_DAY);
+        boolean[] seen = new boolean[candidates.size()];
+        for (int day = 0; day < DAYS; day++) {
+            int cooking = 0;
+            int preparation = 0;
+            for (int meal = 0; meal < MEALS_PER_DAY; meal++) {
+                int candidate = plan[day * MEALS_PER_DAY + meal];
+                if (candidate == MealPlanSolver.EMPTY) {
+                    continue;
+                }
+                assertThat(seen[candidate]).isFalse();
+                seen[candidate] = true;
+                cooking += candidates.get(candidate).cookingTime();
+                preparation += candidates.get(candidate).preparationTime();
+            }
+            assertThat(cooking).isLessThanOrEqualTo(MAX_COOKING_TIME);
+            assertThat(preparation).isLessThanOrEqualTo(MAX_PREPARATION_TIME);
+        }
+    }
+
+    /**
+     * Computes the plan score from scratch, without the counters the searches maintain.
+     */
+    private static double recompute(int[] plan, List<MealCandidate> candidates, boolean[] pantry) {
+        double recipeScore = 0;
+        int[] termCounts = new int[pantry.length];
+        for (int candidate : plan) {
+            if (candidate != MealPlanSolver.EMPTY) {
+                recipeScore += candidates.get(candidate).score();
+                for (int term : candidates.get(candidate).terms()) {
+                    termCounts[term]++;
+                }
+            }
+        }
+        int reused = 0;
+        int shopping = 0;
+        for (int term = 0; term < termCounts.length; term++) {
+            if (termCounts[term] > 0) {
+                reused += termCounts[term] - 1;
+                if (!pantry[term]) {
+                    shopping++;
+                }
+            }
+        }
+        return recipeScore + MealPlanSolver.REUSE_BONUS * reused - MealPlanSolver.SHOPPING_PENALTY * shopping;
+    }
+
+    private static List<MealCandidate> candidates(SplittableRandom random, int count) {
+        List<MealCandidate> candidates = new ArrayList<>(count);
+        for (int c = 0; c < count; c++) {
+            int[] terms = random.ints(0, TERMS).distinct().limit(2 + random.nextInt(6)).sorted().toArray();
+            candidates.add(new MealCandidate(null, terms, random.nextDouble(1.5),
+                    random.nextInt(70), random.nextInt(45)));
+        }
+        return candidates;
+    }
+
+    private static boolean[] pantry(SplittableRandom random) {
+        boolean[] pantry = new boolean[TERMS];
+        for (int term = 0; term < TERMS; term++) {
+            pantry[term] = random.nextInt(3) == 0;
+        }
+        return pantry;
+    }
+}
@@ -0,0 +1,99 @@
+package ai.plato.plato.pantry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class PantryIndexTest {
+
+    private static final List<String> PANTRY = List.of("eggs", "1 cup milk", "plain flour");
+
+    @Test
+    void ranksByCoverageThenByFewerMissingIngredients() {
+        PantryIndex index = catalog();
+
+        List<PantryMatch> matches = index.search(PANTRY, Integer.MAX_VALUE, 10);
+
+        assertThat(matches).extracting(PantryMatch::recipeId)
+                .containsExactly("omelette", "pancakes", "fried-egg", "custard", "quiche");
+        assertThat(matches.get(1).coverage()).isCloseTo(0.75, within(1e-9));
+        assertThat(matches.get(1).matchedCount()).isEqualTo(3);
+        assertThat(matches.get(1).missingIngredients()).containsExactly("sugar");
+        assertThat(matches.get(4).missingIngredients()).containsExactly("sugar", "butter", "cheese");
+    }
+
+    @Test
+    void keepsRecipesMissingExactlyTheCutoff() {
+        PantryIndex index = catalog();
+
+        assertThat(index.search(PANTRY, 0, 10)).extracting(PantryMatch::recipeId)
+                .containsExactly("omelette");
+        assertThat(index.search(PANTRY, 1, 10)).extracting(PantryMatch::recipeId)
+                .containsExactly("omelette", "pancakes", "fried-egg");
+        assertThat(index.search(PANTRY, 2, 10)).extracting(PantryMatch::recipeId)
+                .containsExactly("omelette", "pancakes", "fried-egg", "custard");
+    }
+
+    @Test
+    void returnsTheBestMatchesUpToTheLimit() {
+        PantryIndex index = catalog();
+
+        assertThat(index.search(PANTRY, Integer.MAX_VALUE, 2)).extracting(PantryMatch::recipeId)
+                .containsExactly("omelette", "pancakes");
+    }
+
+    @Test
+    void breaksCoverageTiesByMissingCountThenRecipe() {
+        PantryIndex.Builder builder = new PantryIndex.Builder();
+        builder.add("b-half", List.of("egg", "butter"));
+        builder.add("a-half", List.of("egg", "cream"));
+        builder.add("c-half-of-four", List.of("egg", "milk", "butter", "cream"));
+        PantryIndex index = builder.build();
+
+        assertThat(index.search(List.of("egg", "milk"), Integer.MAX_VALUE, 10)).extracting(PantryMatch::recipeId)
+                .containsExactly("a-half", "b-half", "c-half-of-four");
+    }
+
+    @Test
+    void countsDuplicateIngredientsOfARecipeOnce() {
+        PantryIndex.Builder builder = new PantryIndex.Builder();
+        // All three lines normalize to "egg"
+        builder.add("eggs", List.of("2 large eggs", "1 egg yolk", "egg"));
+        PantryIndex index = builder.build();
+
+        List<PantryMatch> matches = index.search(List.of("egg", "eggs"), Integer.MAX_VALUE, 10);
+
+        assertThat(index.termCount()).isEqualTo(1);
+        assertThat(matches).hasSize(1);
+        assertThat(matches.get(0).matchedCount()).isEqualTo(1);
+        assertThat(matches.get(0).coverage()).isEqualTo(1.0);
+    }
+
+    @Test
+    void ignoresUnknownPantryEntriesAndRecipesWithoutIngredients() {
+        PantryIndex.Builder builder = new PantryIndex.Builder();
+        builder.add("toast", List.of("bread", "butter"));
+        builder.add("nothing", List.of("", "1/2", "()"));
+        builder.add("no-ingredients", null);
+        PantryIndex index = builder.build();
+
+        assertThat(index.recipeCount()).isEqualTo(1);
+        assertThat(index.search(List.of("unicorn", "  "), Integer.MAX_VALUE, 10)).isEmpty();
+        assertThat(index.search(List.of("unicorn", "bread"), Integer.MAX_VALUE, 10))
+                .extracting(PantryMatch::recipeId).containsExactly("toast");
+    }
+
+    private static PantryIndex catalog() {
+        PantryIndex.Builder builder = new PantryIndex.Builder();
+        builder.add("omelette", List.of("3 eggs", "2 tbsp milk"));
+        builder.add("pancakes", List.of("2 eggs", "1 cup milk", "200 g flour", "1 tbsp sugar"));
+        builder.add("fried-egg", List.of("1 egg", "1 tbsp butter"));
+        builder.add("custard", List.of("egg yolks", "milk", "sugar", "vanilla"));
+        builder.add("quiche", List.of("eggs", "milk", "flour", "butter", "sugar", "cheese"));
+        builder.add("salad", List.of("lettuce", "tomatoes"));
+        return builder.build();
+    }
+}
@@ -0,0 +1,37 @@
+package ai.plato.plato.recommend;
+
+import ai.plato.plato.event.UserEventType;
+import ai.plato.plato.exception.NotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecommendationServiceTest {
+
+    @Test
+    void dropsTheLeastRecentlyActiveProfileWhenFull() {
+        RecommendationService service = new RecommendationService(null, true, 20, 2000, 50,
+                Duration.ofDays(7), Duration.ofDays(30), 2);
+
+        service.recordInteraction("anna", "r1", UserEventType.VIEW, 1);
+        service.recordInteraction("ben", "r1", UserEventType.VIEW, 2);
+        service.recordInteraction("anna", "r2", UserEventType.LIKE, 3);
+        service.recordInteraction("carl", "r3", UserEventType.VIEW, 4);
+
+        assertThat(service.profileCount()).isEqualTo(2);
+        assertThatThrownBy(() -> service.recommend("ben", 10)).isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void ignoresSearches() {
+        RecommendationService service = new RecommendationService(null, true, 20, 2000, 50,
+                Duration.ofDays(7), Duration.ofDays(30), 10);
+
+        service.recordInteraction("anna", "pasta", UserEventType.SEARCH, 1);
+
+        assertThat(service.profileCount()).isZero();
+    }
+}
@@ -0,0 +1,174 @@
+package ai.plato.plato.recommend;
+
+import ai.plato.plato.helper.IngredientNormalizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SimilarityIndexTest {
+
+    private static final String[] VOCABULARY = {
+            "salt", "water", "onion", "garlic", "butter", "flour", "egg", "milk", "sugar", "lemon",
+            "basil", "thyme", "rosemary", "ginger", "carrot", "celery", "potato", "tomato", "spinach", "mushroom",
+            "rice", "lentil", "chickpea", "tofu", "chicken", "beef", "pork", "salmon", "shrimp", "cod",
+            "almond", "walnut", "honey", "vanilla", "cinnamon", "nutmeg", "cumin", "paprika", "oregano", "mint"};
+
+    @Test
+    void neighboursMatchBruteForceCosine() {
+        Random random = new Random(7);
+        List<String> ids = new ArrayList<>();
+        List<List<String>> ingredients = new ArrayList<>();
+        // More recipes than one build chunk, so several workers share the build
+        for (int r = 0; r < 2_500; r++) {
+            List<String> recipe = new ArrayList<>();
+            int count = 2 + random.nextInt(6);
+            for (int i = 0; i < count; i++) {
+                // Skewed towards the start of the vocabulary, so some features exceed the frequency limit
+                double u = random.nextDouble();
+                recipe.add(VOCABULARY[(int) (u * u * VOCABULARY.length)]);
+            }
+            ids.add(String.format("r%05d", r));
+            ingredients.add(recipe);
+        }
+        int neighbors = 5;
+        int maxFeatureFrequency = 400;
+
+        SimilarityIndex.Builder builder = new SimilarityIndex.Builder();
+        for (int r = 0; r < ids.size(); r++) {
+            builder.add(ids.get(r), ingredients.get(r), null);
+        }
+        SimilarityIndex index = builder.build(neighbors, maxFeatureFrequency);
+
+        BruteForce expected = new BruteForce(ingredients, maxFeatureFrequency);
+        assertThat(index.recipeCount()).isEqualTo(ids.size());
+        for (int r = 0; r < ids.size(); r += 7) {
+            double[] cosines = expected.cosines(r);
+            List<Double> best = new ArrayList<>();
+            for (int o = 0; o < ids.size(); o++) {
+                if (o != r && cosines[o] > 0) {
+                    best.add(cosines[o]);
+                }
+            }
+            best.sort((x, y) -> Double.compare(y, x));
+            best = best.subList(0, Math.min(neighbors, best.size()));
+
+            List<Recommendation> similar = index.similar(ids.get(r), neighbors);
+            assertThat(similar).hasSameSizeAs(best);
+            for (int k = 0; k < similar.size(); k++) {
+                Recommendation neighbour = similar.get(k);
+                assertThat(neighbour.recipeId()).isNotEqualTo(ids.get(r));
+                assertThat(neighbour.score()).isCloseTo(best.get(k), within(1e-5));
+                assertThat(neighbour.score()).isCloseTo(cosines[ids.indexOf(neighbour.recipeId())], within(1e-5));
+            }
+        }
+    }
+
+    @Test
+    void similarReturnsMostSimilarFirstAndRespectsLimits() {
+        SimilarityIndex index = smallCatalog().build(1, Integer.MAX_VALUE);
+
+        assertThat(index.similar("a", 10)).extracting(Recommendation::recipeId).containsExactly("b");
+        assertThat(index.similar("a", 0)).isEmpty();
+        assertThat(index.similar("missing", 10)).isEmpty();
+
+        SimilarityIndex wide = smallCatalog().build(10, Integer.MAX_VALUE);
+        assertThat(wide.similar("a", 10)).extracting(Recommendation::recipeId).containsExactly("b", "e");
+        assertThat(wide.similar("f", 10)).isEmpty();
+    }
+
+    @Test
+    void recommendSumsSeedContributionsAndSkipsSeedsAndNegativeTotals() {
+        SimilarityIndex index = smallCatalog().build(10, Integer.MAX_VALUE);
+
+        List<Recommendation> liked = index.recommend(List.of("a", "c"), new float[] {1f, -1f}, 10);
+        assertThat(liked).extracting(Recommendation::recipeId).containsExactly("b", "e");
+
+        List<Recommendation> both = index.recommend(List.of("a", "e"), new float[] {1f, 1f}, 10);
+        double expected = index.similar("a", 10).getFirst().score() + similarity(index, "e", "b");
+        assertThat(both).extracting(Recommendation::recipeId).containsExactly("b");
+        assertThat(both.getFirst().score()).isCloseTo(expected, within(1e-6));
+
+        assertThat(index.recommend(List.of("a"), new float[] {1f}, 1))
+                .extracting(Recommendation::recipeId).containsExactly("b");
+        assertThat(index.recommend(List.of("missing"), new float[] {1f}, 10)).isEmpty();
+    }
+
+    private static SimilarityIndex.Builder smallCatalog() {
+        SimilarityIndex.Builder builder = new SimilarityIndex.Builder();
+        builder.add("a", List.of("basil", "tomato", "spaghetti"), List.of("Italian"));
+        builder.add("b", List.of("basil", "tomato", "spaghetti", "garlic"), List.of("Italian"));
+        builder.add("c", List.of("rice", "lentil", "cumin"), List.of("Indian"));
+        builder.add("d", List.of("rice", "lentil", "spinach"), List.of("Indian"));
+        builder.add("e", List.of("basil", "tomato", "mozzarella"), null);
+        builder.add("f", List.of("honey", "walnut"), null);
+        builder.add("g", List.of(), null);
+        return builder;
+    }
+
+    private static double similarity(SimilarityIndex index, String from, String to) {
+        for (Recommendation neighbour : index.similar(from, Integer.MAX_VALUE)) {
+            if (neighbour.recipeId().equals(to)) {
+                return neighbour.score();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * BruteForce computes the idf-weighted cosine of a recipe with every other recipe directly.
+     */
+    private static final class BruteForce {
+
+        private final List<Set<String>> features = new ArrayList<>();
+        private final Map<String, Integer> frequencies = new HashMap<>();
+        private final Map<String, Double> squaredWeights = new HashMap<>();
+        private final double[] norms;
+        private final int maxFeatureFrequency;
+
+        BruteForce(List<List<String>> ingredients, int maxFeatureFrequency) {
+            this.maxFeatureFrequency = maxFeatureFrequency;
+            for (List<String> recipe : ingredients) {
+                Set<String> terms = new HashSet<>();
+                for (String ingredient : recipe) {
+                    String term = IngredientNormalizer.normalize(ingredient);
+                    if (term != null) {
+                        terms.add(term);
+                    }
+                }
+                features.add(terms);
+                terms.forEach(term -> frequencies.merge(term, 1, Integer::sum));
+            }
+            frequencies.forEach((term, frequency) -> {
+                double idf = Math.log(1.0 + (double) ingredients.size() / frequency);
+                squaredWeights.put(term, idf * idf);
+            });
+            norms = new double[features.size()];
+            for (int r = 0; r < norms.length; r++) {
+                norms[r] = Math.sqrt(features.get(r).stream().mapToDouble(squaredWeights::get).sum());
+            }
+        }
+
+        double[] cosines(int recipe) {
+            double[] cosines = new double[features.size()];
+            for (int other = 0; other < cosines.length; other++) {
+                double dot = 0;
+                for (String term : features.get(recipe)) {
+                    if (features.get(other).contains(term) && frequencies.get(term) <= maxFeatureFrequency) {
+                        dot += squaredWeights.get(term);
+                    }
+                }
+                cosines[other] = dot > 0 ? dot / (norms[recipe] * norms[other]) : 0;
+            }
+            return cosines;
+        }
+    }
+}
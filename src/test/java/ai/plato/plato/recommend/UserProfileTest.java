@@ -0,0 +1,60 @@
+package ai.plato.plato.recommend;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class UserProfileTest {
+
+    private static final long HALF_LIFE = 1_000;
+
+    @Test
+    void mergesInteractionsWithTheSameRecipeMostRecentFirst() {
+        UserProfile profile = new UserProfile(10);
+        profile.record("a", 1f, 100);
+        profile.record("b", 1f, 100);
+        profile.record("a", 3f, 100);
+        profile.record("c", -3f, 100);
+
+        List<String> seedIds = new ArrayList<>();
+        float[] weights = profile.decayedWeights(100, HALF_LIFE, seedIds);
+
+        assertThat(seedIds).containsExactly("c", "a", "b");
+        assertThat(weights).containsExactly(-3f, 4f, 1f);
+        assertThat(profile.lastActivity()).isEqualTo(100L);
+    }
+
+    @Test
+    void decaysWeightsByAge() {
+        UserProfile profile = new UserProfile(10);
+        profile.record("a", 1f, 0);
+        profile.record("a", 1f, HALF_LIFE);
+        profile.record("b", 4f, 2 * HALF_LIFE);
+
+        List<String> seedIds = new ArrayList<>();
+        float[] weights = profile.decayedWeights(2 * HALF_LIFE, HALF_LIFE, seedIds);
+
+        assertThat(seedIds).containsExactly("b", "a");
+        assertThat(weights[0]).isCloseTo(4f, within(1e-6f));
+        assertThat(weights[1]).isCloseTo(0.5f + 0.25f, within(1e-6f));
+    }
+
+    @Test
+    void dropsTheOldestInteractionsWhenFull() {
+        UserProfile profile = new UserProfile(2);
+        profile.record("a", 1f, 1);
+        profile.record("b", 1f, 2);
+        profile.record("c", 1f, 3);
+
+        List<String> seedIds = new ArrayList<>();
+        float[] weights = profile.decayedWeights(3, HALF_LIFE, seedIds);
+
+        assertThat(seedIds).containsExactly("c", "b");
+        assertThat(weights).hasSize(2);
+        assertThat(profile.lastActivity()).isEqualTo(3L);
+    }
+}
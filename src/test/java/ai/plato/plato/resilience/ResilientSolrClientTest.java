@@ -0,0 +1,307 @@
+package ai.plato.plato.resilience;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.impl.BinaryResponseParser;
+import org.apache.solr.client.solrj.impl.HttpSolrClient;
+import org.apache.solr.client.solrj.request.UpdateRequest;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
+import org.apache.solr.common.SolrException;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.util.JavaBinCodec;
+import org.apache.solr.common.util.NamedList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResilientSolrClientTest {
+
+    private final List<StubSolr> stubs = new ArrayList<>();
+    private ResilientSolrClient client;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (client != null) {
+            client.close();
+        }
+        stubs.forEach(StubSolr::close);
+    }
+
+    @Test
+    void hedgesSlowReadsOnAnotherNode() throws Exception {
+        StubSolr slow = stub("slow");
+        StubSolr fast = stub("fast");
+        slow.delayMillis = 3000;
+        client = builder(slow, fast)
+                .withHedging(true, Duration.ofMillis(50), Duration.ofMillis(50))
+                .build();
+
+        for (int i = 0; i < 4; i++) {
+            long start = System.nanoTime();
+            assertThat(answeringNode(client.query(new SolrQuery("*:*")))).isEqualTo("fast");
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        }
+        assertThat(client.hedgedRequests()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void retriesServerErrorsOnAnotherNode() throws Exception {
+        StubSolr failing = stub("failing");
+        StubSolr working = stub("working");
+        failing.selectStatus = 500;
+        client = builder(failing, working).withCircuitBreaker(100, Duration.ofMinutes(1)).build();
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(answeringNode(client.query(new SolrQuery("*:*")))).isEqualTo("working");
+        }
+        assertThat(failing.selects.get()).isEqualTo(2);
+        assertThat(client.retriedRequests()).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotRetryClientErrors() {
+        StubSolr first = stub("first");
+        StubSolr second = stub("second");
+        first.selectStatus = 400;
+        second.selectStatus = 400;
+        client = builder(first, second).build();
+
+        assertThatThrownBy(() -> client.query(new SolrQuery("title:(")))
+                .isInstanceOf(SolrException.class)
+                .satisfies(e -> assertThat(((SolrException) e).code()).isEqualTo(400));
+        assertThat(first.selects.get() + second.selects.get()).isEqualTo(1);
+        assertThat(client.retriedRequests()).isZero();
+    }
+
+    @Test
+    void openCircuitStopsTrafficToFailingNode() throws Exception {
+        StubSolr failing = stub("failing");
+        StubSolr working = stub("working");
+        failing.selectStatus = 500;
+        client = builder(failing, working).withCircuitBreaker(2, Duration.ofMinutes(1)).build();
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(answeringNode(client.query(new SolrQuery("*:*")))).isEqualTo("working");
+        }
+        assertThat(failing.selects.get()).isEqualTo(2);
+        assertThat(client.isCircuitOpen(failing.baseUrl())).isTrue();
+        assertThat(client.isCircuitOpen(working.baseUrl())).isFalse();
+        assertThat(client.circuitOpenedCount(failing.baseUrl())).isEqualTo(1);
+        assertThat(client.circuitOpenedCount(working.baseUrl())).isZero();
+    }
+
+    @Test
+    void cancelledHedgeReleasesTheTrialOfAHalfOpenNode() throws Exception {
+        StubSolr primary = stub("primary");
+        StubSolr recovering = stub("recovering");
+        recovering.selectStatus = 500;
+        client = builder(primary, recovering)
+                .withHedging(true, Duration.ofMillis(20), Duration.ofMillis(20))
+                .withCircuitBreaker(1, Duration.ofMillis(30))
+                .build();
+
+        // Round-robin: the first query starts on "primary", the second on "recovering", which fails and opens
+        assertThat(answeringNode(client.query(new SolrQuery("*:*")))).isEqualTo("primary");
+        assertThat(answeringNode(client.query(new SolrQuery("*:*")))).isEqualTo("primary");
+        assertThat(client.isCircuitOpen(recovering.baseUrl())).isTrue();
+        Thread.sleep(60);
+
+        // The hedge is the trial request of the half-open breaker and loses the race
+        recovering.selectStatus = 200;
+        recovering.delayMillis = 3000;
+        primary.delayMillis = 150;
+        int selects = recovering.selects.get();
+        assertThat(answeringNode(client.query(new SolrQuery("*:*")))).isEqualTo("primary");
+        assertThat(recovering.selects.get()).isEqualTo(selects + 1);
+
+        // Without the released trial slot "recovering" would be left out of routing and this query would fail
+        recovering.delayMillis = 0;
+        primary.selectStatus = 500;
+        assertThat(answeringNode(client.query(new SolrQuery("*:*")))).isEqualTo("recovering");
+        assertThat(client.isCircuitOpen(recovering.baseUrl())).isFalse();
+    }
+
+    @Test
+    void sendsUpdatesExactlyOnce() {
+        StubSolr first = stub("first");
+        StubSolr second = stub("second");
+        first.updateStatus = 500;
+        second.updateStatus = 500;
+        client = builder(first, second).build();
+
+        SolrInputDocument document = new SolrInputDocument();
+        document.addField("id", "1");
+        document.addField("views", Map.of("inc", 1));
+        UpdateRequest update = new UpdateRequest();
+        update.add(document);
+
+        assertThatThrownBy(() -> update.process(client)).isInstanceOf(SolrException.class);
+        assertThat(first.updates.get() + second.updates.get()).isEqualTo(1);
+    }
+
+    @Test
+    void failedHealthProbeTakesNodeOutOfRotation() throws Exception {
+        StubSolr sick = stub("sick");
+        StubSolr healthy = stub("healthy");
+        sick.pingStatus = 503;
+        client = builder(sick, healthy).build();
+
+        client.probeAll();
+
+        assertThat(client.isHealthy(sick.baseUrl())).isFalse();
+        assertThat(client.isHealthy(healthy.baseUrl())).isTrue();
+        for (int i = 0; i < 4; i++) {
+            assertThat(answeringNode(client.query(new SolrQuery("*:*")))).isEqualTo("healthy");
+        }
+        assertThat(sick.selects.get()).isZero();
+
+        sick.pingStatus = 200;
+        client.probeAll();
+        assertThat(client.isHealthy(sick.baseUrl())).isTrue();
+    }
+
+    private StubSolr stub(String name) {
+        StubSolr stub = new StubSolr(name);
+        stubs.add(stub);
+        return stub;
+    }
+
+    private static ResilientSolrClient.Builder builder(StubSolr... nodes) {
+        List<String> baseUrls = new ArrayList<>();
+        for (StubSolr node : nodes) {
+            baseUrls.add(node.baseUrl());
+        }
+        return new ResilientSolrClient.Builder(baseUrls)
+                .withNodeClientFactory(baseUrl -> new HttpSolrClient.Builder(baseUrl)
+                        .withResponseParser(new BinaryResponseParser())
+                        .withConnectionTimeout(1000, TimeUnit.MILLISECONDS)
+                        .withSocketTimeout(5000, TimeUnit.MILLISECONDS)
+                        .build())
+                .withProbeInterval(Duration.ofHours(1))
+                .withHedging(false, Duration.ofMillis(10), Duration.ofMillis(500));
+    }
+
+    private static String answeringNode(QueryResponse response) {
+        return (String) response.getResults().getFirst().getFieldValue("node");
+    }
+
+    /**
+     * A minimal Solr core speaking javabin: select, update and ping handlers with configurable delay and status.
+     */
+    private static final class StubSolr {
+
+        private final String name;
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+        private final AtomicInteger selects = new AtomicInteger();
+        private final AtomicInteger updates = new AtomicInteger();
+        private volatile long delayMillis;
+        private volatile int selectStatus = 200;
+        private volatile int updateStatus = 200;
+        private volatile int pingStatus = 200;
+
+        StubSolr(String name) {
+            this.name = name;
+            try {
+                server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            server.createContext("/solr/recipes/select", exchange -> {
+                selects.incrementAndGet();
+                sleep(delayMillis);
+                respond(exchange, selectStatus, selectResponse());
+            });
+            server.createContext("/solr/recipes/update", exchange -> {
+                updates.incrementAndGet();
+                exchange.getRequestBody().readAllBytes();
+                respond(exchange, updateStatus, header());
+            });
+            server.createContext("/solr/recipes/admin/ping", exchange -> {
+                NamedList<Object> body = header();
+                body.add("status", "OK");
+                respond(exchange, pingStatus, body);
+            });
+            server.setExecutor(executor);
+            server.start();
+        }
+
+        String baseUrl() {
+            return "http://127.0.0.1:" + server.getAddress().getPort() + "/solr/recipes";
+        }
+
+        void close() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+
+        private NamedList<Object> selectResponse() {
+            SolrDocument document = new SolrDocument();
+            document.setField("id", "1");
+            document.setField("node", name);
+            SolrDocumentList results = new SolrDocumentList();
+            results.add(document);
+            results.setNumFound(1);
+            NamedList<Object> body = header();
+            body.add("response", results);
+            return body;
+        }
+
+        private static NamedList<Object> header() {
+            NamedList<Object> header = new NamedList<>();
+            header.add("status", 0);
+            header.add("QTime", 1);
+            NamedList<Object> body = new NamedList<>();
+            body.add("responseHeader", header);
+            return body;
+        }
+
+        private static void respond(HttpExchange exchange, int status, NamedList<Object> body) throws IOException {
+            if (status != 200) {
+                NamedList<Object> error = new NamedList<>();
+                error.add("msg", "stub failure");
+                error.add("code", status);
+                body = header();
+                body.add("error", error);
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            new JavaBinCodec().marshal(body, bytes);
+            exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+            try (OutputStream out = exchange.getResponseBody()) {
+                exchange.sendResponseHeaders(status, bytes.size());
+                out.write(bytes.toByteArray());
+            } catch (IOException e) {
+                // The client gave up on this request, e.g. a hedge that lost the race
+            }
+        }
+
+        private static void sleep(long millis) {
+            if (millis <= 0) {
+                return;
+            }
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ai.plato.plato.suggest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixIndexTest {
+
+    @Test
+    void completesOnlyKeysStartingWithThePrefix() {
+        PrefixIndex index = index("pasta", 5, "pasta bake", 9, "pastry", 2, "pesto", 7, "pa", 1);
+
+        assertThat(index.complete("past", 10, List.of())).extracting(Suggestion::text)
+                .containsExactly("pasta bake", "pasta", "pastry");
+        assertThat(index.complete("pasta", 10, List.of())).extracting(Suggestion::text)
+                .containsExactly("pasta bake", "pasta");
+    }
+
+    @Test
+    void completesEveryKeyForTheEmptyPrefix() {
+        PrefixIndex index = index("b", 1, "a", 2, "c", 3);
+
+        assertThat(index.complete("", 10, List.of())).extracting(Suggestion::text)
+                .containsExactly("c", "a", "b");
+    }
+
+    @Test
+    void findsNothingForPrefixesOutsideTheKeys() {
+        PrefixIndex index = index("apple", 1, "banana", 2);
+
+        assertThat(index.complete("zucchini", 10, List.of())).isEmpty();
+        assertThat(index.complete("aa", 10, List.of())).isEmpty();
+        assertThat(index.complete("bananas", 10, List.of())).isEmpty();
+        assertThat(PrefixIndex.EMPTY.complete("a", 10, List.of())).isEmpty();
+    }
+
+    @Test
+    void keepsTheHighestWeightsUpToTheLimit() {
+        PrefixIndex index = index("a1", 4, "a2", 8, "a3", 1, "a4", 6, "a5", 3);
+
+        assertThat(index.complete("a", 3, List.of())).extracting(Suggestion::weight)
+                .containsExactly(8L, 6L, 4L);
+        assertThat(index.complete("a", 1, List.of())).extracting(Suggestion::text)
+                .containsExactly("a2");
+    }
+
+    @Test
+    void cutsTiesAtTheLimitByText() {
+        PrefixIndex index = index("d", 5, "b", 5, "e", 9, "a", 5, "c", 5);
+
+        assertThat(index.complete("", 3, List.of())).extracting(Suggestion::text)
+                .containsExactly("e", "a", "b");
+        // Extra candidates compete with the same ordering
+        assertThat(index.complete("", 3, List.of(new Suggestion("aa", 5), new Suggestion("f", 10))))
+                .extracting(Suggestion::text).containsExactly("f", "e", "a");
+    }
+
+    @Test
+    void mergesExtraCandidates() {
+        PrefixIndex index = index("salt", 3, "sage", 1);
+
+        assertThat(index.complete("sa", 2, List.of(new Suggestion("saffron", 2)))).extracting(Suggestion::text)
+                .containsExactly("salt", "saffron");
+    }
+
+    @Test
+    void looksUpExactKeys() {
+        PrefixIndex index = index("salt", 3, "sage", 1);
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.contains("salt")).isTrue();
+        assertThat(index.contains("sal")).isFalse();
+    }
+
+    /**
+     * Builds an index from alternating keys and weights; the text of every suggestion is its key.
+     */
+    private static PrefixIndex index(Object... keysAndWeights) {
+        Map<String, Suggestion> entries = new HashMap<>();
+        for (int i = 0; i < keysAndWeights.length; i += 2) {
+            String key = (String) keysAndWeights[i];
+            entries.put(key, new Suggestion(key, ((Number) keysAndWeights[i + 1]).longValue()));
+        }
+        return PrefixIndex.of(entries);
+    }
+}